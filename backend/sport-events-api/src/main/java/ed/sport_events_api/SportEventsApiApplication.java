@@ -2,8 +2,10 @@ package ed.sport_events_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SportEventsApiApplication {
 
 	public static void main(String[] args) {
@@ -1,6 +1,9 @@
 package ed.sport_events_api.config;
 
 import ed.sport_events_api.util.PasswordEncoderImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -10,6 +13,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
 import java.util.List;
 
@@ -18,13 +22,20 @@ import static org.springframework.security.config.Customizer.withDefaults;
 @Configuration
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class AppConfig {
     @Bean
-    public org.springframework.security.crypto.password.PasswordEncoder passwordEncoder() {
-        return new PasswordEncoderImpl();
+    public org.springframework.security.crypto.password.PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.bcrypt-strength:10}") int strength) {
+        return new PasswordEncoderImpl(strength);
     }
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimitProperties rateLimitProperties,
+                                           MeterRegistry meterRegistry) throws Exception {
+        if (rateLimitProperties.isEnabled()) {
+            // После CORS, чтобы ответ 429 тоже нёс CORS-заголовки и был виден фронтенду
+            http.addFilterAfter(new RateLimitFilter(rateLimitProperties, meterRegistry), CorsFilter.class);
+        }
         http
                 .cors(withDefaults())
                 .authorizeHttpRequests(authorize -> authorize
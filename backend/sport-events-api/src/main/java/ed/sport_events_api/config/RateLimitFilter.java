@@ -0,0 +1,93 @@
+package ed.sport_events_api.config;
+
+import ed.sport_events_api.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограничение частоты запросов к REST API: token bucket на пару
+ * (клиент, маршрут). Маршрут выбирается по самому длинному подходящему
+ * префиксу пути; запросы вне маршрутов и preflight OPTIONS не ограничиваются.
+ * Отказ — 429 с Retry-After и счётчик http.server.requests.rate_limited.
+ * Фильтр встраивается в цепочку Spring Security в AppConfig.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter limiter;
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.limiter = new RateLimiter(properties.getStripes(), properties.getMaxClients());
+        for (Map.Entry<String, RateLimitProperties.Route> entry : properties.getRoutes().entrySet()) {
+            RateLimitProperties.Route route = entry.getValue();
+            Counter rejected = Counter.builder("http.server.requests.rate_limited")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", entry.getKey())
+                    .register(meterRegistry);
+            routes.add(new Route(entry.getKey(), route.getPath(),
+                    new RateLimiter.Limit(route.getCapacity(), route.getRefillPerSecond()), rejected));
+        }
+        routes.sort(Comparator.comparingInt((Route route) -> route.path.length()).reversed());
+        Gauge.builder("rate_limiter.buckets", limiter, RateLimiter::size)
+                .description("Client buckets currently tracked by the rate limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = "OPTIONS".equals(request.getMethod()) ? null : match(request.getRequestURI());
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr() + '|' + route.name, route.limit, System.nanoTime());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        route.rejected.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests");
+    }
+
+    private Route match(String uri) {
+        for (Route route : routes) {
+            if (uri.startsWith(route.path)
+                    && (uri.length() == route.path.length() || uri.charAt(route.path.length()) == '/')) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static final class Route {
+        private final String name;
+        private final String path;
+        private final RateLimiter.Limit limit;
+        private final Counter rejected;
+
+        private Route(String name, String path, RateLimiter.Limit limit, Counter rejected) {
+            this.name = name;
+            this.path = path;
+            this.limit = limit;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package ed.sport_events_api.controller;
 
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.dto.EventDetailsDTO;
+import ed.sport_events_api.dto.EventFilter;
+import ed.sport_events_api.dto.FanoutProgressDTO;
+import ed.sport_events_api.dto.ParticipationDTO;
 import ed.sport_events_api.dto.ParticipationRequest;
+import ed.sport_events_api.dto.RegistrationTicketDTO;
 import ed.sport_events_api.model.Event;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.service.EventFanoutService;
 import ed.sport_events_api.service.EventService;
+import ed.sport_events_api.service.RegistrationRushService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,31 +23,67 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class EventController {
     private final EventService eventService;
+    private final RegistrationRushService registrationRushService;
+    private final EventFanoutService eventFanoutService;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, RegistrationRushService registrationRushService,
+                           EventFanoutService eventFanoutService) {
         this.eventService = eventService;
+        this.registrationRushService = registrationRushService;
+        this.eventFanoutService = eventFanoutService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<?> getEvents(EventFilter filter,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(eventService.getEvents(filter, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getEventById(@PathVariable Long id) {
-        return ResponseEntity.ok(eventService.getEventById(id));
+    public ResponseEntity<EventDetailsDTO> getEventById(@PathVariable Long id) {
+        return ResponseEntity.ok(eventService.getEventDetails(id));
     }
 
+    // В режиме ажиотажа заявка ставится в очередь: 202 и билет для опроса статуса
     @PostMapping("/{eventId}/participate")
-    public ResponseEntity<Event> participateInEvent(
+    public ResponseEntity<?> participateInEvent(
             @PathVariable Long eventId,
             @RequestBody ParticipationRequest participationRequest) {
+        if (registrationRushService.isRushMode(eventId)) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(registrationRushService.enqueue(
+                    eventId,
+                    participationRequest.getUserId(),
+                    ParticipantRole.fromString(participationRequest.getRole())));
+        }
         return ResponseEntity.ok(eventService.participateInEvent(
                 eventId,
                 participationRequest.getUserId(),
                 participationRequest.getRole()));
     }
 
+    @GetMapping("/registrations/{ticketId}")
+    public ResponseEntity<RegistrationTicketDTO> getRegistrationTicket(@PathVariable String ticketId) {
+        return ResponseEntity.ok(registrationRushService.getTicket(ticketId));
+    }
+
+    // Ход последней рассылки участникам об изменении события
+    @GetMapping("/{id}/fanout")
+    public ResponseEntity<FanoutProgressDTO> getFanoutProgress(@PathVariable Long id) {
+        return ResponseEntity.ok(eventFanoutService.getProgress(id));
+    }
+
+    @PutMapping("/{id}/rush-mode")
+//    @PreAuthorize("hasRole('ORGANIZER') or hasRole('ADMIN')")
+    public ResponseEntity<Void> setRushMode(@PathVariable Long id, @RequestParam boolean enabled) {
+        registrationRushService.setRushMode(id, enabled);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping
 //    @PreAuthorize("hasRole('ORGANIZER') or hasRole('ADMIN')")
     public ResponseEntity<Event> createEvent(@RequestBody Event event,  @RequestHeader("Authorization") String token) {
@@ -60,29 +105,42 @@ public class EventController {
 
     @PostMapping("/{eventId}/players/{userId}")
 //    @PreAuthorize("hasRole('PLAYER')")
-    public ResponseEntity<Event> registerPlayer(@PathVariable Long eventId, @PathVariable Long userId) {
+    public ResponseEntity<ParticipationDTO> registerPlayer(@PathVariable Long eventId, @PathVariable Long userId) {
         return ResponseEntity.ok(eventService.registerPlayer(eventId, userId));
     }
 
     @PostMapping("/{eventId}/spectators/{userId}")
 //    @PreAuthorize("hasRole('SPECTATOR')")
-    public ResponseEntity<Event> registerSpectator(@PathVariable Long eventId, @PathVariable Long userId) {
+    public ResponseEntity<ParticipationDTO> registerSpectator(@PathVariable Long eventId, @PathVariable Long userId) {
         return ResponseEntity.ok(eventService.registerSpectator(eventId, userId));
     }
 
     @PostMapping("/{eventId}/referees/{userId}")
 //    @PreAuthorize("hasRole('REFEREE') or hasRole('ADMIN')")
-    public ResponseEntity<Event> registerReferee(@PathVariable Long eventId, @PathVariable Long userId) {
+    public ResponseEntity<ParticipationDTO> registerReferee(@PathVariable Long eventId, @PathVariable Long userId) {
         return ResponseEntity.ok(eventService.registerReferee(eventId, userId));
     }
 
+    @DeleteMapping("/{eventId}/{role}/{userId}")
+    public ResponseEntity<?> withdrawParticipant(@PathVariable Long eventId,
+                                                 @PathVariable String role,
+                                                 @PathVariable Long userId) {
+        try {
+            eventService.withdrawParticipant(eventId, role, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/sport-type/{sportTypeId}")
-    public ResponseEntity<List<Event>> getEventsBySportType(@PathVariable Long sportTypeId) {
+    public ResponseEntity<List<EventDTO>> getEventsBySportType(@PathVariable Long sportTypeId) {
         return ResponseEntity.ok(eventService.getEventsBySportType(sportTypeId));
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Event>> getUpcomingEvents() {
-        return ResponseEntity.ok(eventService.getUpcomingEvents());
+    public ResponseEntity<List<EventDTO>> getUpcomingEvents(@RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) Integer days) {
+        return ResponseEntity.ok(eventService.getUpcomingEvents(limit, days));
     }
 }
\ No newline at end of file
@@ -1,36 +1,109 @@
 package ed.sport_events_api.controller;
 
+import ed.sport_events_api.dto.CursorPage;
+import ed.sport_events_api.dto.NotificationDTO;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.exception.UnauthorizedException;
+import ed.sport_events_api.service.AuthServiceImpl;
+import ed.sport_events_api.service.NotificationBroker;
 import ed.sport_events_api.service.NotificationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = "http://localhost:3000")
 public class NotificationController {
     private final NotificationService notificationService;
+    private final AuthServiceImpl authService;
+    private final NotificationBroker notificationBroker;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+                                  AuthServiceImpl authService,
+                                  NotificationBroker notificationBroker) {
         this.notificationService = notificationService;
+        this.authService = authService;
+        this.notificationBroker = notificationBroker;
     }
 
-    @PutMapping("/{id}/read")
-    public ResponseEntity<?> readNotification(@PathVariable Long id) {
+    @GetMapping
+    public ResponseEntity<?> getInbox(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = authService.getCurrentUserId(token);
         try {
-            notificationService.markAsRead(id);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            CursorPage<NotificationDTO> page = notificationService.getInbox(userId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    @DeleteMapping("/all")
-    public ResponseEntity<?> deleteNotification(@PathVariable Long id) {
-        try {
-            notificationService.deleteNotification(id);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+    /**
+     * Поток новых оповещений (text/event-stream). EventSource в браузере не
+     * умеет заголовки, поэтому токен можно передать параметром token.
+     * Переподключение с Last-Event-ID дочитывает пропущенное.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Authorization", required = false) String header,
+            @RequestParam(required = false) String token,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long userId = authService.getCurrentUserId(header != null ? header : token == null ? null : "Bearer " + token);
+        Long after = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                after = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Чужой формат id — начинаем без дочитывания
+            }
         }
+        return notificationBroker.subscribe(userId, after);
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> getUnreadCount(@RequestHeader("Authorization") String token) {
+        Long userId = authService.getCurrentUserId(token);
+        return ResponseEntity.ok(Map.of("unread", notificationService.getUnreadCount(userId)));
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<?> readNotification(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        notificationService.markAsRead(authService.getCurrentUserId(token), id);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<?> readAll(@RequestHeader("Authorization") String token) {
+        int updated = notificationService.markAllAsRead(authService.getCurrentUserId(token));
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteNotification(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        notificationService.deleteNotification(authService.getCurrentUserId(token), id);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/all")
+    public ResponseEntity<?> deleteAll(@RequestHeader("Authorization") String token) {
+        int deleted = notificationService.deleteAll(authService.getCurrentUserId(token));
+        return ResponseEntity.ok(Map.of("deleted", deleted));
+    }
+
+    @ExceptionHandler(UnauthorizedException.class)
+    public ResponseEntity<?> unauthorized(UnauthorizedException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<?> notFound(ResourceNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,6 @@
 package ed.sport_events_api.controller;
 
-import ed.sport_events_api.model.Event;
+import ed.sport_events_api.dto.EventDTO;
 import ed.sport_events_api.service.EventService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -21,7 +21,7 @@ public class ResultController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Event>> getFinishedEvents() {
+    public ResponseEntity<List<EventDTO>> getFinishedEvents() {
         return ResponseEntity.ok(eventService.getFinishedEvents());
     }
 }
@@ -0,0 +1,32 @@
+package ed.sport_events_api.controller;
+
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.model.enums.SuggestionType;
+import ed.sport_events_api.service.SuggestIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+
+    private final SuggestIndex suggestIndex;
+
+    public SearchController(SuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    // Подсказки по префиксу имени или email; type — USER, VENUE или TEAM, без него по всем
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String q,
+                                                       @RequestParam(required = false) SuggestionType type,
+                                                       @RequestParam(required = false) Integer limit) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(suggestIndex.suggest(q, type, size));
+    }
+}
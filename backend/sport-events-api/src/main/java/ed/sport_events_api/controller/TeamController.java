@@ -1,6 +1,8 @@
 package ed.sport_events_api.controller;
 
+import ed.sport_events_api.dto.PageResponse;
 import ed.sport_events_api.dto.TeamCreateRequest;
+import ed.sport_events_api.dto.TeamSummaryDTO;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.exception.UnauthorizedException;
 import ed.sport_events_api.model.Team;
@@ -11,7 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -39,13 +41,36 @@ public class TeamController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
-        return ResponseEntity.ok(teamService.getTeamById(id));
+    public ResponseEntity<TeamSummaryDTO> getTeamById(@PathVariable Long id) {
+        return ResponseEntity.ok(teamService.getTeamSummary(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<Team>> getAllTeams() {
-        return ResponseEntity.ok(teamService.getAllTeams());
+    public ResponseEntity<PageResponse<TeamSummaryDTO>> getTeams(@RequestParam(required = false) Integer page,
+                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(teamService.getTeams(page, size));
+    }
+
+    @GetMapping("/{id}/members")
+    public ResponseEntity<?> getMembers(@PathVariable Long id,
+                                        @RequestParam(required = false) Integer page,
+                                        @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(teamService.getMembers(id, page, size));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Состоит ли текущий пользователь в команде — без загрузки состава
+    @GetMapping("/{id}/membership")
+    public ResponseEntity<?> getMembership(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        try {
+            Long userId = authService.getCurrentUserId(token);
+            return ResponseEntity.ok(Map.of("member", teamService.isMember(id, userId)));
+        } catch (UnauthorizedException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
     }
 
     @PutMapping("/{id}")
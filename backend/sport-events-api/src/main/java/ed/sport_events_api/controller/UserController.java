@@ -2,13 +2,13 @@ package ed.sport_events_api.controller;
 
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.ERole;
+import ed.sport_events_api.service.UserPurgeService;
 import ed.sport_events_api.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
@@ -16,15 +16,24 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserPurgeService userPurgeService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserPurgeService userPurgeService) {
         this.userService = userService;
+        this.userPurgeService = userPurgeService;
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getUsers(@RequestParam(required = false) ERole role,
+                                      @RequestParam(required = false) String q,
+                                      @RequestParam(required = false) Integer page,
+                                      @RequestParam(required = false) Integer size,
+                                      @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(userService.getUsers(role, q, page, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -57,8 +66,14 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    // async=true — для пользователей с большой историей: 202, удаление идёт в фоне
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id,
+                                           @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            userPurgeService.submit(id);
+            return ResponseEntity.accepted().build();
+        }
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
@@ -76,7 +91,14 @@ public class UserController {
     }
 
     @GetMapping("/players")
-    public List<User> getAllPlayers() {
-        return userService.getUsersByRole(ERole.PLAYER);
+    public ResponseEntity<?> getPlayers(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) Integer page,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(userService.getUsers(ERole.PLAYER, q, page, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package ed.sport_events_api.controller;
 
+import ed.sport_events_api.dto.VenueAvailabilityDTO;
 import ed.sport_events_api.model.Venue;
 import ed.sport_events_api.service.VenueService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -31,6 +35,22 @@ public class VenueController {
         return ResponseEntity.ok(venue);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            VenueAvailabilityDTO availability = venueService.getAvailability(id, from, to);
+            if (availability == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(availability);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/create")
     public ResponseEntity<Venue> create(@RequestBody Venue venue) {
         Venue createdVenue = venueService.create(venue);
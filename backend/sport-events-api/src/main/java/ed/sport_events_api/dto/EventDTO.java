@@ -2,17 +2,60 @@ package ed.sport_events_api.dto;
 
 import ed.sport_events_api.model.enums.EventStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Облегчённое представление события для списков: вместо полных списков
+ * участников содержит только их количество.
+ */
 @Data
+@NoArgsConstructor
 public class EventDTO {
     private Long id;
     private String title;
     private String description;
+    private String iconUrl;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
+    private EventStatus status;
+    private String result;
+    private Long sportTypeId;
     private String sportTypeName;
+    private Long venueId;
+    private String venueName;
+    private String venueAddress;
     private Long organizerId;
-    private EventStatus status;
+    private String organizerName;
+    private Integer playersCount;
+    private Integer spectatorsCount;
+    private Integer refereesCount;
+
+    // Используется в JPQL-проекциях EventRepository
+    public EventDTO(Long id, String title, String description, String iconUrl,
+                    LocalDateTime startDate, LocalDateTime endDate, EventStatus status, String result,
+                    Long sportTypeId, String sportTypeName,
+                    Long venueId, String venueName, String venueAddress,
+                    Long organizerId, String organizerName,
+                    Integer playersCount, Integer spectatorsCount, Integer refereesCount) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.iconUrl = iconUrl;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.result = result;
+        this.sportTypeId = sportTypeId;
+        this.sportTypeName = sportTypeName;
+        this.venueId = venueId;
+        this.venueName = venueName;
+        this.venueAddress = venueAddress;
+        this.organizerId = organizerId;
+        this.organizerName = organizerName;
+        this.playersCount = playersCount;
+        this.spectatorsCount = spectatorsCount;
+        this.refereesCount = refereesCount;
+    }
 }
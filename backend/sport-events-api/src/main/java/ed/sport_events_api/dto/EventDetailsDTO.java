@@ -0,0 +1,61 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.Event;
+import ed.sport_events_api.model.SportType;
+import ed.sport_events_api.model.Venue;
+import ed.sport_events_api.model.enums.EventStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Карточка события: само событие, вид спорта, площадка и участники
+ * в виде кратких сведений о пользователях.
+ */
+@Data
+@NoArgsConstructor
+public class EventDetailsDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private String iconUrl;
+    private LocalDateTime creationDate;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String result;
+    private EventStatus status;
+    private SportType sportType;
+    private Venue venue;
+    private UserSummaryDTO organizer;
+    private List<UserSummaryDTO> players;
+    private List<UserSummaryDTO> spectators;
+    private List<UserSummaryDTO> referees;
+
+    public EventDetailsDTO(Event event,
+                           List<UserSummaryDTO> players,
+                           List<UserSummaryDTO> spectators,
+                           List<UserSummaryDTO> referees) {
+        this.id = event.getId();
+        this.title = event.getTitle();
+        this.description = event.getDescription();
+        this.iconUrl = event.getIcon_url();
+        this.creationDate = event.getCreationDate();
+        this.startDate = event.getStartDate();
+        this.endDate = event.getEndDate();
+        this.result = event.getResult();
+        this.status = event.getStatus();
+        this.sportType = event.getSportType();
+        this.venue = event.getVenue();
+        if (event.getOrganizer() != null) {
+            this.organizer = new UserSummaryDTO(
+                    event.getOrganizer().getId(),
+                    event.getOrganizer().getName(),
+                    event.getOrganizer().getAvatar_url());
+        }
+        this.players = players;
+        this.spectators = spectators;
+        this.referees = referees;
+    }
+}
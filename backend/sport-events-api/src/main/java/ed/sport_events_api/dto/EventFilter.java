@@ -0,0 +1,62 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.EventStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фильтры списка событий. Все поля необязательные; диапазон дат
+ * применяется к дате начала: {@code from <= startDate < to}.
+ */
+public class EventFilter {
+    private EventStatus status;
+    private Long sportTypeId;
+    private Long venueId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    public EventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EventStatus status) {
+        this.status = status;
+    }
+
+    public Long getSportTypeId() {
+        return sportTypeId;
+    }
+
+    public void setSportTypeId(Long sportTypeId) {
+        this.sportTypeId = sportTypeId;
+    }
+
+    public Long getVenueId() {
+        return venueId;
+    }
+
+    public void setVenueId(Long venueId) {
+        this.venueId = venueId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
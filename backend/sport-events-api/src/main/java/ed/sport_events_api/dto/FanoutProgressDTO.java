@@ -0,0 +1,30 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.FanoutStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class FanoutProgressDTO {
+    private String jobId;
+    private Long eventId;
+    private FanoutStatus status;
+    private int total;      // число участников; 0, пока они не выбраны
+    private int delivered;  // сколько оповещений уже записано
+    private Instant queuedAt;
+    private Instant finishedAt;
+
+    public FanoutProgressDTO(String jobId, Long eventId, FanoutStatus status, int total, int delivered,
+                             Instant queuedAt, Instant finishedAt) {
+        this.jobId = jobId;
+        this.eventId = eventId;
+        this.status = status;
+        this.total = total;
+        this.delivered = delivered;
+        this.queuedAt = queuedAt;
+        this.finishedAt = finishedAt;
+    }
+}
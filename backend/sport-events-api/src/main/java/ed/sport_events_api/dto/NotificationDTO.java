@@ -0,0 +1,56 @@
+package ed.sport_events_api.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Оповещение в ленте пользователя. Поля названы так же, как в сущности
+ * Notification, чтобы клиент читал их без изменений.
+ */
+public class NotificationDTO {
+    private final Long id;
+    private final String topic;
+    private final String message;
+    private final boolean read;
+    private final LocalDateTime creationDate;
+    private final int count; // число слитых одинаковых оповещений
+    private final LocalDateTime lastRepeatedAt;
+
+    public NotificationDTO(Long id, String topic, String message, Boolean read, LocalDateTime creationDate,
+                           Integer count, LocalDateTime lastRepeatedAt) {
+        this.id = id;
+        this.topic = topic;
+        this.message = message;
+        this.read = Boolean.TRUE.equals(read);
+        this.creationDate = creationDate;
+        this.count = count == null ? 1 : count;
+        this.lastRepeatedAt = lastRepeatedAt == null ? creationDate : lastRepeatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastRepeatedAt() {
+        return lastRepeatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.ParticipantRole;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат регистрации участника. created = false — пользователь уже был
+ * зарегистрирован в этой роли, состояние события не изменилось.
+ */
+@Data
+@NoArgsConstructor
+public class ParticipationDTO {
+    private Long eventId;
+    private Long userId;
+    private ParticipantRole role;
+    private boolean created;
+    private Integer playersCount;
+    private Integer spectatorsCount;
+    private Integer refereesCount;
+
+    public ParticipationDTO(Long eventId, Long userId, ParticipantRole role, boolean created, SeatStateDTO seats) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.role = role;
+        this.created = created;
+        this.playersCount = seats.getPlayers();
+        this.spectatorsCount = seats.getSpectators();
+        this.refereesCount = seats.getReferees();
+    }
+}
@@ -0,0 +1,27 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.model.enums.TicketStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RegistrationTicketDTO {
+    private String ticketId;
+    private Long eventId;
+    private Long userId;
+    private ParticipantRole role;
+    private TicketStatus status;
+    private Long position; // место в очереди; null, когда заявка уже обработана
+
+    public RegistrationTicketDTO(String ticketId, Long eventId, Long userId, ParticipantRole role,
+                                 TicketStatus status, Long position) {
+        this.ticketId = ticketId;
+        this.eventId = eventId;
+        this.userId = userId;
+        this.role = role;
+        this.status = status;
+        this.position = position;
+    }
+}
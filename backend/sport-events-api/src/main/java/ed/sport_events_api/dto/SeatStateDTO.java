@@ -0,0 +1,48 @@
+package ed.sport_events_api.dto;
+
+/**
+ * Текущее число участников события и ограничения на него:
+ * максимум игроков из вида спорта и вместимость площадки (null — без ограничения).
+ */
+public class SeatStateDTO {
+    private final Long eventId;
+    private final int players;
+    private final int spectators;
+    private final int referees;
+    private final Integer maxPlayers;
+    private final Long venueCapacity;
+
+    public SeatStateDTO(Long eventId, int players, int spectators, int referees,
+                        Integer maxPlayers, Long venueCapacity) {
+        this.eventId = eventId;
+        this.players = players;
+        this.spectators = spectators;
+        this.referees = referees;
+        this.maxPlayers = maxPlayers;
+        this.venueCapacity = venueCapacity;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getSpectators() {
+        return spectators;
+    }
+
+    public int getReferees() {
+        return referees;
+    }
+
+    public Integer getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public Long getVenueCapacity() {
+        return venueCapacity;
+    }
+}
@@ -0,0 +1,51 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.Role;
+import ed.sport_events_api.model.enums.ERole;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Компактная запись сессии: вместо сущности User хранится только id
+ * пользователя и его роли в виде битовой маски (бит = ERole.ordinal()).
+ */
+public final class SessionRecord {
+    private final Long userId;
+    private final int rolesMask;
+    private final LocalDateTime issuedAt;
+
+    public SessionRecord(Long userId, int rolesMask, LocalDateTime issuedAt) {
+        this.userId = userId;
+        this.rolesMask = rolesMask;
+        this.issuedAt = issuedAt;
+    }
+
+    public static int rolesMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                if (role.getName() != null) {
+                    mask |= 1 << role.getName().ordinal();
+                }
+            }
+        }
+        return mask;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getRolesMask() {
+        return rolesMask;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public boolean hasRole(ERole role) {
+        return (rolesMask & (1 << role.ordinal())) != 0;
+    }
+}
@@ -0,0 +1,42 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.SuggestionType;
+
+/**
+ * Подсказка автодополнения: что нашлось и как это показать.
+ * detail — email пользователя или адрес площадки, у команд пусто.
+ */
+public class SuggestionDTO {
+    private final SuggestionType type;
+    private final Long id;
+    private final String name;
+    private final String detail;
+
+    public SuggestionDTO(SuggestionType type, Long id, String name, String detail) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.detail = detail;
+    }
+
+    // Для конструкторных выражений JPQL: тип приходит строковым литералом
+    public SuggestionDTO(String type, Long id, String name, String detail) {
+        this(SuggestionType.valueOf(type), id, name, detail);
+    }
+
+    public SuggestionType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,46 @@
+package ed.sport_events_api.dto;
+
+import java.time.LocalDateTime;
+
+// Строка состава команды: только то, что показывает карточка участника
+public class TeamMemberDTO {
+    private final Long id;
+    private final Long userId;
+    private final String name;
+    private final String avatarUrl;
+    private final String role;
+    private final LocalDateTime joinDate;
+
+    public TeamMemberDTO(Long id, Long userId, String name, String avatarUrl, String role, LocalDateTime joinDate) {
+        this.id = id;
+        this.userId = userId;
+        this.name = name;
+        this.avatarUrl = avatarUrl;
+        this.role = role;
+        this.joinDate = joinDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public LocalDateTime getJoinDate() {
+        return joinDate;
+    }
+}
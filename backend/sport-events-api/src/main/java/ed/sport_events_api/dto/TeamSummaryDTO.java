@@ -0,0 +1,48 @@
+package ed.sport_events_api.dto;
+
+/**
+ * Карточка команды в каталоге: капитан и число участников без состава.
+ * Число считается в том же запросе (count по группе команды), состав
+ * отдаётся отдельно постранично — TeamMemberDTO.
+ */
+public class TeamSummaryDTO {
+    private final Long id;
+    private final String name;
+    private final String logoUrl;
+    private final Long captainId;
+    private final String captainName;
+    private final long memberCount;
+
+    public TeamSummaryDTO(Long id, String name, String logoUrl, Long captainId, String captainName, long memberCount) {
+        this.id = id;
+        this.name = name;
+        this.logoUrl = logoUrl;
+        this.captainId = captainId;
+        this.captainName = captainName;
+        this.memberCount = memberCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLogoUrl() {
+        return logoUrl;
+    }
+
+    public Long getCaptainId() {
+        return captainId;
+    }
+
+    public String getCaptainName() {
+        return captainName;
+    }
+
+    public long getMemberCount() {
+        return memberCount;
+    }
+}
@@ -0,0 +1,22 @@
+package ed.sport_events_api.dto;
+
+import java.time.LocalDateTime;
+
+// Полуинтервал времени [start, end)
+public class TimeWindowDTO {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeWindowDTO(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,45 @@
+package ed.sport_events_api.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Строка каталога пользователей: без пароля, телефона и оповещений.
+ * Роли приходят из запроса одной строкой через запятую (listagg по
+ * группе пользователя), поэтому страница строится одним запросом.
+ */
+public class UserListItemDTO {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String avatarUrl;
+    private final List<String> roles;
+
+    public UserListItemDTO(Long id, String name, String email, String avatarUrl, String roles) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.avatarUrl = avatarUrl;
+        this.roles = roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+}
@@ -0,0 +1,76 @@
+package ed.sport_events_api.dto;
+
+import ed.sport_events_api.model.enums.ERole;
+
+import java.util.List;
+
+/**
+ * Неизменяемый снимок пользователя для кэша: поля User без коллекций и без
+ * хэша пароля (его вход читает из БД), роли — битовой маской
+ * (бит = ERole.ordinal()), как в SessionRecord.
+ * Запрос возвращает по строке на роль; merge склеивает их в один снимок.
+ */
+public final class UserSnapshot {
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final String phone;
+    private final String avatarUrl;
+    private final int rolesMask;
+
+    public UserSnapshot(Long id, String email, String name, String phone, String avatarUrl,
+                        ERole role) {
+        this(id, email, name, phone, avatarUrl, role == null ? 0 : 1 << role.ordinal());
+    }
+
+    private UserSnapshot(Long id, String email, String name, String phone, String avatarUrl,
+                         int rolesMask) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.phone = phone;
+        this.avatarUrl = avatarUrl;
+        this.rolesMask = rolesMask;
+    }
+
+    // null — пользователя нет
+    public static UserSnapshot merge(List<UserSnapshot> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        UserSnapshot first = rows.get(0);
+        int mask = 0;
+        for (UserSnapshot row : rows) {
+            mask |= row.rolesMask;
+        }
+        return new UserSnapshot(first.id, first.email, first.name, first.phone, first.avatarUrl, mask);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public int getRolesMask() {
+        return rolesMask;
+    }
+
+    public boolean hasRole(ERole role) {
+        return (rolesMask & (1 << role.ordinal())) != 0;
+    }
+}
@@ -0,0 +1,22 @@
+package ed.sport_events_api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Краткие сведения о пользователе для вложенных списков (участники события,
+ * организатор) — без пароля, ролей и оповещений.
+ */
+@Data
+@NoArgsConstructor
+public class UserSummaryDTO {
+    private Long id;
+    private String name;
+    private String avatarUrl;
+
+    public UserSummaryDTO(Long id, String name, String avatarUrl) {
+        this.id = id;
+        this.name = name;
+        this.avatarUrl = avatarUrl;
+    }
+}
@@ -0,0 +1,45 @@
+package ed.sport_events_api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Свободные окна площадки в запрошенном диапазоне и занятые интервалы,
+ * из которых они вычислены.
+ */
+public class VenueAvailabilityDTO {
+    private final Long venueId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final List<TimeWindowDTO> free;
+    private final List<TimeWindowDTO> booked;
+
+    public VenueAvailabilityDTO(Long venueId, LocalDateTime from, LocalDateTime to,
+                                List<TimeWindowDTO> free, List<TimeWindowDTO> booked) {
+        this.venueId = venueId;
+        this.from = from;
+        this.to = to;
+        this.free = free;
+        this.booked = booked;
+    }
+
+    public Long getVenueId() {
+        return venueId;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public List<TimeWindowDTO> getFree() {
+        return free;
+    }
+
+    public List<TimeWindowDTO> getBooked() {
+        return booked;
+    }
+}
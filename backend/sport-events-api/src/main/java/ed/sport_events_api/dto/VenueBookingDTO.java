@@ -0,0 +1,34 @@
+package ed.sport_events_api.dto;
+
+import java.time.LocalDateTime;
+
+// Занятость площадки событием; используется для загрузки VenueScheduleIndex
+public class VenueBookingDTO {
+    private final Long eventId;
+    private final Long venueId;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+
+    public VenueBookingDTO(Long eventId, Long venueId, LocalDateTime startDate, LocalDateTime endDate) {
+        this.eventId = eventId;
+        this.venueId = venueId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getVenueId() {
+        return venueId;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+}
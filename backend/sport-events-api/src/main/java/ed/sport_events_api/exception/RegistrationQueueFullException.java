@@ -0,0 +1,11 @@
+package ed.sport_events_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class RegistrationQueueFullException extends RuntimeException {
+    public RegistrationQueueFullException(String message) {
+        super(message);
+    }
+}
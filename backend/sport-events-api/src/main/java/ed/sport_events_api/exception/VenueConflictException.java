@@ -0,0 +1,11 @@
+package ed.sport_events_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class VenueConflictException extends RuntimeException {
+    public VenueConflictException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package ed.sport_events_api.model;
 import ed.sport_events_api.model.enums.EventStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,6 +11,15 @@ import java.util.List;
 
 @Entity
 @Table(name = "events_t")
+@NamedEntityGraph(
+        name = "Event.detail",
+        attributeNodes = {
+                @NamedAttributeNode("sportType"),
+                @NamedAttributeNode("venue"),
+                @NamedAttributeNode(value = "organizer", subgraph = "organizer")
+        },
+        subgraphs = @NamedSubgraph(name = "organizer", attributeNodes = @NamedAttributeNode("roles"))
+)
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,7 +49,8 @@ public class Event {
     @JoinTable(
             name = "event_spectators",
             joinColumns = @JoinColumn(name = "event_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"})
     )
     private List<User> spectators;
 
@@ -47,14 +58,16 @@ public class Event {
     @JoinTable(
             name = "event_players",
             joinColumns = @JoinColumn(name = "event_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"})
     )
     private List<User> players;
     @ManyToMany(cascade = CascadeType.ALL)
     @JoinTable(
             name = "event_referees",
             joinColumns = @JoinColumn(name = "event_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"})
     )
     private List<User> referees = new ArrayList<>();
     @Enumerated(EnumType.STRING)
@@ -65,6 +78,26 @@ public class Event {
     @JoinColumn(name = "venue_id")
     private Venue venue;
 
+    // Денормализованные счётчики участников. Меняются только атомарными UPDATE
+    // из EventRepository, поэтому при сохранении сущности не перезаписываются.
+    @ColumnDefault("0")
+    @Column(name = "players_count", nullable = false, updatable = false)
+    private int playersCount;
+
+    @ColumnDefault("0")
+    @Column(name = "spectators_count", nullable = false, updatable = false)
+    private int spectatorsCount;
+
+    @ColumnDefault("0")
+    @Column(name = "referees_count", nullable = false, updatable = false)
+    private int refereesCount;
+
+    // Режим ажиотажа: регистрация идёт через очередь RegistrationRushService.
+    // Переключается только отдельным UPDATE, поэтому при сохранении сущности не пишется.
+    @ColumnDefault("false")
+    @Column(name = "rush_mode", nullable = false, insertable = false, updatable = false)
+    private boolean rushMode;
+
     public Event(Long id, String title, String description, LocalDateTime creationDate, String icon_url, LocalDateTime startDate, LocalDateTime endDate, String result, SportType sportType, User organizer, List<User> spectators, List<User> players, List<User> referees, EventStatus status, Venue venue) {
         this.id = id;
         this.title = title;
@@ -136,6 +169,38 @@ public class Event {
         this.result = result;
     }
 
+    public int getPlayersCount() {
+        return playersCount;
+    }
+
+    public void setPlayersCount(int playersCount) {
+        this.playersCount = playersCount;
+    }
+
+    public int getSpectatorsCount() {
+        return spectatorsCount;
+    }
+
+    public void setSpectatorsCount(int spectatorsCount) {
+        this.spectatorsCount = spectatorsCount;
+    }
+
+    public int getRefereesCount() {
+        return refereesCount;
+    }
+
+    public void setRefereesCount(int refereesCount) {
+        this.refereesCount = refereesCount;
+    }
+
+    public boolean isRushMode() {
+        return rushMode;
+    }
+
+    public void setRushMode(boolean rushMode) {
+        this.rushMode = rushMode;
+    }
+
     public Venue getVenue() {
         return venue;
     }
@@ -5,17 +5,36 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications_t")
+@Table(name = "notifications_t", indexes = {
+        // Лента пользователя: страница — диапазон по индексу в порядке (creation_date, id)
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, creation_date"),
+        // Очистка по сроку хранения идёт по времени создания среди всех пользователей
+        @Index(name = "idx_notifications_created", columnList = "creation_date"),
+        // Поиск непрочитанного оповещения, с которым сливается повтор
+        @Index(name = "idx_notifications_user_repeated", columnList = "user_id, last_repeated_at")
+})
 public class Notification {
    @Id
    @GeneratedValue (strategy = GenerationType.IDENTITY)
    Long id;
 
+   // Допускает null только до переноса старой таблицы users_notifications
+   @Column(name = "user_id")
+   private Long userId;
+
    private String topic;
    private String message;
    private Boolean isRead = false;
    private LocalDateTime creationDate;
 
+   // Сколько одинаковых оповещений слилось в это; см. NotificationOutboxRepository.deliver
+   @Column(name = "repeat_count", nullable = false, columnDefinition = "int not null default 1")
+   private int repeatCount = 1;
+
+   // Время последнего повтора; creation_date при слиянии не меняется, чтобы не ломать порядок ленты
+   @Column(name = "last_repeated_at")
+   private LocalDateTime lastRepeatedAt;
+
    public Notification() {
       LocalDateTime.now();
    }
@@ -42,6 +61,30 @@ public class Notification {
       isRead = read;
    }
 
+   public int getRepeatCount() {
+      return repeatCount;
+   }
+
+   public void setRepeatCount(int repeatCount) {
+      this.repeatCount = repeatCount;
+   }
+
+   public LocalDateTime getLastRepeatedAt() {
+      return lastRepeatedAt;
+   }
+
+   public void setLastRepeatedAt(LocalDateTime lastRepeatedAt) {
+      this.lastRepeatedAt = lastRepeatedAt;
+   }
+
+   public Long getUserId() {
+      return userId;
+   }
+
+   public void setUserId(Long userId) {
+      this.userId = userId;
+   }
+
    public Long getId() {
       return id;
    }
@@ -1,5 +1,6 @@
 package ed.sport_events_api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.OnDelete;
@@ -23,7 +24,9 @@ public class Team {
     private User captain;
 
 
+    // Состав отдаётся постранично через /api/teams/{id}/members
     @OneToMany(mappedBy = "team")
+    @JsonIgnore
     private List<TeamMember> members;
 
     public Long getId() {
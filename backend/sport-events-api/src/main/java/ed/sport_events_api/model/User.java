@@ -7,9 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.Cascade;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 @Entity
@@ -37,11 +35,14 @@ public class User {
     )
     private Set<Role> roles = new HashSet<>();
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
-    private List<Notification> notifications = new ArrayList<>();
+    // Счётчик ведут NotificationRepository, NotificationOutboxRepository и NotificationRetentionJob
+    // отдельными UPDATE, сущность его только читает
+    @Column(name = "unread_notifications", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "int not null default 0")
+    private int unreadNotifications;
 
-    public List<Notification> getNotifications() {
-        return notifications;
+    public int getUnreadNotifications() {
+        return unreadNotifications;
     }
 
     @Override
@@ -54,14 +55,13 @@ public class User {
                 ", phone='" + phone + '\'' +
                 ", avatar_url='" + avatar_url + '\'' +
                 ", roles=" + roles +
-                ", notifications=" + notifications +
                 '}';
     }
 
     public User() {
     }
 
-    public User(Long id, String email, String password, String name, String phone, String avatar_url, Set<Role> roles, List<Notification> notifications) {
+    public User(Long id, String email, String password, String name, String phone, String avatar_url, Set<Role> roles) {
         this.id = id;
         this.email = email;
         this.password = password;
@@ -69,11 +69,6 @@ public class User {
         this.phone = phone;
         this.avatar_url = avatar_url;
         this.roles = roles;
-        this.notifications = notifications;
-    }
-
-    public void setNotifications(List<Notification> notifications) {
-        this.notifications = notifications;
     }
 
     public Long getId() {
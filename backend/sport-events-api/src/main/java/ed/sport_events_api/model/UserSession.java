@@ -0,0 +1,84 @@
+package ed.sport_events_api.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сохранённая сессия. Вместо самого токена хранится его SHA-256,
+ * поэтому утечка таблицы не даёт действующих токенов.
+ */
+@Entity
+@Table(name = "user_sessions", indexes = {
+        @Index(name = "idx_user_sessions_user", columnList = "user_id"),
+        @Index(name = "idx_user_sessions_issued", columnList = "issued_at"),
+        @Index(name = "idx_user_sessions_last_seen", columnList = "last_seen_at")
+})
+public class UserSession {
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "roles_mask", nullable = false)
+    private int rolesMask;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    public UserSession() {
+    }
+
+    public UserSession(String tokenHash, Long userId, int rolesMask, LocalDateTime issuedAt, LocalDateTime lastSeenAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.rolesMask = rolesMask;
+        this.issuedAt = issuedAt;
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getRolesMask() {
+        return rolesMask;
+    }
+
+    public void setRolesMask(int rolesMask) {
+        this.rolesMask = rolesMask;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public LocalDateTime getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(LocalDateTime lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+}
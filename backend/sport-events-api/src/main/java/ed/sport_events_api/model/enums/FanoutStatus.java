@@ -0,0 +1,8 @@
+package ed.sport_events_api.model.enums;
+
+public enum FanoutStatus {
+    QUEUED,     // рассылка ждёт своей очереди
+    RUNNING,    // оповещения пишутся порциями
+    DONE,       // все участники получили оповещение
+    FAILED      // рассылка прервана, часть участников могла его не получить
+}
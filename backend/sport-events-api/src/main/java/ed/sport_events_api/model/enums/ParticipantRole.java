@@ -0,0 +1,20 @@
+package ed.sport_events_api.model.enums;
+
+public enum ParticipantRole {
+    PLAYER,
+    SPECTATOR,
+    REFEREE;
+
+    // Роль приходит от клиента строкой: "player", "spectator" или "referee";
+    // в путях URL — во множественном числе ("players" и т.д.)
+    public static ParticipantRole fromString(String role) {
+        if (role != null) {
+            for (ParticipantRole value : values()) {
+                if (value.name().equalsIgnoreCase(role) || (value.name() + "S").equalsIgnoreCase(role)) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid role: " + role);
+    }
+}
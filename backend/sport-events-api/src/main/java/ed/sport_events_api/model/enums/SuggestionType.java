@@ -0,0 +1,7 @@
+package ed.sport_events_api.model.enums;
+
+public enum SuggestionType {
+    USER,
+    VENUE,
+    TEAM
+}
@@ -0,0 +1,9 @@
+package ed.sport_events_api.model.enums;
+
+public enum TicketStatus {
+    QUEUED,     // заявка ждёт записи в БД
+    CONFIRMED,  // участник добавлен
+    DUPLICATE,  // пользователь уже был зарегистрирован в этой роли
+    REJECTED,   // резерв оказался устаревшим: в БД мест уже нет
+    FAILED      // запись не удалась, место освобождено
+}
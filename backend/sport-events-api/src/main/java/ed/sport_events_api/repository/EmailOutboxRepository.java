@@ -0,0 +1,236 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.Notification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Очередь почтовых оповещений email_outbox: постановка пачкой, выборка
+ * получателей, которым пора писать, и захват их записей под дайджест.
+ */
+@Repository
+public class EmailOutboxRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Повтор, слившийся с оповещением, которое уже ждёт письма, отсекает уникальный индекс по notification_id.
+    // Одним многострочным INSERT: запись идёт в транзакции порции рассылки
+    public void enqueue(List<Notification> notifications, LocalDateTime createdAt, LocalDateTime sendAfter) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(notifications.size() * 4);
+        for (Notification notification : notifications) {
+            args.add(notification.getUserId());
+            args.add(notification.getId());
+            args.add(Timestamp.valueOf(createdAt));
+            args.add(Timestamp.valueOf(sendAfter));
+        }
+        jdbcTemplate.update(
+                "INSERT IGNORE INTO email_outbox (user_id, notification_id, created_at, next_attempt_at, attempts) " +
+                        "VALUES " + String.join(", ", Collections.nCopies(notifications.size(), "(?, ?, ?, ?, 0)")),
+                args.toArray());
+    }
+
+    // Получатели, у которых есть записи к отправке, — начиная с дольше всех ждущих
+    public List<Long> findDueRecipients(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT user_id FROM email_outbox WHERE next_attempt_at <= ? " +
+                        "GROUP BY user_id ORDER BY MIN(next_attempt_at) LIMIT ?",
+                Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Захватывает записи получателей под дайджесты; вызывается в транзакции.
+     * В дайджест идут все записи получателя, а не только просроченные, —
+     * так письма и объединяются. Записи блокируются, затем заново
+     * проверяется, что пора отправлять: другой узел мог успеть раньше.
+     * Записи о прочитанных, удалённых или чужих оповещениях и об удалённых
+     * пользователях удаляются. Захваченным записям засчитывается попытка
+     * и next_attempt_at сдвигается на leaseUntil: если узел упадёт
+     * посреди отправки, после этого времени их заберёт следующий проход.
+     */
+    public List<Digest> claim(List<Long> userIds, LocalDateTime now, LocalDateTime leaseUntil) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<long[]>> rowsByUser = new LinkedHashMap<>();
+        Set<Long> due = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT id, user_id, notification_id, attempts, next_attempt_at FROM email_outbox " +
+                        "WHERE user_id IN (" + placeholders(userIds.size()) + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                    long userId = rs.getLong("user_id");
+                    rowsByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(
+                            new long[]{rs.getLong("id"), rs.getLong("notification_id"), rs.getInt("attempts")});
+                    if (!rs.getTimestamp("next_attempt_at").toLocalDateTime().isAfter(now)) {
+                        due.add(userId);
+                    }
+                }, userIds.toArray());
+        rowsByUser.keySet().retainAll(due);
+        if (rowsByUser.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> notificationIds = rowsByUser.values().stream()
+                .flatMap(List::stream).map(row -> row[1]).distinct().toList();
+        Map<Long, Notification> unread = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, user_id, topic, message, creation_date, repeat_count, last_repeated_at FROM notifications_t " +
+                        "WHERE id IN (" + placeholders(notificationIds.size()) + ") AND is_read = false",
+                rs -> {
+                    Notification notification = new Notification(rs.getString("topic"), rs.getString("message"));
+                    notification.setId(rs.getLong("id"));
+                    notification.setUserId(rs.getLong("user_id"));
+                    notification.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
+                    notification.setRepeatCount(rs.getInt("repeat_count"));
+                    Timestamp lastRepeatedAt = rs.getTimestamp("last_repeated_at");
+                    notification.setLastRepeatedAt(lastRepeatedAt == null ? null : lastRepeatedAt.toLocalDateTime());
+                    unread.put(notification.getId(), notification);
+                }, notificationIds.toArray());
+        List<Long> recipientIds = new ArrayList<>(rowsByUser.keySet());
+        Map<Long, String> emails = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, email FROM users WHERE id IN (" + placeholders(recipientIds.size()) + ")",
+                rs -> {
+                    emails.put(rs.getLong("id"), rs.getString("email"));
+                }, recipientIds.toArray());
+
+        List<Long> stale = new ArrayList<>();
+        List<Long> claimed = new ArrayList<>();
+        List<Digest> digests = new ArrayList<>();
+        rowsByUser.forEach((userId, rows) -> {
+            String email = emails.get(userId);
+            Map<Long, Notification> items = new LinkedHashMap<>();
+            List<Long> entryIds = new ArrayList<>();
+            int attempts = 0;
+            for (long[] row : rows) {
+                Notification notification = unread.get(row[1]);
+                if (email == null || notification == null || !userId.equals(notification.getUserId())) {
+                    stale.add(row[0]);
+                } else {
+                    items.putIfAbsent(notification.getId(), notification);
+                    entryIds.add(row[0]);
+                    attempts = Math.max(attempts, (int) row[2]);
+                }
+            }
+            if (!entryIds.isEmpty()) {
+                claimed.addAll(entryIds);
+                digests.add(new Digest(userId, email, attempts + 1, entryIds, new ArrayList<>(items.values())));
+            }
+        });
+        deleteByIds(stale);
+        if (!claimed.isEmpty()) {
+            List<Object> args = new ArrayList<>(claimed.size() + 1);
+            args.add(Timestamp.valueOf(leaseUntil));
+            args.addAll(claimed);
+            jdbcTemplate.update("UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = ? " +
+                    "WHERE id IN (" + placeholders(claimed.size()) + ")", args.toArray());
+        }
+        return digests;
+    }
+
+    public void reschedule(List<Long> ids, LocalDateTime nextAttemptAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(nextAttemptAt));
+        args.addAll(ids);
+        jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? WHERE id IN (" + placeholders(ids.size()) + ")",
+                args.toArray());
+    }
+
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM email_outbox WHERE id IN (" + placeholders(ids.size()) + ")",
+                ids.toArray());
+    }
+
+    // Размер очереди и самое раннее время, когда что-то из неё было пора отправить
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) AS pending, MIN(next_attempt_at) AS oldest FROM email_outbox",
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    return new Backlog(rs.getLong("pending"), oldest == null ? null : oldest.toLocalDateTime());
+                });
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Письмо одному получателю: непрочитанные оповещения без повторов
+     * и записи очереди, которые оно закрывает. attempts — номер этой попытки.
+     */
+    public static final class Digest {
+        private final Long userId;
+        private final String recipient;
+        private final int attempts;
+        private final List<Long> entryIds;
+        private final List<Notification> notifications;
+
+        public Digest(Long userId, String recipient, int attempts, List<Long> entryIds, List<Notification> notifications) {
+            this.userId = userId;
+            this.recipient = recipient;
+            this.attempts = attempts;
+            this.entryIds = entryIds;
+            this.notifications = notifications;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public List<Long> getEntryIds() {
+            return entryIds;
+        }
+
+        public List<Notification> getNotifications() {
+            return notifications;
+        }
+    }
+
+    public static final class Backlog {
+        private final long pending;
+        private final LocalDateTime oldestDue;
+
+        public Backlog(long pending, LocalDateTime oldestDue) {
+            this.pending = pending;
+            this.oldestDue = oldestDue;
+        }
+
+        public long getPending() {
+            return pending;
+        }
+
+        public LocalDateTime getOldestDue() {
+            return oldestDue;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.enums.ParticipantRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Прямая работа со строками таблиц связей event_players / event_spectators /
+ * event_referees — без загрузки коллекций Event.
+ */
+@Repository
+public class EventParticipantRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventParticipantRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static String tableFor(ParticipantRole role) {
+        switch (role) {
+            case PLAYER:
+                return "event_players";
+            case SPECTATOR:
+                return "event_spectators";
+            default:
+                return "event_referees";
+        }
+    }
+
+    public static String counterFor(ParticipantRole role) {
+        switch (role) {
+            case PLAYER:
+                return "players_count";
+            case SPECTATOR:
+                return "spectators_count";
+            default:
+                return "referees_count";
+        }
+    }
+
+    /**
+     * Вставляет одну строку связи. Повтор отсекает уникальный индекс (event_id, user_id):
+     * возвращает 1, если строка добавлена, и 0, если она уже была.
+     */
+    public int insert(ParticipantRole role, Long eventId, Long userId) {
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO " + tableFor(role) + " (event_id, user_id) VALUES (?, ?)", eventId, userId);
+    }
+
+    // Удаляет ровно одну строку связи по уникальному ключу; 0 — пользователь не был участником
+    public int delete(ParticipantRole role, Long eventId, Long userId) {
+        return jdbcTemplate.update(
+                "DELETE FROM " + tableFor(role) + " WHERE event_id = ? AND user_id = ?", eventId, userId);
+    }
+
+    public boolean exists(ParticipantRole role, Long eventId, Long userId) {
+        Integer found = jdbcTemplate.query(
+                "SELECT 1 FROM " + tableFor(role) + " WHERE event_id = ? AND user_id = ? LIMIT 1",
+                rs -> rs.next() ? 1 : null, eventId, userId);
+        return found != null;
+    }
+
+    /**
+     * Вставляет пары (eventId, userId) одним JDBC-батчем. Для каждой пары
+     * возвращает true, если строка добавлена, и false, если она уже была.
+     * <p>
+     * Уже существующие пары ищутся заранее блокирующим чтением, а не по счётчикам
+     * батча: драйвер может вернуть SUCCESS_NO_INFO, и тогда по ответу не отличить
+     * вставку от пропуска. Блокировка не даёт параллельной регистрации вставить
+     * ту же пару до коммита, поэтому оставшиеся пары гарантированно новые.
+     */
+    public boolean[] insertBatch(ParticipantRole role, List<long[]> rows) {
+        Set<List<Long>> existing = findExisting(role, rows);
+        boolean[] inserted = new boolean[rows.size()];
+        List<Integer> positions = new ArrayList<>(rows.size());
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            long[] row = rows.get(i);
+            if (!existing.contains(List.of(row[0], row[1]))) {
+                positions.add(i);
+                args.add(new Object[]{row[0], row[1]});
+            }
+        }
+        if (args.isEmpty()) {
+            return inserted;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT IGNORE INTO " + tableFor(role) + " (event_id, user_id) VALUES (?, ?)", args);
+        for (int i = 0; i < counts.length; i++) {
+            // 0 — строку всё же отсёк уникальный индекс; SUCCESS_NO_INFO после проверки выше — вставка
+            inserted[positions.get(i)] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+        return inserted;
+    }
+
+    // Пары из rows, уже записанные в таблицу роли; FOR UPDATE держит их (и промежутки индекса) до коммита
+    private Set<List<Long>> findExisting(ParticipantRole role, List<long[]> rows) {
+        Set<Long> eventIds = new LinkedHashSet<>();
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (long[] row : rows) {
+            eventIds.add(row[0]);
+            userIds.add(row[1]);
+        }
+        List<Object> args = new ArrayList<>(eventIds);
+        args.addAll(userIds);
+        String sql = "SELECT event_id, user_id FROM " + tableFor(role) +
+                " WHERE event_id IN (" + placeholders(eventIds.size()) + ")" +
+                " AND user_id IN (" + placeholders(userIds.size()) + ") FOR UPDATE";
+        Set<List<Long>> existing = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            existing.add(List.of(rs.getLong(1), rs.getLong(2)));
+        }, args.toArray());
+        return existing;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Занимает по месту на каждую строку тем же условным UPDATE, что и одиночная
+     * регистрация: строка (eventId, maxPlayers, capacity), null в лимите — нет лимита.
+     * Для каждой строки возвращает true, если место занято, и false, если лимит исчерпан.
+     */
+    public boolean[] takeSeats(ParticipantRole role, List<Object[]> rows) {
+        String counter = counterFor(role);
+        String sql = "UPDATE events_t SET " + counter + " = " + counter + " + 1 WHERE id = ? " +
+                "AND players_count < ? AND players_count + spectators_count + referees_count < ?";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // Отсутствующий лимит заменяем недостижимым, чтобы не передавать NULL в сравнение;
+            // лимит игроков проверяется только для игроков, как в EventRepository.takePlayerSeat
+            Object maxPlayers = role == ParticipantRole.PLAYER && row[1] != null ? row[1] : Integer.MAX_VALUE;
+            Object capacity = row[2] != null ? row[2] : Long.MAX_VALUE;
+            args.add(new Object[]{row[0], maxPlayers, capacity});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, args);
+        boolean[] taken = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            taken[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+        return taken;
+    }
+
+    // Пары (eventId, userId) одним батчем — откат строк, под которые места не нашлось
+    public void deleteBatch(ParticipantRole role, List<long[]> rows) {
+        String sql = "DELETE FROM " + tableFor(role) + " WHERE event_id = ? AND user_id = ?";
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            args.add(new Object[]{row[0], row[1]});
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    // Все участники события в любой роли одним запросом, без повторов
+    public List<Long> findParticipantIds(Long eventId) {
+        return jdbcTemplate.queryForList(
+                "SELECT user_id FROM event_players WHERE event_id = ? " +
+                        "UNION SELECT user_id FROM event_spectators WHERE event_id = ? " +
+                        "UNION SELECT user_id FROM event_referees WHERE event_id = ?",
+                Long.class, eventId, eventId, eventId);
+    }
+}
@@ -1,19 +1,34 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.dto.UserSummaryDTO;
+import ed.sport_events_api.dto.VenueBookingDTO;
 import ed.sport_events_api.model.Event;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.EventStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+    String SUMMARY_SELECT = "SELECT new ed.sport_events_api.dto.EventDTO(" +
+            "e.id, e.title, e.description, e.icon_url, e.startDate, e.endDate, e.status, e.result, " +
+            "st.id, st.name, v.id, v.name, v.address, o.id, o.name, " +
+            "e.playersCount, e.spectatorsCount, e.refereesCount) " +
+            "FROM Event e LEFT JOIN e.sportType st LEFT JOIN e.venue v LEFT JOIN e.organizer o ";
+
     List<Event> findByStatus(EventStatus status);
     List<Event> findByStartDateBetween(LocalDateTime start, LocalDateTime end);
     List<Event> findBySportTypeId(Long sportTypeId);
@@ -24,6 +39,154 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByStartDateAfter(LocalDateTime date);
     List<Event> findByStartDateBefore(LocalDateTime date);
 
+    // Keyset-пагинация: строки строго после (afterDate, afterId) в порядке (startDate, id)
+    @Query(SUMMARY_SELECT +
+            "WHERE e.startDate IS NOT NULL " +
+            "AND (:status IS NULL OR e.status = :status) " +
+            "AND (:sportTypeId IS NULL OR st.id = :sportTypeId) " +
+            "AND (:venueId IS NULL OR v.id = :venueId) " +
+            "AND (:from IS NULL OR e.startDate >= :from) " +
+            "AND (:to IS NULL OR e.startDate < :to) " +
+            "AND (:afterDate IS NULL OR e.startDate > :afterDate " +
+            "     OR (e.startDate = :afterDate AND e.id > :afterId)) " +
+            "ORDER BY e.startDate, e.id")
+    List<EventDTO> findPage(@Param("status") EventStatus status,
+                            @Param("sportTypeId") Long sportTypeId,
+                            @Param("venueId") Long venueId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("afterDate") LocalDateTime afterDate,
+                            @Param("afterId") Long afterId,
+                            Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE e.id = :id")
+    Optional<EventDTO> findSummaryById(@Param("id") Long id);
+
+    // Незавершённые события, которые ещё не закончились к моменту now
+    @Query(SUMMARY_SELECT +
+            "WHERE e.startDate IS NOT NULL " +
+            "AND e.status NOT IN (ed.sport_events_api.model.enums.EventStatus.FINISHED, " +
+            "                     ed.sport_events_api.model.enums.EventStatus.CANCELED) " +
+            "AND COALESCE(e.endDate, e.startDate) >= :now")
+    List<EventDTO> findActiveSummaries(@Param("now") LocalDateTime now);
+
+    // Событие вместе с видом спорта, площадкой и организатором одним запросом
+    @EntityGraph("Event.detail")
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findDetailById(@Param("id") Long id);
+
+    @Query("SELECT new ed.sport_events_api.dto.UserSummaryDTO(u.id, u.name, u.avatar_url) " +
+            "FROM Event e JOIN e.players u WHERE e.id = :eventId ORDER BY u.id")
+    List<UserSummaryDTO> findPlayerSummaries(@Param("eventId") Long eventId);
+
+    @Query("SELECT new ed.sport_events_api.dto.UserSummaryDTO(u.id, u.name, u.avatar_url) " +
+            "FROM Event e JOIN e.spectators u WHERE e.id = :eventId ORDER BY u.id")
+    List<UserSummaryDTO> findSpectatorSummaries(@Param("eventId") Long eventId);
+
+    @Query("SELECT new ed.sport_events_api.dto.UserSummaryDTO(u.id, u.name, u.avatar_url) " +
+            "FROM Event e JOIN e.referees u WHERE e.id = :eventId ORDER BY u.id")
+    List<UserSummaryDTO> findRefereeSummaries(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.playersCount = e.playersCount + :delta WHERE e.id = :eventId")
+    int adjustPlayersCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.spectatorsCount = e.spectatorsCount + :delta WHERE e.id = :eventId")
+    int adjustSpectatorsCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.refereesCount = e.refereesCount + :delta WHERE e.id = :eventId")
+    int adjustRefereesCount(@Param("eventId") Long eventId, @Param("delta") int delta);
+
+    @Query("SELECT new ed.sport_events_api.dto.SeatStateDTO(" +
+            "e.id, e.playersCount, e.spectatorsCount, e.refereesCount, st.maxPlayers, v.capacity) " +
+            "FROM Event e LEFT JOIN e.sportType st LEFT JOIN e.venue v WHERE e.id = :eventId")
+    Optional<SeatStateDTO> findSeatState(@Param("eventId") Long eventId);
+
+    // Занятие места с проверкой лимитов на стороне БД: 0 строк — мест нет
+    @Modifying
+    @Query("UPDATE Event e SET e.playersCount = e.playersCount + 1 WHERE e.id = :eventId " +
+            "AND (:maxPlayers IS NULL OR e.playersCount < :maxPlayers) " +
+            "AND (:capacity IS NULL OR e.playersCount + e.spectatorsCount + e.refereesCount < :capacity)")
+    int takePlayerSeat(@Param("eventId") Long eventId,
+                       @Param("maxPlayers") Integer maxPlayers,
+                       @Param("capacity") Long capacity);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.spectatorsCount = e.spectatorsCount + 1 WHERE e.id = :eventId " +
+            "AND (:capacity IS NULL OR e.playersCount + e.spectatorsCount + e.refereesCount < :capacity)")
+    int takeSpectatorSeat(@Param("eventId") Long eventId, @Param("capacity") Long capacity);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.refereesCount = e.refereesCount + 1 WHERE e.id = :eventId " +
+            "AND (:capacity IS NULL OR e.playersCount + e.spectatorsCount + e.refereesCount < :capacity)")
+    int takeRefereeSeat(@Param("eventId") Long eventId, @Param("capacity") Long capacity);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.rushMode = :enabled WHERE e.id = :eventId")
+    int updateRushMode(@Param("eventId") Long eventId, @Param("enabled") boolean enabled);
+
+    @Query("SELECT e.id FROM Event e WHERE e.rushMode = true")
+    List<Long> findRushModeEventIds();
+
+    // Пакетный переход статуса; условие на текущий статус не даёт перезаписать ручные изменения
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.status = :to WHERE e.id IN :ids AND e.status IN :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") Collection<EventStatus> from,
+                         @Param("to") EventStatus to);
+
+    // Догоняющие переходы при запуске: сроки, прошедшие, пока приложение не работало
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.status = :to WHERE e.status IN :from AND e.endDate <= :now")
+    int transitionEnded(@Param("from") Collection<EventStatus> from,
+                        @Param("to") EventStatus to,
+                        @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Event e SET e.status = :to WHERE e.status IN :from AND e.startDate <= :now")
+    int transitionStarted(@Param("from") Collection<EventStatus> from,
+                          @Param("to") EventStatus to,
+                          @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ed.sport_events_api.dto.VenueBookingDTO(e.id, e.venue.id, e.startDate, e.endDate) " +
+            "FROM Event e WHERE e.venue IS NOT NULL AND e.startDate IS NOT NULL " +
+            "AND e.status <> ed.sport_events_api.model.enums.EventStatus.CANCELED " +
+            "AND COALESCE(e.endDate, e.startDate) >= :since")
+    List<VenueBookingDTO> findVenueBookings(@Param("since") LocalDateTime since);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Event e")
+    long findMaxId();
+
+    // Сверка счётчиков с таблицами связей для диапазона id; трогает только разошедшиеся строки
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE events_t e SET e.players_count = " +
+            "(SELECT COUNT(*) FROM event_players p WHERE p.event_id = e.id) " +
+            "WHERE e.id BETWEEN :fromId AND :toId AND e.players_count <> " +
+            "(SELECT COUNT(*) FROM event_players p WHERE p.event_id = e.id)", nativeQuery = true)
+    int reconcilePlayersCount(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE events_t e SET e.spectators_count = " +
+            "(SELECT COUNT(*) FROM event_spectators s WHERE s.event_id = e.id) " +
+            "WHERE e.id BETWEEN :fromId AND :toId AND e.spectators_count <> " +
+            "(SELECT COUNT(*) FROM event_spectators s WHERE s.event_id = e.id)", nativeQuery = true)
+    int reconcileSpectatorsCount(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE events_t e SET e.referees_count = " +
+            "(SELECT COUNT(*) FROM event_referees r WHERE r.event_id = e.id) " +
+            "WHERE e.id BETWEEN :fromId AND :toId AND e.referees_count <> " +
+            "(SELECT COUNT(*) FROM event_referees r WHERE r.event_id = e.id)", nativeQuery = true)
+    int reconcileRefereesCount(@Param("fromId") long fromId, @Param("toId") long toId);
+
     boolean existsByIdAndPlayersId(Long eventId, Long playerId);
     boolean existsByIdAndSpectatorsId(Long eventId, Long spectatorId);
     boolean existsByIdAndRefereesId(Long eventId, Long refereeId);
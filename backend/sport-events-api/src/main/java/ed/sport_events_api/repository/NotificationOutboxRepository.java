@@ -0,0 +1,276 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Пакетная работа с notification_outbox и перенос записей из него
+ * в ленты пользователей notifications_t.
+ */
+@Repository
+public class NotificationOutboxRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration coalesceWindow;
+
+    public NotificationOutboxRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${app.notifications.coalesce.window:PT1H}") Duration coalesceWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    public void insertBatch(List<NotificationOutboxEntry> entries) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO notification_outbox (user_id, topic, message, created_at) VALUES (?, ?, ?, ?)",
+                entries, entries.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getUserId());
+                    ps.setString(2, entry.getTopic());
+                    ps.setString(3, entry.getMessage());
+                    ps.setTimestamp(4, Timestamp.valueOf(entry.getCreatedAt()));
+                });
+    }
+
+    // Самые старые записи очереди; блокировка строк не даёт двум узлам доставить их дважды
+    public List<NotificationOutboxEntry> findBatch(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, user_id, topic, message, created_at FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE",
+                (rs, rowNum) -> {
+                    NotificationOutboxEntry entry = new NotificationOutboxEntry();
+                    entry.setId(rs.getLong("id"));
+                    entry.setUserId(rs.getLong("user_id"));
+                    entry.setTopic(rs.getString("topic"));
+                    entry.setMessage(rs.getString("message"));
+                    entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                    return entry;
+                }, limit);
+    }
+
+    /**
+     * Доставляет записи очереди в ленты с объединением повторов: записи
+     * одного пользователя с одной темой сливаются в одну, а непрочитанное
+     * оповещение с той же темой, повторявшееся не раньше coalesceWindow назад,
+     * получает новый текст, время последнего повтора и прибавку к счётчику
+     * вместо новой строки. creation_date при этом не меняется: по нему идут
+     * курсор ленты и срок хранения.
+     * Строки пользователей блокируются первыми и по возрастанию id — в том же
+     * порядке, что и у NotificationService, поэтому без взаимоблокировок;
+     * удалённые за время ожидания пользователи при этом отсеиваются.
+     * Счётчик непрочитанных растёт только на число новых строк.
+     */
+    public Delivery deliver(List<NotificationOutboxEntry> entries) {
+        List<Long> userIds = entries.stream().map(NotificationOutboxEntry::getUserId).distinct().sorted().toList();
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id IN (" + placeholders(userIds.size()) + ") ORDER BY id FOR UPDATE",
+                Long.class, userIds.toArray()));
+
+        // Повторы внутри пачки: последняя запись задаёт текст и время, остальные — счётчик
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (NotificationOutboxEntry entry : entries) {
+            if (existing.contains(entry.getUserId())) {
+                groups.computeIfAbsent(entry.getUserId() + "\0" + entry.getTopic(), key -> new Group()).add(entry);
+            }
+        }
+        if (groups.isEmpty()) {
+            return new Delivery(List.of(), List.of());
+        }
+
+        List<Group> toInsert = new ArrayList<>(groups.values());
+        List<Notification> merged = new ArrayList<>();
+        if (!coalesceWindow.isZero() && !coalesceWindow.isNegative()) {
+            toInsert = mergeIntoUnread(groups, merged);
+        }
+        return new Delivery(insert(toInsert), merged);
+    }
+
+    // Возвращает группы, которым не нашлось непрочитанного оповещения в окне
+    private List<Group> mergeIntoUnread(Map<String, Group> groups, List<Notification> merged) {
+        List<Object> args = new ArrayList<>();
+        List<Long> userIds = groups.values().stream().map(g -> g.last.getUserId()).distinct().toList();
+        List<String> topics = groups.values().stream().map(g -> g.last.getTopic()).distinct().toList();
+        args.addAll(userIds);
+        args.addAll(topics);
+        args.add(Timestamp.valueOf(LocalDateTime.now().minus(coalesceWindow)));
+        Map<String, Long> unreadIds = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT MAX(id) AS id, user_id, topic FROM notifications_t " +
+                        "WHERE user_id IN (" + placeholders(userIds.size()) + ") " +
+                        "AND topic IN (" + placeholders(topics.size()) + ") " +
+                        "AND is_read = false AND last_repeated_at >= ? GROUP BY user_id, topic",
+                rs -> {
+                    unreadIds.put(rs.getLong("user_id") + "\0" + rs.getString("topic"), rs.getLong("id"));
+                }, args.toArray());
+        if (unreadIds.isEmpty()) {
+            return new ArrayList<>(groups.values());
+        }
+
+        List<Group> candidates = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        groups.forEach((key, group) -> {
+            Long id = unreadIds.get(key);
+            if (id != null) {
+                group.mergeInto = id;
+                candidates.add(group);
+                updates.add(new Object[]{group.count, group.last.getMessage(),
+                        Timestamp.valueOf(group.last.getCreatedAt()), id});
+            }
+        });
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE notifications_t SET repeat_count = repeat_count + ?, message = ?, last_repeated_at = ? " +
+                        "WHERE id = ? AND is_read = false", updates);
+
+        List<Group> rest = new ArrayList<>();
+        groups.values().stream().filter(g -> g.mergeInto == null).forEach(rest::add);
+        Map<Long, Integer> repeatCounts = new HashMap<>();
+        List<Long> mergedIds = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                mergedIds.add(candidates.get(i).mergeInto);
+            } else {
+                // Оповещение прочитали между выборкой и обновлением — создаём новое
+                candidates.get(i).mergeInto = null;
+                rest.add(candidates.get(i));
+            }
+        }
+        if (!mergedIds.isEmpty()) {
+            Map<Long, LocalDateTime> creationDates = new HashMap<>();
+            jdbcTemplate.query("SELECT id, repeat_count, creation_date FROM notifications_t " +
+                            "WHERE id IN (" + placeholders(mergedIds.size()) + ")",
+                    rs -> {
+                        repeatCounts.put(rs.getLong("id"), rs.getInt("repeat_count"));
+                        creationDates.put(rs.getLong("id"), rs.getTimestamp("creation_date").toLocalDateTime());
+                    }, mergedIds.toArray());
+            for (Group group : candidates) {
+                if (group.mergeInto != null) {
+                    Notification notification = group.toNotification(group.mergeInto);
+                    notification.setRepeatCount(repeatCounts.getOrDefault(group.mergeInto, group.count));
+                    notification.setCreationDate(creationDates.getOrDefault(group.mergeInto, group.last.getCreatedAt()));
+                    merged.add(notification);
+                }
+            }
+        }
+        return rest;
+    }
+
+    /**
+     * Новые строки лент одним многострочным INSERT, а счётчики — одним UPDATE на
+     * каждое различное приращение (при рассылке оно почти всегда 1). Так порция
+     * рассылки уходит за пару запросов без rewriteBatchedStatements на весь пул,
+     * который меняет счётчики строк у остальных батчей.
+     */
+    private List<Notification> insert(List<Group> groups) {
+        if (groups.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> unread = new TreeMap<>();
+        groups.forEach(g -> unread.merge(g.last.getUserId(), 1, Integer::sum));
+        Map<Integer, List<Object>> usersByCount = new TreeMap<>();
+        unread.forEach((userId, count) -> usersByCount.computeIfAbsent(count, c -> new ArrayList<>()).add(userId));
+        usersByCount.forEach((count, userIds) -> {
+            List<Object> args = new ArrayList<>(userIds.size() + 1);
+            args.add(count);
+            args.addAll(userIds);
+            jdbcTemplate.update("UPDATE users SET unread_notifications = unread_notifications + ? " +
+                    "WHERE id IN (" + placeholders(userIds.size()) + ")", args.toArray());
+        });
+
+        String sql = "INSERT INTO notifications_t (user_id, topic, message, is_read, creation_date, repeat_count, " +
+                "last_repeated_at) VALUES " + String.join(", ", Collections.nCopies(groups.size(), "(?, ?, ?, false, ?, ?, ?)"));
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            int index = 1;
+            for (Group group : groups) {
+                ps.setLong(index++, group.last.getUserId());
+                ps.setString(index++, group.last.getTopic());
+                ps.setString(index++, group.last.getMessage());
+                ps.setTimestamp(index++, Timestamp.valueOf(group.last.getCreatedAt()));
+                ps.setInt(index++, group.count);
+                ps.setTimestamp(index++, Timestamp.valueOf(group.last.getCreatedAt()));
+            }
+            return ps;
+        }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Notification> created = new ArrayList<>(groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            Notification notification = groups.get(i).toNotification(
+                    ((Number) generated.get(i).values().iterator().next()).longValue());
+            notification.setRepeatCount(groups.get(i).count);
+            created.add(notification);
+        }
+        return created;
+    }
+
+    public int deleteByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(
+                "DELETE FROM notification_outbox WHERE id IN (" + placeholders(ids.size()) + ")", ids.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Итог доставки: новые строки лент и непрочитанные оповещения,
+     * в которые слились повторы.
+     */
+    public static final class Delivery {
+        private final List<Notification> created;
+        private final List<Notification> merged;
+
+        public Delivery(List<Notification> created, List<Notification> merged) {
+            this.created = created;
+            this.merged = merged;
+        }
+
+        public List<Notification> getCreated() {
+            return created;
+        }
+
+        public List<Notification> getMerged() {
+            return merged;
+        }
+    }
+
+    private static final class Group {
+        private NotificationOutboxEntry last;
+        private int count;
+        private Long mergeInto;
+
+        private void add(NotificationOutboxEntry entry) {
+            last = entry;
+            count++;
+        }
+
+        private Notification toNotification(Long id) {
+            Notification notification = new Notification(last.getTopic(), last.getMessage());
+            notification.setId(id);
+            notification.setUserId(last.getUserId());
+            notification.setCreationDate(last.getCreatedAt());
+            notification.setLastRepeatedAt(last.getCreatedAt());
+            return notification;
+        }
+    }
+}
@@ -1,9 +1,80 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.NotificationDTO;
 import ed.sport_events_api.model.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Страница ленты по индексу (user_id, creation_date), новые сверху
+    @Query("SELECT new ed.sport_events_api.dto.NotificationDTO(n.id, n.topic, n.message, n.isRead, n.creationDate, n.repeatCount, n.lastRepeatedAt) " +
+            "FROM Notification n WHERE n.userId = :userId " +
+            "AND (:beforeDate IS NULL OR n.creationDate < :beforeDate " +
+            "     OR (n.creationDate = :beforeDate AND n.id < :beforeId)) " +
+            "ORDER BY n.creationDate DESC, n.id DESC")
+    List<NotificationDTO> findPage(@Param("userId") Long userId,
+                                   @Param("beforeDate") LocalDateTime beforeDate,
+                                   @Param("beforeId") Long beforeId,
+                                   Limit limit);
+
+    // Пропущенные после отключения от потока, в порядке создания
+    @Query("SELECT new ed.sport_events_api.dto.NotificationDTO(n.id, n.topic, n.message, n.isRead, n.creationDate, n.repeatCount, n.lastRepeatedAt) " +
+            "FROM Notification n WHERE n.userId = :userId AND n.id > :afterId ORDER BY n.id")
+    List<NotificationDTO> findAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    // Уже полученные клиентом оповещения, в которые после since слились повторы
+    @Query("SELECT new ed.sport_events_api.dto.NotificationDTO(n.id, n.topic, n.message, n.isRead, n.creationDate, n.repeatCount, n.lastRepeatedAt) " +
+            "FROM Notification n WHERE n.userId = :userId AND n.id <= :upToId AND n.lastRepeatedAt > :since " +
+            "ORDER BY n.lastRepeatedAt")
+    List<NotificationDTO> findMergedSince(@Param("userId") Long userId, @Param("upToId") Long upToId,
+                                          @Param("since") LocalDateTime since, Limit limit);
+
+    @Query("SELECT n.creationDate FROM Notification n WHERE n.id = :id AND n.userId = :userId")
+    Optional<LocalDateTime> findCreationDate(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT n.isRead FROM Notification n WHERE n.id = :id AND n.userId = :userId")
+    Optional<Boolean> findReadFlag(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.userId = :userId")
+    int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    // Счётчик непрочитанных живёт в users.unread_notifications. Все изменения ленты
+    // сначала блокируют строку пользователя — так они не пересекаются с доставкой
+    @Query(value = "SELECT unread_notifications FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Integer lockUnreadCounter(@Param("userId") Long userId);
+
+    @Query(value = "SELECT unread_notifications FROM users WHERE id = :userId", nativeQuery = true)
+    Integer findUnreadCount(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE users SET unread_notifications = GREATEST(unread_notifications + :delta, 0) " +
+            "WHERE id = :userId", nativeQuery = true)
+    int addUnread(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE users SET unread_notifications = 0 WHERE id = :userId", nativeQuery = true)
+    int resetUnread(@Param("userId") Long userId);
 }
@@ -1,9 +1,14 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.TeamMemberDTO;
 import ed.sport_events_api.model.Team;
 import ed.sport_events_api.model.TeamMember;
 import ed.sport_events_api.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +18,12 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     Optional<TeamMember> findByTeamAndUser(Team team, User user);
     boolean existsByTeamAndUser(Team team, User user);
     void deleteByTeamAndUser(Team team, User user);
+    boolean existsByTeamIdAndUserId(Long teamId, Long userId);
+
+    // Капитан первым, остальные — в порядке вступления
+    @Query(value = "SELECT new ed.sport_events_api.dto.TeamMemberDTO(m.id, u.id, u.name, u.avatar_url, m.role, m.joinDate) " +
+            "FROM TeamMember m JOIN m.user u JOIN m.team t LEFT JOIN t.captain c WHERE t.id = :teamId " +
+            "ORDER BY CASE WHEN u.id = c.id THEN 0 ELSE 1 END, m.joinDate, m.id",
+            countQuery = "SELECT count(m) FROM TeamMember m WHERE m.team.id = :teamId")
+    Page<TeamMemberDTO> findRoster(@Param("teamId") Long teamId, Pageable pageable);
 }
\ No newline at end of file
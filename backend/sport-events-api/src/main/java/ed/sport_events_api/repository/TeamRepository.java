@@ -1,6 +1,10 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.dto.TeamSummaryDTO;
 import ed.sport_events_api.model.Team;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
@@ -16,4 +21,19 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Modifying
     @Query("UPDATE Team t SET t.captain = null WHERE t.captain.id = :userId")
     void clearCaptainForUser(@Param("userId") Long userId);
+
+    @Query("SELECT new ed.sport_events_api.dto.SuggestionDTO(" +
+            "'TEAM', t.id, t.name, cast(null as String)) FROM Team t")
+    List<SuggestionDTO> findSuggestions();
+
+    @Query(value = "SELECT new ed.sport_events_api.dto.TeamSummaryDTO(t.id, t.name, t.logoUrl, c.id, c.name, count(m)) " +
+            "FROM Team t LEFT JOIN t.captain c LEFT JOIN t.members m " +
+            "GROUP BY t.id, t.name, t.logoUrl, c.id, c.name",
+            countQuery = "SELECT count(t) FROM Team t")
+    Page<TeamSummaryDTO> findSummaries(Pageable pageable);
+
+    @Query("SELECT new ed.sport_events_api.dto.TeamSummaryDTO(t.id, t.name, t.logoUrl, c.id, c.name, count(m)) " +
+            "FROM Team t LEFT JOIN t.captain c LEFT JOIN t.members m WHERE t.id = :id " +
+            "GROUP BY t.id, t.name, t.logoUrl, c.id, c.name")
+    Optional<TeamSummaryDTO> findSummary(@Param("id") Long id);
 }
@@ -0,0 +1,110 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.enums.ParticipantRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static ed.sport_events_api.repository.EventParticipantRepository.counterFor;
+import static ed.sport_events_api.repository.EventParticipantRepository.tableFor;
+
+/**
+ * Удаление всего, что ссылается на пользователя, множественными DML по
+ * user_id — без загрузки сущностей. Число запросов не зависит от того,
+ * во скольких событиях пользователь участвовал; порционные методы
+ * нужны фоновому удалению пользователей с большой историей.
+ */
+@Repository
+public class UserCleanupRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserCleanupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // События, карточки которых изменятся: участие в любой роли или организатор
+    public List<Long> findAffectedEventIds(Long userId) {
+        return jdbcTemplate.queryForList(
+                "SELECT event_id FROM event_players WHERE user_id = ? " +
+                        "UNION SELECT event_id FROM event_spectators WHERE user_id = ? " +
+                        "UNION SELECT event_id FROM event_referees WHERE user_id = ? " +
+                        "UNION SELECT id FROM events_t WHERE organizer_id = ?",
+                Long.class, userId, userId, userId, userId);
+    }
+
+    // Уменьшает счётчик роли во всех событиях пользователя и удаляет строки связи
+    public void deleteParticipations(ParticipantRole role, Long userId) {
+        String table = tableFor(role);
+        String counter = counterFor(role);
+        jdbcTemplate.update("UPDATE events_t SET " + counter + " = GREATEST(" + counter + " - 1, 0) " +
+                "WHERE id IN (SELECT event_id FROM " + table + " WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ?", userId);
+    }
+
+    /**
+     * То же для не более чем limit событий. Возвращает id событий, чьи
+     * счётчики изменились; меньше limit — участий в этой роли не осталось.
+     */
+    public List<Long> deleteParticipationChunk(ParticipantRole role, Long userId, int limit) {
+        String table = tableFor(role);
+        String counter = counterFor(role);
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT event_id FROM " + table + " WHERE user_id = ? ORDER BY event_id LIMIT ?",
+                Long.class, userId, limit);
+        if (eventIds.isEmpty()) {
+            return eventIds;
+        }
+        String in = placeholders(eventIds.size());
+        jdbcTemplate.update("UPDATE events_t SET " + counter + " = GREATEST(" + counter + " - 1, 0) " +
+                "WHERE id IN (" + in + ")", eventIds.toArray());
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ? AND event_id IN (" + in + ")",
+                prepend(userId, eventIds));
+        return eventIds;
+    }
+
+    // Оповещения принадлежат пользователю через notifications_t.user_id
+    public void deleteNotifications(Long userId) {
+        jdbcTemplate.update("DELETE FROM notifications_t WHERE user_id = ?", userId);
+    }
+
+    // Не более limit оповещений; возвращает, сколько удалено
+    public int deleteNotificationChunk(Long userId, int limit) {
+        return jdbcTemplate.update("DELETE FROM notifications_t WHERE user_id = ? LIMIT ?", userId, limit);
+    }
+
+    public void deleteTeamMemberships(Long userId) {
+        jdbcTemplate.update("DELETE FROM team_members WHERE user_id = ?", userId);
+    }
+
+    public void deleteRoles(Long userId) {
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ?", userId);
+    }
+
+    // Ещё не доставленные оповещения; доставка и так пропускает удалённых пользователей
+    public void deletePendingNotifications(Long userId) {
+        jdbcTemplate.update("DELETE FROM notification_outbox WHERE user_id = ?", userId);
+    }
+
+    // Очередь писем-дайджестов: внешнего ключа на users у email_outbox нет
+    public void deleteEmailDigests(Long userId) {
+        jdbcTemplate.update("DELETE FROM email_outbox WHERE user_id = ?", userId);
+    }
+
+    public int deleteUser(Long userId) {
+        return jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    private static Object[] prepend(Long first, List<Long> rest) {
+        List<Object> args = new ArrayList<>(rest.size() + 1);
+        args.add(first);
+        args.addAll(rest);
+        return args.toArray();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -1,11 +1,18 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.dto.UserListItemDTO;
+import ed.sport_events_api.dto.UserSnapshot;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.ERole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,7 +20,49 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :role")
-    List<User> findAllByRole(@Param("role") ERole role);
+
+    // Каталог: страница одним запросом, роли склеены listagg внутри группы пользователя.
+    // pattern — LIKE-шаблон по имени или email в нижнем регистре, null — без фильтра
+    @Query(value = "SELECT new ed.sport_events_api.dto.UserListItemDTO(u.id, u.name, u.email, u.avatar_url, " +
+            "listagg(cast(r.name as String), ',')) " +
+            "FROM User u LEFT JOIN u.roles r " +
+            "WHERE :pattern IS NULL OR lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!' " +
+            "GROUP BY u.id, u.name, u.email, u.avatar_url",
+            countQuery = "SELECT count(u) FROM User u " +
+                    "WHERE :pattern IS NULL OR lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!'")
+    Page<UserListItemDTO> findDirectory(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT new ed.sport_events_api.dto.UserListItemDTO(u.id, u.name, u.email, u.avatar_url, " +
+            "listagg(cast(r.name as String), ',')) " +
+            "FROM User u LEFT JOIN u.roles r " +
+            "WHERE u.id IN (SELECT m.id FROM User m JOIN m.roles mr WHERE mr.name = :role) " +
+            "AND (:pattern IS NULL OR lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!') " +
+            "GROUP BY u.id, u.name, u.email, u.avatar_url",
+            countQuery = "SELECT count(u) FROM User u JOIN u.roles r WHERE r.name = :role " +
+                    "AND (:pattern IS NULL OR lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!')")
+    Page<UserListItemDTO> findDirectoryByRole(@Param("role") ERole role, @Param("pattern") String pattern, Pageable pageable);
     boolean existsByEmail(String email);
+
+    // Снимок для UserCache: без коллекции оповещений, по строке на роль
+    @Query("SELECT new ed.sport_events_api.dto.UserSnapshot(u.id, u.email, u.name, u.phone, u.avatar_url, r.name) " +
+            "FROM User u LEFT JOIN u.roles r WHERE u.id = :id")
+    List<UserSnapshot> findSnapshotRows(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // Хэш пароля в кэш не попадает: вход всегда сверяет пароль с БД
+    @Query("SELECT u.password FROM User u WHERE u.id = :id")
+    Optional<String> findPasswordHash(@Param("id") Long id);
+
+    // Меняет хэш, только если пароль не успели сменить с момента входа
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id AND u.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("password") String password);
+
+    // Для SuggestIndex: только поля подсказки, без ролей и оповещений
+    @Query("SELECT new ed.sport_events_api.dto.SuggestionDTO(" +
+            "'USER', u.id, u.name, u.email) FROM User u")
+    List<SuggestionDTO> findSuggestions();
 }
@@ -0,0 +1,36 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserSession s SET s.lastSeenAt = :lastSeenAt WHERE s.tokenHash = :tokenHash")
+    int touch(@Param("tokenHash") String tokenHash, @Param("lastSeenAt") LocalDateTime lastSeenAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserSession s WHERE s.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserSession s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserSession s WHERE s.issuedAt < :issuedBefore OR s.lastSeenAt < :idleBefore")
+    int deleteExpired(@Param("issuedBefore") LocalDateTime issuedBefore,
+                      @Param("idleBefore") LocalDateTime idleBefore);
+}
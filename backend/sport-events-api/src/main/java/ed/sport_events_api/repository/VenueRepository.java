@@ -1,12 +1,19 @@
 package ed.sport_events_api.repository;
 
+import ed.sport_events_api.dto.SuggestionDTO;
 import ed.sport_events_api.model.Venue;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
     Optional<Venue> findByName(String name);
+
+    @Query("SELECT new ed.sport_events_api.dto.SuggestionDTO(" +
+            "'VENUE', v.id, v.name, v.address) FROM Venue v")
+    List<SuggestionDTO> findSuggestions();
 }
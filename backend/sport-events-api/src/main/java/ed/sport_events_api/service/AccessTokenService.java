@@ -0,0 +1,110 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SessionRecord;
+import ed.sport_events_api.util.SignedTokenCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Выдача и проверка токенов доступа. В формате signed токен подписан
+ * HMAC и проверяется на любом узле, а в БД ходит только кэшируемая
+ * проверка отзыва; в формате opaque
+ * выдаётся случайный токен из SessionStore. Принимаются оба вида, чтобы
+ * смена формата не разлогинивала уже вошедших пользователей.
+ * <p>
+ * Ключи задаются как {@code app.tokens.keys=1:<base64>,2:<base64>}; без них
+ * приложение не стартует. Для ротации новый ключ добавляют на все узлы,
+ * затем делают его активным. Отозванные подписанные токены отсекает TokenDenylist.
+ */
+@Component
+public class AccessTokenService {
+    public enum Format {
+        SIGNED, // самодостаточный токен, общее состояние не нужно
+        OPAQUE  // случайный токен, сессия хранится в SessionStore
+    }
+
+    private final SessionStore sessionStore;
+    private final TokenDenylist denylist;
+    private final Format format;
+    private final Duration ttl;
+    private final SignedTokenCodec codec;
+
+    public AccessTokenService(SessionStore sessionStore,
+                              TokenDenylist denylist,
+                              @Value("${app.tokens.format:SIGNED}") Format format,
+                              @Value("${app.tokens.keys:}") String keys,
+                              @Value("${app.tokens.active-key:1}") int activeKey,
+                              @Value("${app.tokens.ttl:PT1H}") Duration ttl) {
+        this.sessionStore = sessionStore;
+        this.denylist = denylist;
+        this.format = format;
+        this.ttl = ttl;
+        this.codec = new SignedTokenCodec(parseKeys(keys), activeKey, ttl);
+    }
+
+    public String issue(Long userId, int rolesMask) {
+        if (format == Format.SIGNED) {
+            return codec.issue(userId, rolesMask, Instant.now().getEpochSecond());
+        }
+        return sessionStore.create(userId, rolesMask);
+    }
+
+    /**
+     * Сессия по токену; пустой результат — токен поддельный, неизвестен, истёк или отозван.
+     */
+    public Optional<SessionRecord> resolve(String token) {
+        if (SignedTokenCodec.isSigned(token)) {
+            SessionRecord record = codec.verify(token, Instant.now().getEpochSecond());
+            if (record == null || denylist.isRevoked(token, record)) {
+                return Optional.empty();
+            }
+            return Optional.of(record);
+        }
+        return sessionStore.find(token);
+    }
+
+    public void revoke(String token) {
+        if (!SignedTokenCodec.isSigned(token)) {
+            sessionStore.invalidate(token);
+            return;
+        }
+        SessionRecord record = codec.verify(token, Instant.now().getEpochSecond());
+        if (record != null) {
+            denylist.revokeToken(token, record, LocalDateTime.now().plus(ttl));
+        }
+    }
+
+    // Завершает все сессии пользователя и отзывает его подписанные токены
+    public void revokeUser(Long userId) {
+        sessionStore.invalidateUser(userId);
+        denylist.revokeUser(userId, ttl);
+    }
+
+    private static Map<Integer, byte[]> parseKeys(String keys) {
+        Map<Integer, byte[]> parsed = new HashMap<>();
+        for (String entry : keys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Token key must look like <id>:<base64>, got " + entry.trim());
+            }
+            parsed.put(Integer.parseInt(entry.substring(0, separator).trim()),
+                    Base64.getDecoder().decode(entry.substring(separator + 1).trim()));
+        }
+        // Ключ, сгенерированный на узле, не примут другие узлы, а после перезапуска — и он сам
+        if (parsed.isEmpty()) {
+            throw new IllegalStateException("app.tokens.keys is not set: configure the same signing keys on every node");
+        }
+        return parsed;
+    }
+}
@@ -2,76 +2,123 @@ package ed.sport_events_api.service;
 
 import ed.sport_events_api.dto.LoginDTO;
 import ed.sport_events_api.dto.RegisterDTO;
-import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.dto.SessionRecord;
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.dto.UserSnapshot;
+import ed.sport_events_api.exception.UnauthorizedException;
 import ed.sport_events_api.model.User;
+import ed.sport_events_api.model.enums.SuggestionType;
 import ed.sport_events_api.repository.RoleRepository;
 import ed.sport_events_api.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Service
 public class AuthServiceImpl {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final Map<String, User> activeSessions = new ConcurrentHashMap<>();
-
-    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository) {
+    private final AccessTokenService accessTokenService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final UserCache userCache;
+    private final SuggestIndex suggestIndex;
+
+    public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
+                           AccessTokenService accessTokenService, NotificationDispatcher notificationDispatcher,
+                           PasswordHashingService passwordHashingService, LoginThrottle loginThrottle,
+                           UserCache userCache, SuggestIndex suggestIndex) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.accessTokenService = accessTokenService;
+        this.notificationDispatcher = notificationDispatcher;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
+        this.userCache = userCache;
+        this.suggestIndex = suggestIndex;
     }
 
     public User register(RegisterDTO request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (userRepository.existsByEmail(request.getEmail())) {
             throw new IllegalArgumentException("Email already in use");
         }
 
         User user = new User();
         user.setEmail(request.getEmail());
         user.getRoles().add(roleRepository.findById(3l).get());
-        user.setPassword(request.getPassword()); // В реальном приложении пароль нужно хэшировать!
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setName(request.getName());
         user.setPhone(request.getPhone());
         user.setAvatar_url("https://example.com/avatars/random.jpg");
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.USER, saved.getId(), saved.getName(), saved.getEmail()));
+        return saved;
     }
 
-    public String login(LoginDTO request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        user.getNotifications().add(new Notification("Успешная авторизация!", "Здраствуйте!!"));
+    /**
+     * Вход по email и паролю. address — IP клиента для ограничения перебора;
+     * устаревший хэш пароля после успешного входа пересчитывается в фоне.
+     */
+    public String login(LoginDTO request, String address) {
+        loginThrottle.check(request.getEmail(), address);
 
-        userRepository.save(user);
-
-        if (!user.getPassword().equals(request.getPassword())) {
+        UserSnapshot user = userCache.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            loginThrottle.recordFailure(request.getEmail(), address);
+            throw new IllegalArgumentException("User not found");
+        }
+        String storedHash = userRepository.findPasswordHash(user.getId()).orElse(null);
+        if (request.getPassword() == null || storedHash == null
+                || !passwordHashingService.matches(request.getPassword(), storedHash)) {
+            loginThrottle.recordFailure(request.getEmail(), address);
             throw new IllegalArgumentException("Invalid password");
         }
+        loginThrottle.recordSuccess(request.getEmail());
+
+        if (passwordHashingService.needsRehash(storedHash)) {
+            passwordHashingService.rehashAsync(request.getPassword(),
+                    hash -> {
+                        userRepository.updatePassword(user.getId(), storedHash, hash);
+                        userCache.invalidate(user.getId());
+                    });
+        }
 
-        String token = UUID.randomUUID().toString();
-        activeSessions.put(token, user);
+        notificationDispatcher.enqueue(user.getId(), "Успешная авторизация!", "Здраствуйте!!");
 
-        return token;
+        return accessTokenService.issue(user.getId(), user.getRolesMask());
     }
 
-    public User getCurrentUser(String token) {
-        System.out.println(token);
-        if (token == null || !token.startsWith("Bearer ")) {
-            throw new IllegalArgumentException("Invalid token");
-        }
+    public void logout(String token) {
+        accessTokenService.revoke(cleanToken(token));
+    }
 
-        String cleanToken = token.substring(7);
+    // В сессии только id пользователя — сама сущность читается заново
+    public User getCurrentUser(String token) {
+        SessionRecord session = accessTokenService.resolve(cleanToken(token))
+                .orElseThrow(() -> new IllegalArgumentException("Session expired"));
 
-        User user = activeSessions.get(cleanToken);
+        return userRepository.findById(session.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException("Session expired"));
+    }
 
-        if (user == null) {
-            throw new IllegalArgumentException("Session expired");
+    // Только id из сессии, без чтения пользователя — для частых запросов ленты оповещений
+    public Long getCurrentUserId(String token) {
+        String cleaned;
+        try {
+            cleaned = cleanToken(token);
+        } catch (IllegalArgumentException e) {
+            throw new UnauthorizedException(e.getMessage());
         }
+        return accessTokenService.resolve(cleaned)
+                .map(SessionRecord::getUserId)
+                .orElseThrow(() -> new UnauthorizedException("Session expired"));
+    }
 
-        return user;
+    private String cleanToken(String token) {
+        if (token == null || !token.startsWith("Bearer ")) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+        return token.substring(7);
     }
 }
\ No newline at end of file
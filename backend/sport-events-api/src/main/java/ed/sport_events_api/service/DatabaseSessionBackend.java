@@ -0,0 +1,78 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SessionRecord;
+import ed.sport_events_api.model.RevokedToken;
+import ed.sport_events_api.model.UserSession;
+import ed.sport_events_api.repository.RevokedTokenRepository;
+import ed.sport_events_api.repository.UserSessionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Сессии в таблице user_sessions: переживают перезапуск и видны всем узлам
+@Component
+@ConditionalOnProperty(name = "app.sessions.backend", havingValue = "database", matchIfMissing = true)
+public class DatabaseSessionBackend implements SessionBackend {
+    private final UserSessionRepository sessionRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    public DatabaseSessionBackend(UserSessionRepository sessionRepository,
+                                  RevokedTokenRepository revokedTokenRepository) {
+        this.sessionRepository = sessionRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @Override
+    public void save(String tokenHash, SessionRecord record, LocalDateTime lastSeenAt) {
+        sessionRepository.save(new UserSession(tokenHash, record.getUserId(), record.getRolesMask(),
+                record.getIssuedAt(), lastSeenAt));
+    }
+
+    @Override
+    public Optional<StoredSession> find(String tokenHash) {
+        return sessionRepository.findById(tokenHash)
+                .map(s -> new StoredSession(new SessionRecord(s.getUserId(), s.getRolesMask(), s.getIssuedAt()),
+                        s.getLastSeenAt()));
+    }
+
+    @Override
+    public boolean touch(String tokenHash, LocalDateTime lastSeenAt) {
+        return sessionRepository.touch(tokenHash, lastSeenAt) > 0;
+    }
+
+    @Override
+    public void delete(String tokenHash) {
+        sessionRepository.deleteByTokenHash(tokenHash);
+    }
+
+    @Override
+    public void deleteByUser(Long userId) {
+        sessionRepository.deleteByUserId(userId);
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime issuedBefore, LocalDateTime idleBefore) {
+        return sessionRepository.deleteExpired(issuedBefore, idleBefore);
+    }
+
+    @Override
+    public void saveRevocation(Long userId, Revocation revocation) {
+        revokedTokenRepository.save(new RevokedToken(userId, revocation.getTokenHash(),
+                revocation.getRevokedBefore(), revocation.getExpiresAt()));
+    }
+
+    @Override
+    public List<Revocation> findRevocations(Long userId, LocalDateTime now) {
+        return revokedTokenRepository.findActive(userId, now).stream()
+                .map(r -> new Revocation(r.getTokenHash(), r.getRevokedBefore(), r.getExpiresAt()))
+                .toList();
+    }
+
+    @Override
+    public int deleteExpiredRevocations(LocalDateTime now) {
+        return revokedTokenRepository.deleteExpired(now);
+    }
+}
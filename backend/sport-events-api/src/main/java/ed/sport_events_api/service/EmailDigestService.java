@@ -0,0 +1,275 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.repository.EmailOutboxRepository;
+import ed.sport_events_api.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Почтовые дайджесты оповещений. enqueue пишет в email_outbox той же
+ * транзакцией, что и ленты, — запрос, породивший оповещение, почту не ждёт.
+ * Отдельный поток раз в pollInterval выбирает получателей, чьи записи
+ * пролежали digestDelay, и отправляет каждому одно письмо со всеми его
+ * непрочитанными оповещениями; одновременно идёт не больше concurrency
+ * отправок. Неудачная попытка откладывается с экспоненциально растущей
+ * паузой, после maxAttempts записи удаляются.
+ * Метрики — notifications.email.sent, .items, .retried, .failed,
+ * .duration, .pending и .lag (сколько секунд ждёт самая старая запись).
+ */
+@Service
+public class EmailDigestService {
+    private static final Logger log = LoggerFactory.getLogger(EmailDigestService.class);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final EmailOutboxRepository outboxRepository;
+    private final MailTransport transport;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration digestDelay;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final ExecutorService senders;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter sent;
+    private final Counter items;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer duration;
+
+    private volatile boolean running;
+    private Thread poller;
+
+    public EmailDigestService(EmailOutboxRepository outboxRepository,
+                              MailTransport transport,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notifications.email.enabled:true}") boolean enabled,
+                              @Value("${app.notifications.email.digest-delay:PT5M}") Duration digestDelay,
+                              @Value("${app.notifications.email.batch-size:50}") int batchSize,
+                              @Value("${app.notifications.email.concurrency:4}") int concurrency,
+                              @Value("${app.notifications.email.max-attempts:6}") int maxAttempts,
+                              @Value("${app.notifications.email.initial-backoff:PT1M}") Duration initialBackoff,
+                              @Value("${app.notifications.email.max-backoff:PT1H}") Duration maxBackoff,
+                              @Value("${app.notifications.email.lease:PT5M}") Duration lease,
+                              @Value("${app.notifications.email.poll-interval:PT10S}") Duration pollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.transport = transport;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.digestDelay = digestDelay;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.senders = Executors.newFixedThreadPool(concurrency,
+                Thread.ofPlatform().name("email-sender-", 0).daemon(true).factory());
+        this.sent = Counter.builder("notifications.email.sent")
+                .description("Digest emails sent")
+                .register(meterRegistry);
+        this.items = Counter.builder("notifications.email.items")
+                .description("Notifications delivered by email")
+                .register(meterRegistry);
+        this.retried = Counter.builder("notifications.email.retried")
+                .description("Digest emails postponed after a failed attempt")
+                .register(meterRegistry);
+        this.failed = Counter.builder("notifications.email.failed")
+                .description("Digest emails dropped after the last attempt")
+                .register(meterRegistry);
+        this.duration = Timer.builder("notifications.email.duration")
+                .description("Time to hand a digest over to the mail transport")
+                .register(meterRegistry);
+        Gauge.builder("notifications.email.pending", pending, AtomicLong::get)
+                .description("Notifications waiting to be emailed")
+                .register(meterRegistry);
+        Gauge.builder("notifications.email.lag", lagSeconds, AtomicLong::get)
+                .description("How long the oldest due notification has been waiting for its email")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (enabled && poller == null) {
+            running = true;
+            poller = Thread.ofPlatform().name("email-digest").daemon(true).start(this::poll);
+        }
+    }
+
+    // Незавершённые отправки остаются захваченными и повторятся после lease
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+            poller.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        senders.shutdownNow();
+    }
+
+    // Вызывается в транзакции, которая доставила оповещения в ленты
+    public void enqueue(NotificationOutboxRepository.Delivery delivery) {
+        if (!enabled) {
+            return;
+        }
+        List<Notification> notifications = new ArrayList<>(delivery.getCreated().size() + delivery.getMerged().size());
+        notifications.addAll(delivery.getCreated());
+        notifications.addAll(delivery.getMerged());
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.enqueue(notifications, now, now.plus(digestDelay));
+    }
+
+    private void poll() {
+        while (running) {
+            int claimed = 0;
+            try {
+                claimed = sendDue();
+                refreshBacklog();
+            } catch (RuntimeException e) {
+                log.error("Failed to send notification digests", e);
+            }
+            if (claimed < batchSize) {
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Один проход: захват до batchSize получателей и отправка их
+     * дайджестов пулом отправителей. Возвращает число выбранных получателей —
+     * если оно равно batchSize, следующий проход начинается сразу.
+     */
+    int sendDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> recipients = outboxRepository.findDueRecipients(now, batchSize);
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        List<EmailOutboxRepository.Digest> digests =
+                transactionTemplate.execute(status -> outboxRepository.claim(recipients, now, now.plus(lease)));
+        List<Callable<Void>> tasks = new ArrayList<>(digests.size());
+        for (EmailOutboxRepository.Digest digest : digests) {
+            tasks.add(() -> {
+                send(digest);
+                return null;
+            });
+        }
+        try {
+            senders.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return recipients.size();
+    }
+
+    void send(EmailOutboxRepository.Digest digest) {
+        long started = System.nanoTime();
+        try {
+            transport.send(digest.getRecipient(), subject(digest), body(digest));
+        } catch (RuntimeException e) {
+            retryOrDrop(digest, e);
+            return;
+        } finally {
+            duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        try {
+            outboxRepository.deleteByIds(digest.getEntryIds());
+        } catch (RuntimeException e) {
+            // Письмо ушло, но записи остались захваченными: после lease оно уйдёт повторно
+            log.error("Failed to remove emailed notifications of user {}", digest.getUserId(), e);
+        }
+        sent.increment();
+        items.increment(digest.getNotifications().size());
+    }
+
+    private void retryOrDrop(EmailOutboxRepository.Digest digest, RuntimeException cause) {
+        try {
+            if (digest.getAttempts() >= maxAttempts) {
+                outboxRepository.deleteByIds(digest.getEntryIds());
+                failed.increment();
+                log.warn("Giving up on digest for user {} after {} attempts", digest.getUserId(), digest.getAttempts(), cause);
+            } else {
+                Duration delay = backoff(digest.getAttempts());
+                outboxRepository.reschedule(digest.getEntryIds(), LocalDateTime.now().plus(delay));
+                retried.increment();
+                log.debug("Digest for user {} failed, retrying in {}", digest.getUserId(), delay, cause);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reschedule digest for user {}", digest.getUserId(), e);
+        }
+    }
+
+    // initialBackoff · 2^(attempts-1), не больше maxBackoff, плюс до 10% разброса,
+    // чтобы после сбоя почтового сервера повторы не пришли к нему одновременно
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        if (delay.compareTo(maxBackoff) > 0) {
+            delay = maxBackoff;
+        }
+        return delay.plusMillis(ThreadLocalRandom.current().nextLong(delay.toMillis() / 10 + 1));
+    }
+
+    private void refreshBacklog() {
+        EmailOutboxRepository.Backlog backlog = outboxRepository.backlog();
+        pending.set(backlog.getPending());
+        LocalDateTime oldest = backlog.getOldestDue();
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    private static String subject(EmailOutboxRepository.Digest digest) {
+        List<Notification> notifications = digest.getNotifications();
+        return notifications.size() == 1
+                ? notifications.get(0).getTopic()
+                : "Новые оповещения: " + notifications.size();
+    }
+
+    private static String body(EmailOutboxRepository.Digest digest) {
+        StringBuilder text = new StringBuilder("Здравствуйте!\n\nНепрочитанные оповещения:\n");
+        for (Notification notification : digest.getNotifications()) {
+            LocalDateTime time = notification.getLastRepeatedAt() != null
+                    ? notification.getLastRepeatedAt()
+                    : notification.getCreationDate();
+            text.append("\n• ").append(time.format(TIME))
+                    .append(" — ").append(notification.getTopic());
+            if (notification.getRepeatCount() > 1) {
+                text.append(" (×").append(notification.getRepeatCount()).append(')');
+            }
+            text.append("\n  ").append(notification.getMessage()).append('\n');
+        }
+        return text.append("\nПрочитать их можно в приложении.\n").toString();
+    }
+}
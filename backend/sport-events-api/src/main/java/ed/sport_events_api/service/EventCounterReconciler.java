@@ -0,0 +1,47 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически сверяет счётчики участников в events_t с таблицами
+ * event_players / event_spectators / event_referees и исправляет расхождения.
+ * Работает диапазонами id, чтобы каждое UPDATE держало блокировки недолго.
+ */
+@Component
+public class EventCounterReconciler {
+    private static final Logger log = LoggerFactory.getLogger(EventCounterReconciler.class);
+
+    private final EventRepository eventRepository;
+    private final SeatLedger seatLedger;
+    private final int chunkSize;
+
+    public EventCounterReconciler(EventRepository eventRepository,
+                                  SeatLedger seatLedger,
+                                  @Value("${app.events.counters.reconcile-chunk-size:1000}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.seatLedger = seatLedger;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.events.counters.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${app.events.counters.reconcile-interval:PT10M}")
+    public void reconcile() {
+        long maxId = eventRepository.findMaxId();
+        int repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+            long toId = fromId + chunkSize - 1;
+            repaired += eventRepository.reconcilePlayersCount(fromId, toId);
+            repaired += eventRepository.reconcileSpectatorsCount(fromId, toId);
+            repaired += eventRepository.reconcileRefereesCount(fromId, toId);
+        }
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted participant counters", repaired);
+            seatLedger.clear();
+        }
+    }
+}
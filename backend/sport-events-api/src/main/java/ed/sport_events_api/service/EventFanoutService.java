@@ -0,0 +1,261 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.FanoutProgressDTO;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import ed.sport_events_api.model.enums.FanoutStatus;
+import ed.sport_events_api.repository.EventParticipantRepository;
+import ed.sport_events_api.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Рассылка оповещения всем участникам события вне запроса, который его
+ * изменил. После коммита изменения задача встаёт в ограниченную очередь;
+ * один поток выбирает id участников одним запросом и пишет оповещения
+ * порциями по chunkSize — каждая порция своей транзакцией через
+ * NotificationOutboxRepository.deliver вместе с постановкой в почтовую
+ * очередь, затем уходит подписчикам потока.
+ * Порция, упавшая на временной ошибке БД (deadlock, обрыв соединения),
+ * откатывается целиком и повторяется с той же позиции с паузой
+ * initialBackoff · 2^(n-1), не больше maxBackoff; задача помечается FAILED
+ * только после maxAttempts неудачных попыток одной порции.
+ * Ход последней рассылки по событию доступен через getProgress.
+ * Метрики — notifications.fanout.delivered, .duration, .rejected, .retried,
+ * .pending.
+ */
+@Service
+public class EventFanoutService {
+    private static final Logger log = LoggerFactory.getLogger(EventFanoutService.class);
+
+    private final EventParticipantRepository participantRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationBroker broker;
+    private final EmailDigestService emailDigests;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration progressTtl;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, Job> latestByEvent = new ConcurrentHashMap<>();
+    private final Counter delivered;
+    private final Counter rejected;
+    private final Counter retried;
+    private final Timer duration;
+
+    public EventFanoutService(EventParticipantRepository participantRepository,
+                              NotificationOutboxRepository outboxRepository,
+                              NotificationBroker broker,
+                              EmailDigestService emailDigests,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notifications.fanout.chunk-size:1000}") int chunkSize,
+                              @Value("${app.notifications.fanout.queue-capacity:100}") int queueCapacity,
+                              @Value("${app.notifications.fanout.progress-ttl:PT1H}") Duration progressTtl,
+                              @Value("${app.notifications.fanout.max-attempts:5}") int maxAttempts,
+                              @Value("${app.notifications.fanout.initial-backoff:PT1S}") Duration initialBackoff,
+                              @Value("${app.notifications.fanout.max-backoff:PT1M}") Duration maxBackoff) {
+        this.participantRepository = participantRepository;
+        this.outboxRepository = outboxRepository;
+        this.broker = broker;
+        this.emailDigests = emailDigests;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.progressTtl = progressTtl;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("event-fanout").daemon(true).factory());
+        this.delivered = Counter.builder("notifications.fanout.delivered")
+                .description("Notifications written by event fan-out")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("notifications.fanout.rejected")
+                .description("Fan-out jobs rejected because the queue was full")
+                .register(meterRegistry);
+        this.retried = Counter.builder("notifications.fanout.retried")
+                .description("Fan-out chunks retried after a failed attempt")
+                .register(meterRegistry);
+        this.duration = Timer.builder("notifications.fanout.duration")
+                .description("Time to notify all participants of an event")
+                .register(meterRegistry);
+        Gauge.builder("notifications.fanout.pending", executor, e -> e.getQueue().size())
+                .description("Fan-out jobs waiting in the queue")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ставит рассылку после коммита текущей транзакции: откат изменения
+     * события не порождает оповещений, а сам запрос не ждёт записи.
+     */
+    public void notifyParticipantsAfterCommit(Long eventId, String topic, String message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyParticipants(eventId, topic, message);
+                }
+            });
+        } else {
+            notifyParticipants(eventId, topic, message);
+        }
+    }
+
+    public FanoutProgressDTO notifyParticipants(Long eventId, String topic, String message) {
+        Job job = new Job(eventId, topic, message);
+        latestByEvent.put(eventId, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            job.finish(FanoutStatus.FAILED);
+            log.warn("Fan-out queue is full, participants of event {} were not notified", eventId);
+        }
+        return job.toDto();
+    }
+
+    public FanoutProgressDTO getProgress(Long eventId) {
+        Job job = latestByEvent.get(eventId);
+        if (job == null) {
+            throw new ResourceNotFoundException("No fan-out for event with id: " + eventId);
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.fanout.cleanup-interval:PT5M}")
+    public void evictFinished() {
+        Instant threshold = Instant.now().minus(progressTtl);
+        latestByEvent.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private void run(Job job) {
+        long started = System.nanoTime();
+        job.status = FanoutStatus.RUNNING;
+        try {
+            List<Long> recipients = withRetry(job, () -> participantRepository.findParticipantIds(job.eventId));
+            job.total = recipients.size();
+            LocalDateTime createdAt = LocalDateTime.now();
+            // job.delivered — смещение первой незаписанной порции: повтор начинается с него
+            while (job.delivered < recipients.size()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    job.finish(FanoutStatus.FAILED);
+                    return;
+                }
+                int from = job.delivered;
+                List<NotificationOutboxEntry> entries = new ArrayList<>(chunkSize);
+                for (Long userId : recipients.subList(from, Math.min(recipients.size(), from + chunkSize))) {
+                    NotificationOutboxEntry entry = new NotificationOutboxEntry();
+                    entry.setUserId(userId);
+                    entry.setTopic(job.topic);
+                    entry.setMessage(job.message);
+                    entry.setCreatedAt(createdAt);
+                    entries.add(entry);
+                }
+                NotificationOutboxRepository.Delivery delivery = withRetry(job, () -> transactionTemplate.execute(status -> {
+                    NotificationOutboxRepository.Delivery chunk = outboxRepository.deliver(entries);
+                    emailDigests.enqueue(chunk);
+                    return chunk;
+                }));
+                delivery.getCreated().forEach(broker::publish);
+                delivery.getMerged().forEach(broker::publishMerged);
+                delivered.increment(delivery.getCreated().size() + delivery.getMerged().size());
+                job.delivered = from + entries.size();
+                log.debug("Fan-out for event {}: {}/{}", job.eventId, job.delivered, job.total);
+            }
+            job.finish(FanoutStatus.DONE);
+            log.info("Notified {} participants of event {}", job.total, job.eventId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(FanoutStatus.FAILED);
+            log.warn("Fan-out for event {} interrupted after {}/{}", job.eventId, job.delivered, job.total);
+        } catch (RuntimeException e) {
+            job.finish(FanoutStatus.FAILED);
+            log.error("Fan-out for event {} failed after {}/{}", job.eventId, job.delivered, job.total, e);
+        } finally {
+            duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Транзакция порции откатывается целиком, поэтому повтор не задваивает оповещения
+    private <T> T withRetry(Job job, Supplier<T> action) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                retried.increment();
+                log.warn("Fan-out for event {} failed at {}/{}, attempt {} of {}, retrying in {}",
+                        job.eventId, job.delivered, job.total, attempt, maxAttempts, delay, e);
+                Thread.sleep(delay.toMillis());
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long eventId;
+        private final String topic;
+        private final String message;
+        private final Instant queuedAt = Instant.now();
+        private volatile FanoutStatus status = FanoutStatus.QUEUED;
+        private volatile int total;
+        private volatile int delivered;
+        private volatile Instant finishedAt;
+
+        private Job(Long eventId, String topic, String message) {
+            this.eventId = eventId;
+            this.topic = topic;
+            this.message = message;
+        }
+
+        private void finish(FanoutStatus outcome) {
+            finishedAt = Instant.now();
+            status = outcome;
+        }
+
+        private FanoutProgressDTO toDto() {
+            return new FanoutProgressDTO(id, eventId, status, total, delivered, queuedAt, finishedAt);
+        }
+    }
+}
@@ -1,34 +1,114 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.CursorPage;
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.dto.EventDetailsDTO;
+import ed.sport_events_api.dto.EventFilter;
+import ed.sport_events_api.dto.ParticipationDTO;
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.exception.CapacityExceededException;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.model.Event;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.repository.EventParticipantRepository;
 import ed.sport_events_api.repository.EventRepository;
 import ed.sport_events_api.repository.UserRepository;
+import ed.sport_events_api.repository.VenueRepository;
+import ed.sport_events_api.util.EventCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class EventService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_UPCOMING_DAYS = 365;
+    private static final DateTimeFormatter NOTIFICATION_TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final AuthServiceImpl authService;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final SeatLedger seatLedger;
+    private final EventParticipantRepository participantRepository;
+    private final EventStatusScheduler statusScheduler;
+    private final VenueScheduleIndex venueScheduleIndex;
+    private final VenueRepository venueRepository;
+    private final UserCache userCache;
+    private final EventFanoutService eventFanout;
 
-    public EventService(EventRepository eventRepository, UserRepository userRepository, AuthServiceImpl authService) {
+    public EventService(EventRepository eventRepository, UserRepository userRepository, AuthServiceImpl authService,
+                        UpcomingEventIndex upcomingEventIndex, SeatLedger seatLedger,
+                        EventParticipantRepository participantRepository, EventStatusScheduler statusScheduler,
+                        VenueScheduleIndex venueScheduleIndex, VenueRepository venueRepository, UserCache userCache,
+                        EventFanoutService eventFanout) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.authService = authService;
+        this.upcomingEventIndex = upcomingEventIndex;
+        this.seatLedger = seatLedger;
+        this.participantRepository = participantRepository;
+        this.statusScheduler = statusScheduler;
+        this.venueScheduleIndex = venueScheduleIndex;
+        this.venueRepository = venueRepository;
+        this.userCache = userCache;
+        this.eventFanout = eventFanout;
     }
 
     public List<Event> getAllEvents() {
         return eventRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<EventDTO> getEvents(EventFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        EventCursor after = cursor == null || cursor.isBlank() ? null : EventCursor.decode(cursor);
+
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        List<EventDTO> rows = eventRepository.findPage(
+                filter.getStatus(),
+                filter.getSportTypeId(),
+                filter.getVenueId(),
+                filter.getFrom(),
+                filter.getTo(),
+                after == null ? null : after.getStartDate(),
+                after == null ? null : after.getId(),
+                Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<EventDTO> items = rows.subList(0, pageSize);
+        EventDTO last = items.get(pageSize - 1);
+        return new CursorPage<>(items, new EventCursor(last.getStartDate(), last.getId()).encode());
+    }
+
+    /**
+     * Карточка события за постоянное число запросов: событие с видом спорта,
+     * площадкой и организатором, плюс по одной проекции на каждый список участников.
+     */
+    @Transactional(readOnly = true)
+    public EventDetailsDTO getEventDetails(Long id) {
+        Event event = eventRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
+        return new EventDetailsDTO(event,
+                eventRepository.findPlayerSummaries(id),
+                eventRepository.findSpectatorSummaries(id),
+                eventRepository.findRefereeSummaries(id));
+    }
+
     public Event getEventById(Long id) {
         return eventRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
@@ -41,12 +121,20 @@ public class EventService {
         event.setCreationDate(LocalDateTime.now());
 //        event.setOrganizer(authService.getCurrentUser());
         event.setStatus(EventStatus.CREATED);
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        bookVenue(saved);
+        upcomingEventIndex.refreshAfterCommit(saved.getId());
+        statusScheduler.scheduleAfterCommit(saved.getId(), saved.getStatus(), saved.getStartDate(), saved.getEndDate());
+        return saved;
     }
 
     @Transactional
     public Event updateOne(Long id, Event eventDetails) {
         Event event = getEventById(id);
+        LocalDateTime oldStart = event.getStartDate();
+        LocalDateTime oldEnd = event.getEndDate();
+        EventStatus oldStatus = event.getStatus();
+        Long oldVenueId = event.getVenue() == null ? null : event.getVenue().getId();
 
         System.out.println(eventDetails);
 
@@ -56,8 +144,48 @@ public class EventService {
         event.setStartDate(eventDetails.getStartDate());
         event.setEndDate(eventDetails.getEndDate());
         event.setResult(eventDetails.getResult());
+        if (eventDetails.getVenue() != null && eventDetails.getVenue().getId() != null) {
+            event.setVenue(venueRepository.getReferenceById(eventDetails.getVenue().getId()));
+        }
+
+        Event saved = eventRepository.save(event);
+        bookVenue(saved);
+        upcomingEventIndex.refreshAfterCommit(id);
+        statusScheduler.scheduleAfterCommit(id, saved.getStatus(), saved.getStartDate(), saved.getEndDate());
+        seatLedger.invalidateAfterCommit(id);
 
-        return eventRepository.save(event);
+        String changes = describeChanges(saved, oldStart, oldEnd, oldStatus, oldVenueId);
+        if (changes != null) {
+            eventFanout.notifyParticipantsAfterCommit(id, "Изменения в событии «" + saved.getTitle() + "»", changes);
+        }
+        return saved;
+    }
+
+    // Текст оповещения об изменении времени, площадки или статуса; null — участникам сообщать нечего
+    private static String describeChanges(Event event, LocalDateTime oldStart, LocalDateTime oldEnd,
+                                          EventStatus oldStatus, Long oldVenueId) {
+        List<String> changes = new ArrayList<>(3);
+        // Время сравнивается с точностью до минуты: БД и клиент по-разному округляют доли секунды
+        if (!Objects.equals(toMinutes(oldStart), toMinutes(event.getStartDate()))
+                || !Objects.equals(toMinutes(oldEnd), toMinutes(event.getEndDate()))) {
+            changes.add("время: " + formatTime(event.getStartDate()) + " – " + formatTime(event.getEndDate()));
+        }
+        Long venueId = event.getVenue() == null ? null : event.getVenue().getId();
+        if (!Objects.equals(oldVenueId, venueId)) {
+            changes.add("площадка: " + (event.getVenue() == null ? "не указана" : event.getVenue().getName()));
+        }
+        if (oldStatus != event.getStatus()) {
+            changes.add("статус: " + event.getStatus());
+        }
+        return changes.isEmpty() ? null : "Новое " + String.join("; ", changes);
+    }
+
+    private static LocalDateTime toMinutes(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time == null ? "не указано" : NOTIFICATION_TIME.format(time);
     }
 
     @Transactional
@@ -71,97 +199,158 @@ public class EventService {
         eventRepository.saveAndFlush(event); // Сохраняем изменения
 
         eventRepository.delete(event);
+        upcomingEventIndex.removeAfterCommit(id);
+        statusScheduler.cancelAfterCommit(id);
+        venueScheduleIndex.removeAfterCommit(id);
+        seatLedger.invalidateAfterCommit(id);
         return id;
     }
 
-    @Transactional
-    public Event registerPlayer(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        User player = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        event.getPlayers().add(player);
-        return eventRepository.save(event);
+    // Проверка пересечения по площадке; при конфликте бросает исключение и откатывает транзакцию
+    private void bookVenue(Event event) {
+        venueScheduleIndex.book(event.getId(),
+                event.getVenue() == null ? null : event.getVenue().getId(),
+                event.getStatus(), event.getStartDate(), event.getEndDate());
     }
 
     @Transactional
-    public Event registerSpectator(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        User spectator = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    public ParticipationDTO registerPlayer(Long eventId, Long userId) {
+        return addParticipant(eventId, userId, ParticipantRole.PLAYER);
+    }
 
-        event.getSpectators().add(spectator);
-        return eventRepository.save(event);
+    @Transactional
+    public ParticipationDTO registerSpectator(Long eventId, Long userId) {
+        return addParticipant(eventId, userId, ParticipantRole.SPECTATOR);
     }
 
     @Transactional
-    public Event registerReferee(Long eventId, Long userId) {
-        Event event = getEventById(eventId);
-        User referee = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    public ParticipationDTO registerReferee(Long eventId, Long userId) {
+        return addParticipant(eventId, userId, ParticipantRole.REFEREE);
+    }
 
-        event.getReferees().add(referee);
-        return eventRepository.save(event);
+    @Transactional(readOnly = true)
+    public List<EventDTO> getEventsBySportType(Long sportTypeId) {
+        return eventRepository.findPage(null, sportTypeId, null, null, null, null, null, Limit.unlimited());
     }
 
-    public List<Event> getEventsBySportType(Long sportTypeId) {
-        return eventRepository.findBySportTypeId(sportTypeId);
+    // Обслуживается из индекса в памяти, без обращения к БД
+    public List<EventDTO> getUpcomingEvents(Integer limit, Integer days) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        int window = days == null ? 30 : Math.max(1, Math.min(days, MAX_UPCOMING_DAYS));
+        LocalDateTime now = LocalDateTime.now();
+        return upcomingEventIndex.upcoming(now, now.plusDays(window), pageSize);
     }
 
-    public List<Event> getUpcomingEvents() {
-        return eventRepository.findByStartDateAfter(LocalDateTime.now());
+    @Transactional(readOnly = true)
+    public List<EventDTO> getFinishedEvents() {
+        return eventRepository.findPage(EventStatus.FINISHED, null, null, null, null, null, null, Limit.unlimited());
     }
 
-    public List<Event> getFinishedEvents() {
-        return eventRepository.findByStatus(EventStatus.FINISHED);
+    @Transactional
+    public ParticipationDTO participateInEvent(Long eventId, Long userId, String role) {
+        return addParticipant(eventId, userId, ParticipantRole.fromString(role));
     }
 
-    public Event participateInEvent(Long eventId, Long userId, String role) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+    /**
+     * Добавляет одну строку связи, не загружая событие и его коллекции участников.
+     * Повторную регистрацию отсекает уникальный индекс: в этом случае возвращается
+     * текущее состояние события без изменений.
+     */
+    private ParticipationDTO addParticipant(Long eventId, Long userId, ParticipantRole role) {
+        if (!userCache.exists(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        SeatLedger.Reservation reservation = seatLedger.tryReserve(eventId, role);
+        if (reservation == null) {
+            // Мест нет, но уже зарегистрированный участник должен получить текущее состояние, а не ошибку
+            if (participantRepository.exists(role, eventId, userId)) {
+                return new ParticipationDTO(eventId, userId, role, false, getSeatState(eventId));
+            }
+            throw new CapacityExceededException("No free " + role.name().toLowerCase() + " seats for event " + eventId);
+        }
+        releaseOnRollback(reservation);
 
-        switch (role.toLowerCase()) {
-            case "player":
-                return registerPlayer(event, user);
-            case "spectator":
-                return registerSpectator(event, user);
-            case "referee":
-                return registerReferee(event, user);
-            default:
-                throw new IllegalArgumentException("Invalid role: " + role);
+        if (participantRepository.insert(role, eventId, userId) == 0) {
+            reservation.release();
+            return new ParticipationDTO(eventId, userId, role, false, getSeatState(eventId));
+        }
+
+        if (takeSeat(eventId, role, reservation) == 0) {
+            // В БД мест уже нет — значит, ledger отстал; откат уберёт и вставленную строку
+            seatLedger.invalidate(eventId);
+            throw new CapacityExceededException("No free " + role.name().toLowerCase() + " seats for event " + eventId);
         }
+
+        upcomingEventIndex.refreshAfterCommit(eventId);
+        return new ParticipationDTO(eventId, userId, role, true, getSeatState(eventId));
     }
 
-    private Event registerPlayer(Event event, User user) {
-        if (event.getPlayers() == null) {
-            event.setPlayers(new ArrayList<>());
+    /**
+     * Снимает участника с события: удаляет одну строку связи и уменьшает счётчик,
+     * не загружая ни событие, ни его коллекции участников.
+     */
+    @Transactional
+    public void withdrawParticipant(Long eventId, String role, Long userId) {
+        ParticipantRole participantRole = ParticipantRole.fromString(role);
+        if (participantRepository.delete(participantRole, eventId, userId) == 0) {
+            throw new ResourceNotFoundException("User " + userId + " is not a "
+                    + participantRole.name().toLowerCase() + " of event " + eventId);
         }
-        if (!event.getPlayers().contains(user)) {
-            event.getPlayers().add(user);
+        releaseSeat(eventId, participantRole);
+        upcomingEventIndex.refreshAfterCommit(eventId);
+    }
+
+    private SeatStateDTO getSeatState(Long eventId) {
+        return eventRepository.findSeatState(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+    }
+
+    // Счётчик увеличивается условным UPDATE в той же транзакции, что и вставка строки связи
+    private int takeSeat(Long eventId, ParticipantRole role, SeatLedger.Reservation reservation) {
+        switch (role) {
+            case PLAYER:
+                return eventRepository.takePlayerSeat(eventId, reservation.getMaxPlayers(), reservation.getCapacity());
+            case SPECTATOR:
+                return eventRepository.takeSpectatorSeat(eventId, reservation.getCapacity());
+            default:
+                return eventRepository.takeRefereeSeat(eventId, reservation.getCapacity());
         }
-        return eventRepository.save(event);
     }
 
-    private Event registerSpectator(Event event, User user) {
-        if (event.getSpectators() == null) {
-            event.setSpectators(new ArrayList<>());
+    private void releaseSeat(Long eventId, ParticipantRole role) {
+        switch (role) {
+            case PLAYER:
+                eventRepository.adjustPlayersCount(eventId, -1);
+                break;
+            case SPECTATOR:
+                eventRepository.adjustSpectatorsCount(eventId, -1);
+                break;
+            default:
+                eventRepository.adjustRefereesCount(eventId, -1);
         }
-        if (!event.getSpectators().contains(user)) {
-            event.getSpectators().add(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seatLedger.release(eventId, role);
+                }
+            });
+        } else {
+            seatLedger.release(eventId, role);
         }
-        return eventRepository.save(event);
     }
 
-    private Event registerReferee(Event event, User user) {
-        if (event.getReferees() == null) {
-            event.setReferees(new ArrayList<>());
-        }
-        if (!event.getReferees().contains(user)) {
-            event.getReferees().add(user);
+    private void releaseOnRollback(SeatLedger.Reservation reservation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reservation.release();
+                    }
+                }
+            });
         }
-        return eventRepository.save(event);
     }
-}
\ No newline at end of file
+}
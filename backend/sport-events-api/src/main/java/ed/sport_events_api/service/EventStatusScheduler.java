@@ -0,0 +1,172 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.repository.EventRepository;
+import ed.sport_events_api.util.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Автоматически переводит события CREATED → STARTED в startDate и
+ * CREATED/STARTED → FINISHED в endDate. Сроки хранятся в колесе таймеров,
+ * поэтому таблица событий не сканируется периодически: каждую секунду
+ * обрабатываются только наступившие сроки, пакетными UPDATE.
+ * При запуске состояние восстанавливается из БД.
+ */
+@Component
+public class EventStatusScheduler {
+    private static final Logger log = LoggerFactory.getLogger(EventStatusScheduler.class);
+    private static final int WHEEL_LEVELS = 6;
+    private static final Set<EventStatus> STARTABLE = EnumSet.of(EventStatus.CREATED);
+    private static final Set<EventStatus> FINISHABLE = EnumSet.of(EventStatus.CREATED, EventStatus.STARTED);
+
+    private final EventRepository eventRepository;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final int batchSize;
+    private final TimingWheel<Transition> wheel;
+    private final Map<Long, List<TimingWheel.Timeout<Transition>>> timeouts = new ConcurrentHashMap<>();
+
+    public EventStatusScheduler(EventRepository eventRepository,
+                                UpcomingEventIndex upcomingEventIndex,
+                                @Value("${app.events.status.tick:PT1S}") Duration tick,
+                                @Value("${app.events.status.batch-size:500}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.upcomingEventIndex = upcomingEventIndex;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel<>(tick.toMillis(), WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    // Раньше индекса ближайших событий, чтобы тот загрузился уже с актуальными статусами
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int finished = eventRepository.transitionEnded(FINISHABLE, EventStatus.FINISHED, now);
+        int started = eventRepository.transitionStarted(STARTABLE, EventStatus.STARTED, now);
+        List<EventDTO> pending = eventRepository.findActiveSummaries(now);
+        pending.forEach(e -> schedule(e.getId(), e.getStatus(), e.getStartDate(), e.getEndDate()));
+        log.info("Event status scheduler caught up {} started and {} finished events, tracking {}",
+                started, finished, pending.size());
+    }
+
+    /**
+     * Перепланирует переходы события по его текущему статусу и датам.
+     */
+    public void schedule(Long eventId, EventStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        List<TimingWheel.Timeout<Transition>> scheduled = new ArrayList<>(2);
+        if (status == EventStatus.CREATED && startDate != null) {
+            scheduled.add(wheel.schedule(toMillis(startDate), new Transition(eventId, EventStatus.STARTED)));
+        }
+        if (FINISHABLE.contains(status) && endDate != null) {
+            scheduled.add(wheel.schedule(toMillis(endDate), new Transition(eventId, EventStatus.FINISHED)));
+        }
+        cancelAll(scheduled.isEmpty() ? timeouts.remove(eventId) : timeouts.put(eventId, scheduled));
+    }
+
+    public void cancel(Long eventId) {
+        cancelAll(timeouts.remove(eventId));
+    }
+
+    // Внутри транзакции изменения применяются только после успешного коммита
+    public void scheduleAfterCommit(Long eventId, EventStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        afterCommit(() -> schedule(eventId, status, startDate, endDate));
+    }
+
+    public void cancelAfterCommit(Long eventId) {
+        afterCommit(() -> cancel(eventId));
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.status.tick:PT1S}")
+    public void tick() {
+        List<Transition> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        Set<Long> toStart = new LinkedHashSet<>();
+        Set<Long> toFinish = new LinkedHashSet<>();
+        for (Transition transition : due) {
+            (transition.target == EventStatus.STARTED ? toStart : toFinish).add(transition.eventId);
+        }
+        // Сначала завершаем: событие, у которого оба срока прошли, должно остаться FINISHED
+        apply(toFinish, FINISHABLE, EventStatus.FINISHED);
+        toStart.removeAll(toFinish);
+        apply(toStart, STARTABLE, EventStatus.STARTED);
+    }
+
+    private void apply(Set<Long> eventIds, Set<EventStatus> from, EventStatus to) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(eventIds);
+        int updated = 0;
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            updated += eventRepository.transitionStatus(ids.subList(i, Math.min(i + batchSize, ids.size())), from, to);
+        }
+        for (Long id : ids) {
+            if (to == EventStatus.FINISHED) {
+                timeouts.remove(id);
+                upcomingEventIndex.remove(id);
+            } else {
+                upcomingEventIndex.refresh(id);
+            }
+        }
+        log.debug("Moved {} of {} events to {}", updated, ids.size(), to);
+    }
+
+    private void cancelAll(List<TimingWheel.Timeout<Transition>> scheduled) {
+        if (scheduled != null) {
+            scheduled.forEach(TimingWheel.Timeout::cancel);
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Transition {
+        private final Long eventId;
+        private final EventStatus target;
+
+        private Transition(Long eventId, EventStatus target) {
+            this.eventId = eventId;
+            this.target = target;
+        }
+    }
+}
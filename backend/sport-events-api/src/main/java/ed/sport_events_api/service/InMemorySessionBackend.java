@@ -0,0 +1,80 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SessionRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Без долговременного хранения: сессии живут только в кэше SessionStore одного узла,
+// отзывы токенов — в памяти этого узла
+@Component
+@ConditionalOnProperty(name = "app.sessions.backend", havingValue = "memory")
+public class InMemorySessionBackend implements SessionBackend {
+    private final Map<Long, List<Revocation>> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(String tokenHash, SessionRecord record, LocalDateTime lastSeenAt) {
+    }
+
+    @Override
+    public Optional<StoredSession> find(String tokenHash) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean touch(String tokenHash, LocalDateTime lastSeenAt) {
+        return true;
+    }
+
+    @Override
+    public void delete(String tokenHash) {
+    }
+
+    @Override
+    public void deleteByUser(Long userId) {
+    }
+
+    @Override
+    public int deleteExpired(LocalDateTime issuedBefore, LocalDateTime idleBefore) {
+        return 0;
+    }
+
+    @Override
+    public void saveRevocation(Long userId, Revocation revocation) {
+        revocations.compute(userId, (id, list) -> {
+            List<Revocation> updated = list == null ? new CopyOnWriteArrayList<>() : list;
+            updated.add(revocation);
+            return updated;
+        });
+    }
+
+    @Override
+    public List<Revocation> findRevocations(Long userId, LocalDateTime now) {
+        List<Revocation> stored = revocations.get(userId);
+        if (stored == null) {
+            return List.of();
+        }
+        return stored.stream().filter(r -> r.getExpiresAt().isAfter(now)).toList();
+    }
+
+    @Override
+    public int deleteExpiredRevocations(LocalDateTime now) {
+        int[] removed = new int[1];
+        // Чистим под блокировкой ключа, чтобы не потерять отзыв, добавленный в опустевший список
+        for (Long userId : revocations.keySet()) {
+            revocations.computeIfPresent(userId, (id, list) -> {
+                int before = list.size();
+                list.removeIf(r -> !r.getExpiresAt().isAfter(now));
+                removed[0] += before - list.size();
+                return list.isEmpty() ? null : list;
+            });
+        }
+        return removed[0];
+    }
+}
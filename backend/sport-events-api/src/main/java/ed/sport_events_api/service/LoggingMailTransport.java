@@ -0,0 +1,18 @@
+package ed.sport_events_api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Без почтового сервера: письма только пишутся в лог
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "log", matchIfMissing = true)
+public class LoggingMailTransport implements MailTransport {
+    private static final Logger log = LoggerFactory.getLogger(LoggingMailTransport.class);
+
+    @Override
+    public void send(String to, String subject, String text) {
+        log.info("Mail to {}: {}\n{}", to, subject, text);
+    }
+}
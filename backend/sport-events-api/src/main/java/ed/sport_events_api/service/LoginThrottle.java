@@ -0,0 +1,73 @@
+package ed.sport_events_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ed.sport_events_api.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограничение неудачных попыток входа — отдельно по учётной записи и по
+ * IP-адресу, в фиксированном окне от первой неудачи. Проверка идёт до
+ * хэширования пароля, поэтому заблокированный перебор не тратит CPU.
+ * Успешный вход сбрасывает счётчик учётной записи, но не адреса.
+ */
+@Component
+public class LoginThrottle {
+    private final int maxAccountFailures;
+    private final int maxAddressFailures;
+    private final Duration window;
+    private final Cache<String, Attempts> accounts;
+    private final Cache<String, Attempts> addresses;
+
+    public LoginThrottle(@Value("${app.security.login.max-account-failures:5}") int maxAccountFailures,
+                         @Value("${app.security.login.max-address-failures:50}") int maxAddressFailures,
+                         @Value("${app.security.login.failure-window:PT15M}") Duration window,
+                         @Value("${app.security.login.max-tracked:100000}") long maxTracked) {
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxAddressFailures = maxAddressFailures;
+        this.window = window;
+        // Окно отсчитывается от создания записи: увеличение счётчика не продлевает его
+        this.accounts = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterWrite(window).build();
+        this.addresses = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterWrite(window).build();
+    }
+
+    public void check(String email, String address) {
+        check(accounts.getIfPresent(accountKey(email)), maxAccountFailures);
+        if (address != null) {
+            check(addresses.getIfPresent(address), maxAddressFailures);
+        }
+    }
+
+    public void recordFailure(String email, String address) {
+        accounts.get(accountKey(email), key -> new Attempts()).failures.incrementAndGet();
+        if (address != null) {
+            addresses.get(address, key -> new Attempts()).failures.incrementAndGet();
+        }
+    }
+
+    public void recordSuccess(String email) {
+        accounts.invalidate(accountKey(email));
+    }
+
+    private void check(Attempts attempts, int limit) {
+        if (attempts != null && attempts.failures.get() >= limit) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - attempts.startedAt);
+            throw new TooManyRequestsException("Too many failed login attempts, try again later",
+                    window.minus(elapsed));
+        }
+    }
+
+    private static String accountKey(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Attempts {
+        private final long startedAt = System.nanoTime();
+        private final AtomicInteger failures = new AtomicInteger();
+    }
+}
@@ -0,0 +1,13 @@
+package ed.sport_events_api.service;
+
+/**
+ * Отправка одного текстового письма. Реализация выбирается свойством
+ * app.mail.transport: smtp — через JavaMailSender (spring.mail.*),
+ * log — только запись в лог, для разработки без почтового сервера.
+ * Любое исключение считается временной ошибкой: EmailDigestService
+ * повторит отправку позже.
+ */
+public interface MailTransport {
+
+    void send(String to, String subject, String text);
+}
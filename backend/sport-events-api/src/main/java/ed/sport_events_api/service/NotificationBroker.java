@@ -0,0 +1,259 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.NotificationDTO;
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка новых оповещений по SSE-подпискам внутри процесса. У каждой
+ * подписки своя ограниченная очередь и свой виртуальный поток записи,
+ * который в простое шлёт heartbeat; HTTP-поток на время подписки не занят.
+ * Если очередь подписки переполнена, клиент не успевает читать — подписка
+ * закрывается, и EventSource переподключится с Last-Event-ID, а пропущенное —
+ * новые оповещения и слияния повторов — дочитается из БД. Метрики —
+ * notifications.stream.connections и notifications.stream.dropped.
+ */
+@Component
+public class NotificationBroker {
+    private static final Logger log = LoggerFactory.getLogger(NotificationBroker.class);
+    private static final long RECONNECT_MILLIS = 3000;
+    private static final String CREATED = "notification";
+    private static final String MERGED = "notification-merged";
+
+    private final NotificationRepository notificationRepository;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final int replayLimit;
+    private final int maxPerUser;
+    private final Map<Long, Deque<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter dropped;
+
+    public NotificationBroker(NotificationRepository notificationRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notifications.stream.buffer-size:256}") int bufferSize,
+                              @Value("${app.notifications.stream.heartbeat:PT20S}") Duration heartbeat,
+                              @Value("${app.notifications.stream.timeout:PT30M}") Duration timeout,
+                              @Value("${app.notifications.stream.replay-limit:100}") int replayLimit,
+                              @Value("${app.notifications.stream.max-per-user:5}") int maxPerUser) {
+        this.notificationRepository = notificationRepository;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.replayLimit = replayLimit;
+        this.maxPerUser = maxPerUser;
+        Gauge.builder("notifications.stream.connections", connections, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("notifications.stream.dropped")
+                .description("Notification streams closed because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток для пользователя. lastEventId — id последнего
+     * полученного оповещения; всё, что новее, отправляется первым.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        Subscription subscription = new Subscription(userId, createEmitter());
+        Deque<Subscription> subscriptions = byUser.compute(userId, (id, current) -> {
+            Deque<Subscription> deque = current == null ? new ConcurrentLinkedDeque<>() : current;
+            deque.addLast(subscription);
+            return deque;
+        });
+        connections.incrementAndGet();
+        // Самые старые подключения пользователя вытесняются новыми
+        Subscription oldest;
+        while (subscriptions.size() > maxPerUser && (oldest = subscriptions.peekFirst()) != subscription) {
+            oldest.close();
+        }
+
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        subscription.writer = Thread.ofVirtual().name("notification-stream-" + userId)
+                .start(() -> write(subscription, lastEventId));
+        return emitter;
+    }
+
+    // Точка подмены для тестов: там emitter записывает отправленные события
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Вызывается после коммита оповещения; не блокируется на медленных клиентах
+    public void publish(Notification notification) {
+        publish(notification, CREATED);
+    }
+
+    // Повтор слился с непрочитанным оповещением: клиент заменяет его, не меняя счётчик
+    public void publishMerged(Notification notification) {
+        publish(notification, MERGED);
+    }
+
+    private void publish(Notification notification, String name) {
+        Deque<Subscription> subscriptions = byUser.get(notification.getUserId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        Message message = new Message(name, new NotificationDTO(notification.getId(), notification.getTopic(),
+                notification.getMessage(), notification.getRead(), notification.getCreationDate(),
+                notification.getRepeatCount(), notification.getLastRepeatedAt()));
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.buffer.offer(message)) {
+                dropped.increment();
+                log.debug("Dropping slow notification stream of user {}", subscription.userId);
+                subscription.close();
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        byUser.values().forEach(subscriptions -> subscriptions.forEach(Subscription::close));
+    }
+
+    private void write(Subscription subscription, Long lastEventId) {
+        long lastSent = lastEventId == null ? 0 : lastEventId;
+        try {
+            // Первая запись отдаёт заголовки ответа сразу и задаёт клиенту паузу перед переподключением
+            subscription.emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+            if (lastEventId != null) {
+                List<NotificationDTO> missed = notificationRepository.findAfter(
+                        subscription.userId, lastEventId, Limit.of(replayLimit));
+                for (NotificationDTO notification : missed) {
+                    send(subscription, CREATED, notification);
+                    lastSent = notification.getId();
+                }
+                replayMerged(subscription, lastEventId);
+            }
+            while (!subscription.closed) {
+                Message message = subscription.buffer.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (message == null) {
+                    subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (message.merged()) {
+                    send(subscription, message.name, message.notification);
+                } else if (message.notification.getId() > lastSent) {
+                    // Уже отправленное при дочитывании из БД пропускаем
+                    send(subscription, message.name, message.notification);
+                    lastSent = message.notification.getId();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился или поток уже закрыт
+        } catch (RuntimeException e) {
+            log.warn("Notification stream of user {} failed", subscription.userId, e);
+        } finally {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Слияния не двигают Last-Event-ID, поэтому пропущенные за время отключения
+     * ищутся по времени: повторы после создания последнего полученного оповещения.
+     * Часть из них клиент мог уже видеть — повторное слияние он просто заменит.
+     */
+    private void replayMerged(Subscription subscription, Long lastEventId) throws IOException {
+        LocalDateTime since = notificationRepository.findCreationDate(lastEventId, subscription.userId).orElse(null);
+        if (since == null) {
+            return;
+        }
+        List<NotificationDTO> merged = notificationRepository.findMergedSince(
+                subscription.userId, lastEventId, since, Limit.of(replayLimit));
+        for (NotificationDTO notification : merged) {
+            send(subscription, MERGED, notification);
+        }
+    }
+
+    private static void send(Subscription subscription, String name, NotificationDTO notification)
+            throws IOException {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name);
+        // Id слитого оповещения старше уже полученных — Last-Event-ID им не сдвигаем
+        if (!MERGED.equals(name)) {
+            event.id(String.valueOf(notification.getId()));
+        }
+        subscription.emitter.send(event.data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        byUser.computeIfPresent(subscription.userId, (id, current) -> {
+            if (current.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return current.isEmpty() ? null : current;
+        });
+        subscription.closed = true;
+        Thread writer = subscription.writer;
+        if (writer != null && writer != Thread.currentThread()) {
+            writer.interrupt();
+        }
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private volatile Thread writer;
+        private volatile boolean closed;
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void close() {
+            unsubscribe(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Уже завершён
+            }
+        }
+    }
+
+    private static final class Message {
+        private final String name;
+        private final NotificationDTO notification;
+
+        private Message(String name, NotificationDTO notification) {
+            this.name = name;
+            this.notification = notification;
+        }
+
+        private boolean merged() {
+            return MERGED.equals(name);
+        }
+    }
+}
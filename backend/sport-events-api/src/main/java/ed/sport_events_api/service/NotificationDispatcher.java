@@ -0,0 +1,182 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import ed.sport_events_api.repository.NotificationOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронная доставка оповещений. Вне транзакции enqueue только кладёт
+ * оповещение в ограниченную очередь в памяти; внутри транзакции — пишет
+ * строку в notification_outbox той же транзакцией, чтобы оповещение
+ * появилось тогда и только тогда, когда изменение зафиксировано.
+ * Один поток пачками сбрасывает очередь в outbox и переносит записи
+ * outbox в ленты пользователей; той же транзакцией доставленное ставится
+ * в очередь почтовых дайджестов.
+ * Пачка, которую не удалось записать в outbox, не теряется: поток держит её
+ * и повторяет запись с паузой initialBackoff · 2^(n-1), не больше maxBackoff,
+ * и отбрасывает с ошибкой в логе только после maxAttempts попыток.
+ */
+@Service
+public class NotificationDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationBroker broker;
+    private final EmailDigestService emailDigests;
+    private final BlockingQueue<NotificationOutboxEntry> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  NotificationBroker broker,
+                                  EmailDigestService emailDigests,
+                                  @Value("${app.notifications.dispatcher.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.notifications.dispatcher.batch-size:500}") int batchSize,
+                                  @Value("${app.notifications.dispatcher.flush-interval:PT1S}") Duration flushInterval,
+                                  @Value("${app.notifications.dispatcher.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.notifications.dispatcher.initial-backoff:PT1S}") Duration initialBackoff,
+                                  @Value("${app.notifications.dispatcher.max-backoff:PT30S}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.broker = broker;
+        this.emailDigests = emailDigests;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (writer == null) {
+            running = true;
+            writer = Thread.ofPlatform().name("notification-dispatcher").daemon(true).start(this::drain);
+        }
+    }
+
+    // Перед остановкой поток успевает сбросить то, что осталось в очереди
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void enqueue(Long userId, String topic, String message) {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry();
+        entry.setUserId(userId);
+        entry.setTopic(topic);
+        entry.setMessage(message);
+        entry.setCreatedAt(LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            outboxRepository.insertBatch(List.of(entry));
+        } else if (!queue.offer(entry)) {
+            // Очередь переполнена: одна вставка в outbox всё равно дешевле прежней записи через User
+            outboxRepository.insertBatch(List.of(entry));
+        }
+    }
+
+    private void drain() {
+        List<NotificationOutboxEntry> batch = new ArrayList<>(batchSize);
+        int failures = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (failures > 0) {
+                    Thread.sleep(backoff(failures).toMillis());
+                } else {
+                    NotificationOutboxEntry first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    // Одной транзакцией: повтор после ошибки не задваивает уже вставленные строки
+                    transactionTemplate.execute(status -> {
+                        outboxRepository.insertBatch(batch);
+                        return null;
+                    });
+                    batch.clear();
+                    failures = 0;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failures++;
+                if (failures >= maxAttempts) {
+                    log.error("Dropping {} notifications after {} failed attempts to store them in outbox",
+                            batch.size(), failures, e);
+                    batch.clear();
+                    failures = 0;
+                } else {
+                    log.warn("Failed to store {} notifications in outbox, attempt {} of {}, retrying in {}",
+                            batch.size(), failures, maxAttempts, backoff(failures), e);
+                    continue;
+                }
+            }
+            try {
+                relay();
+            } catch (RuntimeException e) {
+                // Записи остаются в outbox и будут доставлены на следующем проходе
+                log.error("Failed to relay notification outbox", e);
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Переносит outbox в ленты пачками по batchSize, каждую — своей транзакцией;
+    // подписчики потока получают оповещения только после коммита пачки
+    private void relay() {
+        int delivered;
+        do {
+            List<NotificationOutboxRepository.Delivery> deliveries = new ArrayList<>(1);
+            delivered = transactionTemplate.execute(status -> {
+                List<NotificationOutboxEntry> entries = outboxRepository.findBatch(batchSize);
+                if (!entries.isEmpty()) {
+                    NotificationOutboxRepository.Delivery delivery = outboxRepository.deliver(entries);
+                    emailDigests.enqueue(delivery);
+                    deliveries.add(delivery);
+                    outboxRepository.deleteByIds(entries.stream().map(NotificationOutboxEntry::getId).toList());
+                }
+                return entries.size();
+            });
+            for (NotificationOutboxRepository.Delivery delivery : deliveries) {
+                delivery.getCreated().forEach(broker::publish);
+                delivery.getMerged().forEach(broker::publishMerged);
+            }
+        } while (delivered == batchSize);
+    }
+}
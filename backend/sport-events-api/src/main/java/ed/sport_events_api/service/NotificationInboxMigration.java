@@ -0,0 +1,124 @@
+package ed.sport_events_api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Однократный перенос старой связи users_notifications в notifications_t.user_id.
+ * Оповещение, связанное с несколькими пользователями, копируется каждому
+ * следующему; оповещения без владельца удаляются, счётчики непрочитанных
+ * пересчитываются. После переноса таблица связи удаляется, и при следующих
+ * запусках здесь ничего не происходит.
+ * <p>
+ * Узлы стартуют одновременно, поэтому перенос идёт под GET_LOCK: остальные
+ * ждут и, получив блокировку, видят, что таблицы уже нет. Каждый шаг можно
+ * повторить: перенесённые связи удаляются той же транзакцией, что их
+ * перенесла, так что после сбоя до DROP TABLE повтор ничего не скопирует дважды.
+ */
+@Component
+public class NotificationInboxMigration {
+    private static final Logger log = LoggerFactory.getLogger(NotificationInboxMigration.class);
+    private static final String LOCK_NAME = "notification_inbox_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public NotificationInboxMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        if (!hasLegacyTable()) {
+            return;
+        }
+        // Блокировка MySQL принадлежит соединению: держим его до конца переноса,
+        // сами запросы идут через пул
+        jdbcTemplate.execute((Connection connection) -> {
+            if (!acquireLock(connection)) {
+                log.warn("Notification inbox migration is still running on another node, skipping it here");
+                return null;
+            }
+            try {
+                if (hasLegacyTable()) {
+                    moveToInboxes();
+                }
+            } finally {
+                releaseLock(connection);
+            }
+            return null;
+        });
+    }
+
+    private void moveToInboxes() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int owned = jdbcTemplate.update(
+                    "UPDATE notifications_t n SET user_id = " +
+                            "(SELECT MIN(un.user_id) FROM users_notifications un WHERE un.notifications_id = n.id) " +
+                            "WHERE n.user_id IS NULL");
+            int copied = jdbcTemplate.update(
+                    "INSERT INTO notifications_t (user_id, topic, message, is_read, creation_date) " +
+                            "SELECT un.user_id, n.topic, n.message, n.is_read, n.creation_date " +
+                            "FROM users_notifications un JOIN notifications_t n ON n.id = un.notifications_id " +
+                            "WHERE un.user_id <> n.user_id");
+            jdbcTemplate.update("DELETE FROM users_notifications");
+            int orphans = jdbcTemplate.update("DELETE FROM notifications_t WHERE user_id IS NULL");
+            jdbcTemplate.update(
+                    "UPDATE users u SET unread_notifications = " +
+                            "(SELECT COUNT(*) FROM notifications_t n WHERE n.user_id = u.id AND n.is_read = false)");
+            log.info("Moved notifications to per-user inboxes: {} assigned, {} copied, {} orphans removed",
+                    owned, copied, orphans);
+        });
+        // DDL в MySQL фиксирует транзакцию неявно, поэтому выполняется после переноса
+        jdbcTemplate.execute("DROP TABLE IF EXISTS users_notifications");
+    }
+
+    private boolean hasLegacyTable() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute(NotificationInboxMigration::legacyTableExists));
+    }
+
+    private static boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.execute();
+        }
+    }
+
+    private static Boolean legacyTableExists(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        for (String name : new String[]{"users_notifications", "USERS_NOTIFICATIONS"}) {
+            try (ResultSet tables = meta.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,202 @@
+package ed.sport_events_api.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Фоновая очистка лент: прочитанные оповещения старше readTtl и любые
+ * старше ttl удаляются пачками по batchSize, каждая в своей короткой
+ * транзакции по id, так что блокировки держатся миллисекунды. Перед каждой
+ * пачкой проверяется пул соединений: если запросы ждут соединение или занята
+ * большая его часть, очистка отступает с растущей паузой и продолжает на
+ * следующем запуске, если нагрузка не спала за время запуска.
+ * Метрики — notifications.retention.deleted{reason} и .throttled.
+ */
+@Component
+public class NotificationRetentionJob {
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionJob.class);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final Duration readTtl;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+    private final double maxPoolUsage;
+    private final Counter deletedRead;
+    private final Counter deletedExpired;
+    private final Counter throttled;
+
+    public NotificationRetentionJob(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    DataSource dataSource,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.notifications.retention.read-ttl:P30D}") Duration readTtl,
+                                    @Value("${app.notifications.retention.ttl:P180D}") Duration ttl,
+                                    @Value("${app.notifications.retention.batch-size:1000}") int batchSize,
+                                    @Value("${app.notifications.retention.pause:PT0.2S}") Duration pause,
+                                    @Value("${app.notifications.retention.max-run-time:PT30S}") Duration maxRunTime,
+                                    @Value("${app.notifications.retention.max-pool-usage:0.5}") double maxPoolUsage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+        this.readTtl = readTtl;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxRunTime = maxRunTime;
+        this.maxPoolUsage = maxPoolUsage;
+        this.deletedRead = deleted(meterRegistry, "read");
+        this.deletedExpired = deleted(meterRegistry, "expired");
+        this.throttled = Counter.builder("notifications.retention.throttled")
+                .description("Retention batches postponed because of foreground load")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.notifications.retention.initial-delay:PT1M}",
+            fixedDelayString = "${app.notifications.retention.interval:PT10M}")
+    public void run() {
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        long removed = 0;
+        Duration backoff = pause;
+        try {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                if (poolBusy()) {
+                    throttled.increment();
+                    backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+                    Thread.sleep(Math.min(backoff.toMillis(), Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+                    continue;
+                }
+                backoff = pause;
+                int deleted = deleteBatch(LocalDateTime.now());
+                removed += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+                Thread.sleep(pause.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Notification retention failed after {} rows", removed, e);
+        }
+        if (removed > 0) {
+            log.info("Notification retention removed {} rows", removed);
+        }
+    }
+
+    /**
+     * Одна пачка: id выбираются без блокировок по индексу creation_date,
+     * удаление — по первичному ключу с повтором условия. Для удаляемых
+     * непрочитанных строки пользователей блокируются заранее по возрастанию id,
+     * как и у NotificationService, и их счётчики уменьшаются той же транзакцией.
+     */
+    int deleteBatch(LocalDateTime now) {
+        Timestamp readBefore = Timestamp.valueOf(now.minus(readTtl));
+        Timestamp expiredBefore = Timestamp.valueOf(now.minus(ttl));
+        Timestamp oldest = readBefore.before(expiredBefore) ? expiredBefore : readBefore;
+
+        List<Long> readIds = new ArrayList<>();
+        Map<Long, List<Long>> unreadByUser = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT id, user_id, is_read FROM notifications_t " +
+                        "WHERE creation_date < ? AND (is_read = true OR creation_date < ?) " +
+                        "ORDER BY creation_date LIMIT ?",
+                rs -> {
+                    if (rs.getBoolean("is_read")) {
+                        readIds.add(rs.getLong("id"));
+                    } else {
+                        unreadByUser.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>()).add(rs.getLong("id"));
+                    }
+                }, oldest, expiredBefore, batchSize);
+
+        int read = readIds.isEmpty() ? 0 : transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM notifications_t WHERE id IN (" + placeholders(readIds.size()) + ") AND is_read = true",
+                readIds.toArray()));
+        int expired = unreadByUser.isEmpty() ? 0 : transactionTemplate.execute(status -> deleteUnread(unreadByUser, expiredBefore));
+        deletedRead.increment(read);
+        deletedExpired.increment(expired);
+        return readIds.size() + unreadByUser.values().stream().mapToInt(List::size).sum();
+    }
+
+    private int deleteUnread(Map<Long, List<Long>> unreadByUser, Timestamp expiredBefore) {
+        List<Long> userIds = new ArrayList<>(unreadByUser.keySet());
+        jdbcTemplate.queryForList("SELECT id FROM users WHERE id IN (" + placeholders(userIds.size()) + ") ORDER BY id FOR UPDATE",
+                Long.class, userIds.toArray());
+
+        List<Object> args = new ArrayList<>();
+        unreadByUser.values().forEach(args::addAll);
+        String in = placeholders(args.size());
+        args.add(expiredBefore);
+        // Прочитанные за это время строки удаляются тоже, но счётчик уменьшают только непрочитанные
+        List<Object[]> counters = new ArrayList<>(userIds.size());
+        jdbcTemplate.query(
+                "SELECT user_id, COUNT(*) AS unread FROM notifications_t " +
+                        "WHERE id IN (" + in + ") AND creation_date < ? AND is_read = false GROUP BY user_id",
+                rs -> {
+                    counters.add(new Object[]{rs.getInt("unread"), rs.getLong("user_id")});
+                }, args.toArray());
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM notifications_t WHERE id IN (" + in + ") AND creation_date < ?", args.toArray());
+        if (!counters.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE users SET unread_notifications = GREATEST(unread_notifications - ?, 0) WHERE id = ?", counters);
+        }
+        return deleted;
+    }
+
+    // Запросы уже ждут соединения или занята заметная доля пула — уступаем
+    private boolean poolBusy() {
+        HikariPoolMXBean pool = hikariPool();
+        if (pool == null || pool.getTotalConnections() == 0) {
+            return false;
+        }
+        return pool.getThreadsAwaitingConnection() > 0
+                || pool.getActiveConnections() > pool.getTotalConnections() * maxPoolUsage;
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            log.debug("Cannot inspect connection pool", e);
+        }
+        return null;
+    }
+
+    private static Counter deleted(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("notifications.retention.deleted")
+                .description("Notifications removed by retention")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
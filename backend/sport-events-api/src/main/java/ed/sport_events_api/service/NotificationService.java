@@ -1,32 +1,101 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.CursorPage;
+import ed.sport_events_api.dto.NotificationDTO;
 import ed.sport_events_api.exception.ResourceNotFoundException;
-import ed.sport_events_api.model.Notification;
 import ed.sport_events_api.repository.NotificationRepository;
+import ed.sport_events_api.util.NotificationCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+/**
+ * Лента оповещений пользователя. Каждое изменение — одна-две
+ * множественные операции под блокировкой строки пользователя, вместе с
+ * поправкой счётчика непрочитанных в той же транзакции.
+ */
 @Service
 public class NotificationService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
 
     public NotificationService(NotificationRepository notificationRepository) {
         this.notificationRepository = notificationRepository;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getInbox(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        NotificationCursor before = cursor == null || cursor.isBlank() ? null : NotificationCursor.decode(cursor);
+
+        // Запрашиваем на одну строку больше, чтобы понять, есть ли следующая страница
+        List<NotificationDTO> rows = notificationRepository.findPage(
+                userId,
+                before == null ? null : before.getCreationDate(),
+                before == null ? null : before.getId(),
+                Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<NotificationDTO> items = rows.subList(0, pageSize);
+        NotificationDTO last = items.get(pageSize - 1);
+        return new CursorPage<>(items, new NotificationCursor(last.getCreationDate(), last.getId()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public int getUnreadCount(Long userId) {
+        Integer unread = notificationRepository.findUnreadCount(userId);
+        if (unread == null) {
+            throw new ResourceNotFoundException("Пользователь не найден");
+        }
+        return unread;
+    }
+
+    @Transactional
+    public void markAsRead(Long userId, Long id) {
+        lockInbox(userId);
+        if (notificationRepository.markRead(id, userId) == 1) {
+            notificationRepository.addUnread(userId, -1);
+        } else if (notificationRepository.findReadFlag(id, userId).isEmpty()) {
+            throw new ResourceNotFoundException("Оповещение не найдено");
+        }
+    }
+
     @Transactional
-    public void markAsRead(Long id) {
-        Notification notification = notificationRepository.findById(id)
+    public int markAllAsRead(Long userId) {
+        lockInbox(userId);
+        int updated = notificationRepository.markAllRead(userId);
+        notificationRepository.resetUnread(userId);
+        return updated;
+    }
+
+    @Transactional
+    public void deleteNotification(Long userId, Long id) {
+        lockInbox(userId);
+        Boolean read = notificationRepository.findReadFlag(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Оповещение не найдено"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        notificationRepository.deleteOwned(id, userId);
+        if (!read) {
+            notificationRepository.addUnread(userId, -1);
+        }
     }
 
     @Transactional
-    public void deleteNotification(Long id) {
-        if (!notificationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Оповещение не найдено");
+    public int deleteAll(Long userId) {
+        lockInbox(userId);
+        int deleted = notificationRepository.deleteAllByUserId(userId);
+        notificationRepository.resetUnread(userId);
+        return deleted;
+    }
+
+    private void lockInbox(Long userId) {
+        if (notificationRepository.lockUnreadCounter(userId) == null) {
+            throw new ResourceNotFoundException("Пользователь не найден");
         }
-        notificationRepository.deleteById(id);
     }
-}
\ No newline at end of file
+}
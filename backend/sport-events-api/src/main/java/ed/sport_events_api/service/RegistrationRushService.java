@@ -0,0 +1,354 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.RegistrationTicketDTO;
+import ed.sport_events_api.exception.CapacityExceededException;
+import ed.sport_events_api.exception.RegistrationQueueFullException;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.model.enums.TicketStatus;
+import ed.sport_events_api.repository.EventParticipantRepository;
+import ed.sport_events_api.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Регистрация на события в режиме ажиотажа. Запрос только резервирует место
+ * в SeatLedger и встаёт в ограниченную очередь, сразу получая билет с позицией.
+ * Один поток-писатель разбирает очередь и пишет строки связей и счётчики
+ * JDBC-батчами в одной транзакции на батч; лимиты мест при этом проверяет
+ * сама БД, ledger лишь отсекает лишние заявки. Итог клиент узнаёт по билету.
+ */
+@Service
+public class RegistrationRushService {
+    private static final Logger log = LoggerFactory.getLogger(RegistrationRushService.class);
+
+    private final EventRepository eventRepository;
+    private final UserCache userCache;
+    private final EventParticipantRepository participantRepository;
+    private final SeatLedger seatLedger;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration ticketTtl;
+
+    private final Set<Long> rushEvents = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Ticket> queue;
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // Заявки в очереди по ключу событие:пользователь:роль — повторный запрос получает тот же билет
+    private final Map<String, Ticket> pending = new ConcurrentHashMap<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public RegistrationRushService(EventRepository eventRepository,
+                                   UserCache userCache,
+                                   EventParticipantRepository participantRepository,
+                                   SeatLedger seatLedger,
+                                   UpcomingEventIndex upcomingEventIndex,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.events.rush.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.events.rush.batch-size:500}") int batchSize,
+                                   @Value("${app.events.rush.ticket-ttl:PT10M}") Duration ticketTtl) {
+        this.eventRepository = eventRepository;
+        this.userCache = userCache;
+        this.participantRepository = participantRepository;
+        this.seatLedger = seatLedger;
+        this.upcomingEventIndex = upcomingEventIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.ticketTtl = ticketTtl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        rushEvents.addAll(eventRepository.findRushModeEventIds());
+        if (writer == null) {
+            running = true;
+            writer = Thread.ofPlatform().name("registration-rush-writer").daemon(true).start(this::drain);
+        }
+        log.info("Registration rush mode enabled for {} events", rushEvents.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isRushMode(Long eventId) {
+        return rushEvents.contains(eventId);
+    }
+
+    @Transactional
+    public void setRushMode(Long eventId, boolean enabled) {
+        if (eventRepository.updateRushMode(eventId, enabled) == 0) {
+            throw new ResourceNotFoundException("Event not found with id: " + eventId);
+        }
+        Runnable apply = () -> {
+            if (enabled) {
+                rushEvents.add(eventId);
+            } else {
+                rushEvents.remove(eventId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Ставит заявку в очередь. Место резервируется сразу, поэтому переполненное
+     * событие отвечает 409 без ожидания, а переполненная очередь — 503.
+     */
+    public RegistrationTicketDTO enqueue(Long eventId, Long userId, ParticipantRole role) {
+        if (!userCache.exists(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        String key = eventId + ":" + userId + ":" + role;
+        Ticket existing = pending.get(key);
+        if (existing != null) {
+            return toDto(existing);
+        }
+
+        SeatLedger.Reservation reservation = seatLedger.tryReserve(eventId, role);
+        if (reservation == null) {
+            throw new CapacityExceededException("No free " + role.name().toLowerCase() + " seats for event " + eventId);
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), key, eventId, userId, role,
+                reservation, enqueued.incrementAndGet());
+        existing = pending.putIfAbsent(key, ticket);
+        if (existing != null) {
+            reservation.release();
+            return toDto(existing);
+        }
+        tickets.put(ticket.id, ticket);
+        if (!queue.offer(ticket)) {
+            reservation.release();
+            pending.remove(key, ticket);
+            tickets.remove(ticket.id);
+            throw new RegistrationQueueFullException("Registration queue is full, try again later");
+        }
+        return toDto(ticket);
+    }
+
+    public RegistrationTicketDTO getTicket(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Registration ticket not found: " + ticketId);
+        }
+        return toDto(ticket);
+    }
+
+    // Обработанные билеты храним ticketTtl, чтобы клиент успел узнать результат
+    @Scheduled(fixedDelayString = "${app.events.rush.ticket-cleanup-interval:PT1M}")
+    public void evictExpiredTickets() {
+        Instant threshold = Instant.now().minus(ticketTtl);
+        tickets.values().removeIf(t -> t.completedAt != null && t.completedAt.isBefore(threshold));
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                drainBatch(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Забирает из очереди один батч и записывает его. Если транзакция батча
+     * не прошла, билеты пишутся по одному, так что FAILED получают только
+     * те, чьи строки так и не закоммитились. Возвращает false, если за timeout
+     * в очереди ничего не появилось.
+     */
+    boolean drainBatch(long timeout, TimeUnit unit) throws InterruptedException {
+        Ticket first = queue.poll(timeout, unit);
+        if (first == null) {
+            return false;
+        }
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+
+        Map<Ticket, TicketStatus> outcomes;
+        try {
+            outcomes = persist(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Failed to persist registration ticket {}", first.id, e);
+                outcomes = Map.of(first, TicketStatus.FAILED);
+            } else {
+                log.warn("Failed to persist registration batch of {} tickets, retrying one by one", batch.size(), e);
+                outcomes = new LinkedHashMap<>();
+                for (Ticket ticket : batch) {
+                    try {
+                        outcomes.putAll(persist(List.of(ticket)));
+                    } catch (RuntimeException single) {
+                        log.error("Failed to persist registration ticket {}", ticket.id, single);
+                        outcomes.put(ticket, TicketStatus.FAILED);
+                    }
+                }
+            }
+        }
+        afterPersist(outcomes);
+        return true;
+    }
+
+    /**
+     * Одна транзакция на батч: вставка строк связей и занятие мест тем же
+     * условным UPDATE, что и при обычной регистрации. Если в БД мест уже нет
+     * (резерв на этом узле устарел), строка связи удаляется, билет — REJECTED.
+     */
+    private Map<Ticket, TicketStatus> persist(List<Ticket> batch) {
+        Map<ParticipantRole, List<Ticket>> byRole = new EnumMap<>(ParticipantRole.class);
+        for (Ticket ticket : batch) {
+            byRole.computeIfAbsent(ticket.role, r -> new ArrayList<>()).add(ticket);
+        }
+
+        Map<Ticket, TicketStatus> outcomes = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            outcomes.clear();
+            byRole.forEach((role, roleTickets) -> {
+                List<long[]> rows = new ArrayList<>(roleTickets.size());
+                roleTickets.forEach(t -> rows.add(new long[]{t.eventId, t.userId}));
+                boolean[] inserted = participantRepository.insertBatch(role, rows);
+
+                List<Ticket> added = new ArrayList<>(roleTickets.size());
+                for (int i = 0; i < roleTickets.size(); i++) {
+                    Ticket ticket = roleTickets.get(i);
+                    if (inserted[i]) {
+                        added.add(ticket);
+                    } else {
+                        outcomes.put(ticket, TicketStatus.DUPLICATE);
+                    }
+                }
+                if (added.isEmpty()) {
+                    return;
+                }
+                List<Object[]> seats = new ArrayList<>(added.size());
+                added.forEach(t -> seats.add(new Object[]{
+                        t.eventId, t.reservation.getMaxPlayers(), t.reservation.getCapacity()}));
+                boolean[] taken = participantRepository.takeSeats(role, seats);
+
+                List<long[]> refused = new ArrayList<>();
+                for (int i = 0; i < added.size(); i++) {
+                    Ticket ticket = added.get(i);
+                    if (taken[i]) {
+                        outcomes.put(ticket, TicketStatus.CONFIRMED);
+                    } else {
+                        outcomes.put(ticket, TicketStatus.REJECTED);
+                        refused.add(new long[]{ticket.eventId, ticket.userId});
+                    }
+                }
+                if (!refused.isEmpty()) {
+                    participantRepository.deleteBatch(role, refused);
+                }
+            });
+        });
+        return outcomes;
+    }
+
+    // После коммита исход билетов уже не меняется: сбой обновления индекса только логируется
+    private void afterPersist(Map<Ticket, TicketStatus> outcomes) {
+        Set<Long> changedEvents = new LinkedHashSet<>();
+        Set<Long> staleEvents = new LinkedHashSet<>();
+        outcomes.forEach((ticket, outcome) -> {
+            if (outcome == TicketStatus.CONFIRMED) {
+                changedEvents.add(ticket.eventId);
+            } else if (outcome == TicketStatus.REJECTED) {
+                staleEvents.add(ticket.eventId);
+            }
+            complete(ticket, outcome);
+        });
+        // Ledger разошёлся с БД — следующая заявка загрузит состояние заново
+        staleEvents.forEach(seatLedger::invalidate);
+        for (Long eventId : changedEvents) {
+            try {
+                upcomingEventIndex.refresh(eventId);
+            } catch (RuntimeException e) {
+                log.error("Failed to refresh upcoming index for event {}", eventId, e);
+            }
+        }
+    }
+
+    private void complete(Ticket ticket, TicketStatus outcome) {
+        if (outcome != TicketStatus.CONFIRMED) {
+            ticket.reservation.release();
+        }
+        ticket.completedAt = Instant.now();
+        ticket.status = outcome;
+        pending.remove(ticket.key, ticket);
+        processed.accumulateAndGet(ticket.sequence, Math::max);
+    }
+
+    private RegistrationTicketDTO toDto(Ticket ticket) {
+        TicketStatus status = ticket.status;
+        Long position = status == TicketStatus.QUEUED
+                ? Math.max(1, ticket.sequence - processed.get())
+                : null;
+        return new RegistrationTicketDTO(ticket.id, ticket.eventId, ticket.userId, ticket.role, status, position);
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final String key;
+        private final Long eventId;
+        private final Long userId;
+        private final ParticipantRole role;
+        private final SeatLedger.Reservation reservation;
+        private final long sequence;
+        private volatile TicketStatus status = TicketStatus.QUEUED;
+        private volatile Instant completedAt;
+
+        private Ticket(String id, String key, Long eventId, Long userId, ParticipantRole role,
+                       SeatLedger.Reservation reservation, long sequence) {
+            this.id = id;
+            this.key = key;
+            this.eventId = eventId;
+            this.userId = userId;
+            this.role = role;
+            this.reservation = reservation;
+            this.sequence = sequence;
+        }
+    }
+}
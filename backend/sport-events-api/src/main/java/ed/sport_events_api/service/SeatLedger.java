@@ -0,0 +1,216 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Учёт занятых мест на событиях в памяти. Число игроков, зрителей и судей
+ * упаковано в один long, поэтому резервирование с проверкой обоих лимитов
+ * (максимум игроков вида спорта и вместимость площадки) — это один CAS.
+ * Ledger лишь быстро отсекает лишние запросы: окончательное решение принимает
+ * условный UPDATE счётчиков в транзакции регистрации.
+ */
+@Component
+public class SeatLedger {
+    private static final int BITS = 21;
+    private static final long MASK = (1L << BITS) - 1;
+    private static final int MAX_COUNT = (int) MASK;
+
+    private final EventRepository eventRepository;
+    private final int maxTrackedEvents;
+    private final Map<Long, EventSeats> seats = new ConcurrentHashMap<>();
+
+    public SeatLedger(EventRepository eventRepository,
+                      @Value("${app.events.seats.max-tracked:10000}") int maxTrackedEvents) {
+        this.eventRepository = eventRepository;
+        this.maxTrackedEvents = maxTrackedEvents;
+    }
+
+    /**
+     * Резервирует место для роли. Возвращает null, если мест нет.
+     */
+    public Reservation tryReserve(Long eventId, ParticipantRole role) {
+        EventSeats eventSeats = seatsFor(eventId);
+        return eventSeats.tryReserve(role) ? new Reservation(eventSeats, role) : null;
+    }
+
+    // Участник ушёл — освобождаем место, если событие сейчас отслеживается
+    public void release(Long eventId, ParticipantRole role) {
+        EventSeats eventSeats = seats.get(eventId);
+        if (eventSeats != null) {
+            eventSeats.release(role);
+        }
+    }
+
+    public EventSeats seatsFor(Long eventId) {
+        EventSeats eventSeats = seats.get(eventId);
+        if (eventSeats != null) {
+            return eventSeats;
+        }
+        // Загружаем вне computeIfAbsent, чтобы не держать блокировку корзины на время запроса к БД
+        SeatStateDTO state = eventRepository.findSeatState(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + eventId));
+        evictIfFull();
+        EventSeats loaded = new EventSeats(state);
+        EventSeats existing = seats.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Лимиты или счётчики события изменились в обход ledger — перечитаем при следующем обращении
+    public void invalidate(Long eventId) {
+        seats.remove(eventId);
+    }
+
+    // Изменение в транзакции: раньше коммита параллельный запрос перечитал бы ещё старые лимиты
+    public void invalidateAfterCommit(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(eventId);
+                }
+            });
+        } else {
+            invalidate(eventId);
+        }
+    }
+
+    public void clear() {
+        seats.clear();
+    }
+
+    private void evictIfFull() {
+        if (seats.size() < maxTrackedEvents) {
+            return;
+        }
+        Iterator<Long> it = seats.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static int clamp(Number limit) {
+        if (limit == null || limit.longValue() < 0) {
+            return -1;
+        }
+        return (int) Math.min(limit.longValue(), MAX_COUNT);
+    }
+
+    private static int count(long state, ParticipantRole role) {
+        return (int) ((state >>> (role.ordinal() * BITS)) & MASK);
+    }
+
+    public static final class EventSeats {
+        private final Long eventId;
+        private final int maxPlayers;   // -1 — без ограничения
+        private final int capacity;     // -1 — без ограничения
+        private final Integer rawMaxPlayers;
+        private final Long rawCapacity;
+        private final AtomicLong state;
+
+        private EventSeats(SeatStateDTO dto) {
+            this.eventId = dto.getEventId();
+            this.rawMaxPlayers = dto.getMaxPlayers();
+            this.rawCapacity = dto.getVenueCapacity();
+            this.maxPlayers = clamp(rawMaxPlayers);
+            this.capacity = clamp(rawCapacity);
+            this.state = new AtomicLong(
+                    pack(dto.getPlayers(), ParticipantRole.PLAYER)
+                            | pack(dto.getSpectators(), ParticipantRole.SPECTATOR)
+                            | pack(dto.getReferees(), ParticipantRole.REFEREE));
+        }
+
+        private static long pack(int count, ParticipantRole role) {
+            return ((long) Math.min(Math.max(count, 0), MAX_COUNT)) << (role.ordinal() * BITS);
+        }
+
+        boolean tryReserve(ParticipantRole role) {
+            long unit = 1L << (role.ordinal() * BITS);
+            while (true) {
+                long current = state.get();
+                int players = count(current, ParticipantRole.PLAYER);
+                int total = players
+                        + count(current, ParticipantRole.SPECTATOR)
+                        + count(current, ParticipantRole.REFEREE);
+                if (count(current, role) >= MAX_COUNT
+                        || (capacity >= 0 && total >= capacity)
+                        || (role == ParticipantRole.PLAYER && maxPlayers >= 0 && players >= maxPlayers)) {
+                    return false;
+                }
+                if (state.compareAndSet(current, current + unit)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(ParticipantRole role) {
+            long unit = 1L << (role.ordinal() * BITS);
+            while (true) {
+                long current = state.get();
+                if (count(current, role) == 0) {
+                    return;
+                }
+                if (state.compareAndSet(current, current - unit)) {
+                    return;
+                }
+            }
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public Integer getMaxPlayers() {
+            return rawMaxPlayers;
+        }
+
+        public Long getCapacity() {
+            return rawCapacity;
+        }
+
+        public int taken(ParticipantRole role) {
+            return count(state.get(), role);
+        }
+    }
+
+    /**
+     * Зарезервированное место; release() можно вызывать повторно — освобождение произойдёт один раз.
+     */
+    public static final class Reservation {
+        private final EventSeats seats;
+        private final ParticipantRole role;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(EventSeats seats, ParticipantRole role) {
+            this.seats = seats;
+            this.role = role;
+        }
+
+        public Integer getMaxPlayers() {
+            return seats.getMaxPlayers();
+        }
+
+        public Long getCapacity() {
+            return seats.getCapacity();
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                seats.release(role);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SessionRecord;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Долговременное хранилище сессий за кэшем SessionStore. Реализация
+ * выбирается свойством app.sessions.backend. Ключ — хэш токена.
+ */
+public interface SessionBackend {
+
+    void save(String tokenHash, SessionRecord record, LocalDateTime lastSeenAt);
+
+    // Запись и время последнего обращения к ней
+    Optional<StoredSession> find(String tokenHash);
+
+    // false — записи уже нет: сессию завершили, возможно на другом узле
+    boolean touch(String tokenHash, LocalDateTime lastSeenAt);
+
+    void delete(String tokenHash);
+
+    void deleteByUser(Long userId);
+
+    int deleteExpired(LocalDateTime issuedBefore, LocalDateTime idleBefore);
+
+    // Отзывы подписанных токенов — см. TokenDenylist
+    void saveRevocation(Long userId, Revocation revocation);
+
+    // Действующие на момент now отзывы токенов пользователя
+    List<Revocation> findRevocations(Long userId, LocalDateTime now);
+
+    int deleteExpiredRevocations(LocalDateTime now);
+
+    final class StoredSession {
+        private final SessionRecord record;
+        private final LocalDateTime lastSeenAt;
+
+        public StoredSession(SessionRecord record, LocalDateTime lastSeenAt) {
+            this.record = record;
+            this.lastSeenAt = lastSeenAt;
+        }
+
+        public SessionRecord getRecord() {
+            return record;
+        }
+
+        public LocalDateTime getLastSeenAt() {
+            return lastSeenAt;
+        }
+    }
+
+    /**
+     * Отзыв: tokenHash задан — один токен, null — все токены, выданные
+     * не позже revokedBefore (секунды UTC). Хранится до expiresAt.
+     */
+    final class Revocation {
+        private final String tokenHash;
+        private final long revokedBefore;
+        private final LocalDateTime expiresAt;
+
+        public Revocation(String tokenHash, long revokedBefore, LocalDateTime expiresAt) {
+            this.tokenHash = tokenHash;
+            this.revokedBefore = revokedBefore;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getTokenHash() {
+            return tokenHash;
+        }
+
+        public long getRevokedBefore() {
+            return revokedBefore;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ed.sport_events_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import ed.sport_events_api.dto.SessionRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Хранилище сессий: ограниченный по размеру кэш в памяти перед SessionBackend.
+ * Сессия истекает после idle-ttl без обращений или через absolute-ttl после
+ * входа, смотря что наступит раньше. При переполнении кэш вытесняет редко
+ * используемые записи; вытесненная сессия при следующем обращении
+ * подгружается из backend. Запись в кэше сверяется с backend не реже раза
+ * в touch-interval, поэтому выход или invalidateUser на другом узле доходит
+ * до этого узла не позже чем через touch-interval.
+ */
+@Component
+public class SessionStore {
+    private static final Logger log = LoggerFactory.getLogger(SessionStore.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final SessionBackend backend;
+    private final Duration idleTtl;
+    private final Duration absoluteTtl;
+    private final Duration touchInterval;
+    private final Cache<String, Entry> cache;
+    private final SecureRandom random = new SecureRandom();
+
+    public SessionStore(SessionBackend backend,
+                        @Value("${app.sessions.max-size:100000}") long maxSize,
+                        @Value("${app.sessions.idle-ttl:PT30M}") Duration idleTtl,
+                        @Value("${app.sessions.absolute-ttl:PT12H}") Duration absoluteTtl,
+                        @Value("${app.sessions.touch-interval:PT1M}") Duration touchInterval) {
+        this.backend = backend;
+        this.idleTtl = idleTtl;
+        this.absoluteTtl = absoluteTtl;
+        this.touchInterval = touchInterval;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return remainingNanos(entry);
+                    }
+                })
+                .build();
+    }
+
+    public String create(Long userId, int rolesMask) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        SessionRecord record = new SessionRecord(userId, rolesMask, now);
+        String hash = hash(token);
+        backend.save(hash, record, now);
+        cache.put(hash, new Entry(record, now));
+        return token;
+    }
+
+    /**
+     * Действующая сессия по токену; пустой результат — токен неизвестен или истёк.
+     */
+    public Optional<SessionRecord> find(String token) {
+        String hash = hash(token);
+        Entry entry = cache.get(hash, this::load);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Время последнего обращения пишем в backend не чаще touch-interval;
+        // заодно узнаём, не завершили ли сессию на другом узле
+        if (Duration.between(entry.lastTouched, now).compareTo(touchInterval) >= 0) {
+            entry.lastTouched = now;
+            if (!backend.touch(hash, now)) {
+                cache.invalidate(hash);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(entry.record);
+    }
+
+    public void invalidate(String token) {
+        String hash = hash(token);
+        cache.invalidate(hash);
+        backend.delete(hash);
+    }
+
+    // Завершает все сессии пользователя, например после смены ролей или удаления
+    public void invalidateUser(Long userId) {
+        cache.asMap().values().removeIf(entry -> entry.record.getUserId().equals(userId));
+        backend.deleteByUser(userId);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.cleanup-interval:PT10M}")
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = backend.deleteExpired(now.minus(absoluteTtl), now.minus(idleTtl));
+        cache.cleanUp();
+        if (removed > 0) {
+            log.debug("Removed {} expired sessions", removed);
+        }
+    }
+
+    private Entry load(String hash) {
+        return backend.find(hash)
+                .filter(stored -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    return stored.getRecord().getIssuedAt().plus(absoluteTtl).isAfter(now)
+                            && stored.getLastSeenAt().plus(idleTtl).isAfter(now);
+                })
+                .map(stored -> new Entry(stored.getRecord(), stored.getLastSeenAt()))
+                .orElse(null);
+    }
+
+    private long remainingNanos(Entry entry) {
+        Duration untilAbsolute = Duration.between(LocalDateTime.now(), entry.record.getIssuedAt().plus(absoluteTtl));
+        Duration remaining = untilAbsolute.compareTo(idleTtl) < 0 ? untilAbsolute : idleTtl;
+        return Math.max(0, remaining.toNanos());
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final SessionRecord record;
+        private volatile LocalDateTime lastTouched;
+
+        private Entry(SessionRecord record, LocalDateTime lastTouched) {
+            this.record = record;
+            this.lastTouched = lastTouched;
+        }
+    }
+}
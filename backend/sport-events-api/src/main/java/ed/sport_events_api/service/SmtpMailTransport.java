@@ -0,0 +1,30 @@
+package ed.sport_events_api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "smtp")
+public class SmtpMailTransport implements MailTransport {
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public SmtpMailTransport(JavaMailSender mailSender,
+                             @Value("${app.mail.from:no-reply@sport-events.local}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public void send(String to, String subject, String text) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(text);
+        mailSender.send(message);
+    }
+}
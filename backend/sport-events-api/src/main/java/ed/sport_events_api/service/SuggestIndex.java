@@ -0,0 +1,178 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.model.enums.SuggestionType;
+import ed.sport_events_api.repository.TeamRepository;
+import ed.sport_events_api.repository.UserRepository;
+import ed.sport_events_api.repository.VenueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Префиксный индекс имён пользователей, площадок и команд для
+ * автодополнения. Для каждого типа — отсортированная ConcurrentSkipListMap
+ * по ключу "термин\0id": поиск по префиксу — это subMap, читатели не
+ * блокируются. Термины — имя целиком, каждое следующее слово имени и
+ * email пользователя, в нижнем регистре. Сервисы обновляют индекс после
+ * коммита своих изменений.
+ */
+@Component
+public class SuggestIndex {
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+    private static final char SEPARATOR = '\0';
+
+    private final UserRepository userRepository;
+    private final VenueRepository venueRepository;
+    private final TeamRepository teamRepository;
+    private final Map<SuggestionType, ConcurrentSkipListMap<String, SuggestionDTO>> byTerm =
+            new EnumMap<>(SuggestionType.class);
+    private final Map<SuggestionType, Map<Long, List<String>>> keysById = new EnumMap<>(SuggestionType.class);
+
+    public SuggestIndex(UserRepository userRepository,
+                        VenueRepository venueRepository,
+                        TeamRepository teamRepository) {
+        this.userRepository = userRepository;
+        this.venueRepository = venueRepository;
+        this.teamRepository = teamRepository;
+        for (SuggestionType type : SuggestionType.values()) {
+            byTerm.put(type, new ConcurrentSkipListMap<>());
+            keysById.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        for (SuggestionType type : SuggestionType.values()) {
+            byTerm.get(type).clear();
+            keysById.get(type).clear();
+        }
+        userRepository.findSuggestions().forEach(this::put);
+        venueRepository.findSuggestions().forEach(this::put);
+        teamRepository.findSuggestions().forEach(this::put);
+        log.info("Suggest index loaded with {} entries", size());
+    }
+
+    /**
+     * До limit подсказок, у которых какой-либо термин начинается с query;
+     * type == null — по всем типам. Внутри типа порядок по совпавшему термину.
+     */
+    public List<SuggestionDTO> suggest(String query, SuggestionType type, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (type != null) {
+            return search(type, prefix, limit);
+        }
+        List<SuggestionDTO> result = new ArrayList<>(limit);
+        for (SuggestionType each : SuggestionType.values()) {
+            result.addAll(search(each, prefix, limit - result.size()));
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public synchronized void put(SuggestionDTO suggestion) {
+        remove(suggestion.getType(), suggestion.getId());
+        List<String> keys = new ArrayList<>(3);
+        for (String term : termsOf(suggestion)) {
+            String key = term + SEPARATOR + suggestion.getId();
+            byTerm.get(suggestion.getType()).put(key, suggestion);
+            keys.add(key);
+        }
+        keysById.get(suggestion.getType()).put(suggestion.getId(), keys);
+    }
+
+    public synchronized void remove(SuggestionType type, Long id) {
+        List<String> keys = keysById.get(type).remove(id);
+        if (keys != null) {
+            keys.forEach(byTerm.get(type)::remove);
+        }
+    }
+
+    // Внутри транзакции изменения попадают в индекс только после успешного коммита
+    public void putAfterCommit(SuggestionDTO suggestion) {
+        afterCommit(() -> put(suggestion));
+    }
+
+    public void removeAfterCommit(SuggestionType type, Long id) {
+        afterCommit(() -> remove(type, id));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Long, List<String>> ids : keysById.values()) {
+            size += ids.size();
+        }
+        return size;
+    }
+
+    private List<SuggestionDTO> search(SuggestionType type, String prefix, int limit) {
+        // Одна сущность может совпасть несколькими терминами — оставляем первое совпадение
+        Set<Long> seen = new HashSet<>();
+        List<SuggestionDTO> result = new ArrayList<>(Math.min(limit, 16));
+        for (SuggestionDTO suggestion : byTerm.get(type).subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (seen.add(suggestion.getId())) {
+                result.add(suggestion);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> termsOf(SuggestionDTO suggestion) {
+        Set<String> terms = new LinkedHashSet<>();
+        String name = normalize(suggestion.getName());
+        if (!name.isEmpty()) {
+            terms.add(name);
+            String[] words = name.split("\\s+");
+            for (int i = 1; i < words.length; i++) {
+                terms.add(words[i]);
+            }
+        }
+        if (suggestion.getType() == SuggestionType.USER) {
+            String email = normalize(suggestion.getDetail());
+            if (!email.isEmpty()) {
+                terms.add(email);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT).replace(SEPARATOR, ' ');
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.PageResponse;
 import ed.sport_events_api.dto.TeamCreateRequest;
+import ed.sport_events_api.dto.TeamMemberDTO;
+import ed.sport_events_api.dto.TeamSummaryDTO;
 import ed.sport_events_api.model.Team;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import java.util.List;
-
 public interface TeamService {
     Team getTeamById(Long id);
-    List<Team> getAllTeams();
+    TeamSummaryDTO getTeamSummary(Long id);
+    PageResponse<TeamSummaryDTO> getTeams(Integer page, Integer size);
     Page<Team> getAllTeams(Pageable pageable);
+    PageResponse<TeamMemberDTO> getMembers(Long teamId, Integer page, Integer size);
+    boolean isMember(Long teamId, Long userId);
     Team updateTeam(Long id, Team teamDetails);
     void deleteTeam(Long id);
     boolean existsById(Long id);
@@ -1,37 +1,47 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.SuggestionDTO;
 import ed.sport_events_api.dto.TeamCreateRequest;
+import ed.sport_events_api.dto.TeamMemberDTO;
+import ed.sport_events_api.dto.TeamSummaryDTO;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.exception.UnauthorizedException;
 import ed.sport_events_api.model.Team;
 import ed.sport_events_api.model.TeamMember;
 import ed.sport_events_api.model.User;
+import ed.sport_events_api.model.enums.SuggestionType;
 import ed.sport_events_api.repository.TeamMemberRepository;
 import ed.sport_events_api.repository.TeamRepository;
 import ed.sport_events_api.repository.UserRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @Transactional
 public class TeamServiceImpl implements TeamService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final TeamMemberRepository teamMemberRepository;
     private final AuthServiceImpl authService;
+    private final SuggestIndex suggestIndex;
 
 
-    public TeamServiceImpl(TeamRepository teamRepository, UserRepository userRepository, TeamMemberRepository teamMemberRepository, AuthServiceImpl authService) {
+    public TeamServiceImpl(TeamRepository teamRepository, UserRepository userRepository, TeamMemberRepository teamMemberRepository, AuthServiceImpl authService, SuggestIndex suggestIndex) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.teamMemberRepository = teamMemberRepository;
         this.authService = authService;
+        this.suggestIndex = suggestIndex;
     }
 
     @Override
@@ -43,8 +53,20 @@ public class TeamServiceImpl implements TeamService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Team> getAllTeams() {
-        return teamRepository.findAll();
+    public TeamSummaryDTO getTeamSummary(Long id) {
+        return teamRepository.findSummary(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + id));
+    }
+
+    /**
+     * Страница каталога одним запросом с числом участников; порядок — по
+     * названию, id добавлен последним ключом для стабильных страниц.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<TeamSummaryDTO> getTeams(Integer page, Integer size) {
+        return PageResponse.of(teamRepository.findSummaries(
+                pageRequest(page, size, Sort.by("name").and(Sort.by("id")))));
     }
 
     @Override
@@ -53,6 +75,27 @@ public class TeamServiceImpl implements TeamService {
         return teamRepository.findAll(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<TeamMemberDTO> getMembers(Long teamId, Integer page, Integer size) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Team not found with id: " + teamId);
+        }
+        return PageResponse.of(teamMemberRepository.findRoster(teamId, pageRequest(page, size, Sort.unsorted())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isMember(Long teamId, Long userId) {
+        return teamMemberRepository.existsByTeamIdAndUserId(teamId, userId);
+    }
+
+    private static Pageable pageRequest(Integer page, Integer size, Sort sort) {
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+
     @Override
     public Team updateTeam(Long id, Team teamDetails) {
         Team team = getTeamById(id);
@@ -67,13 +110,16 @@ public class TeamServiceImpl implements TeamService {
             team.setCaptain(captain);
         }
 
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.TEAM, saved.getId(), saved.getName(), null));
+        return saved;
     }
 
     @Override
     public void deleteTeam(Long id) {
         Team team = getTeamById(id);
         teamRepository.delete(team);
+        suggestIndex.removeAfterCommit(SuggestionType.TEAM, id);
     }
 
     @Override
@@ -164,6 +210,7 @@ public class TeamServiceImpl implements TeamService {
         teamMember.setJoinDate(LocalDateTime.now());
         teamMemberRepository.save(teamMember);
 
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.TEAM, savedTeam.getId(), savedTeam.getName(), null));
         return savedTeam;
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package ed.sport_events_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ed.sport_events_api.dto.SessionRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Отозванные подписанные токены. Отзыв хранится в SessionBackend, пока не
+ * истекут токены, которые он касается. Проверка идёт по пользователю: его
+ * отзывы читаются из backend одним запросом и кэшируются на check-interval,
+ * поэтому другой узел узнаёт об отзыве не позже чем через check-interval,
+ * а узел, где токен отозван, — сразу.
+ */
+@Component
+public class TokenDenylist {
+    private static final Logger log = LoggerFactory.getLogger(TokenDenylist.class);
+    private static final Revoked NONE = new Revoked(Long.MIN_VALUE, Set.of());
+
+    private final SessionBackend backend;
+    private final Cache<Long, Revoked> byUser;
+
+    public TokenDenylist(SessionBackend backend,
+                         @Value("${app.tokens.revocation-check-interval:PT30S}") Duration checkInterval,
+                         @Value("${app.tokens.revocation-cache-size:100000}") long maxSize) {
+        this.backend = backend;
+        this.byUser = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(checkInterval).build();
+    }
+
+    public boolean isRevoked(String token, SessionRecord record) {
+        Revoked revoked = byUser.get(record.getUserId(), this::load);
+        if (epochSecond(record.getIssuedAt()) <= revoked.revokedBefore) {
+            return true;
+        }
+        return !revoked.tokenHashes.isEmpty() && revoked.tokenHashes.contains(SessionStore.hash(token));
+    }
+
+    // Выход: отзывает один токен до его истечения
+    public void revokeToken(String token, SessionRecord record, LocalDateTime expiresAt) {
+        save(record.getUserId(), new SessionBackend.Revocation(SessionStore.hash(token),
+                epochSecond(record.getIssuedAt()), expiresAt));
+    }
+
+    // Отзывает все токены пользователя, выданные до этого момента; tokenTtl — сколько они ещё могут жить
+    public void revokeUser(Long userId, Duration tokenTtl) {
+        save(userId, new SessionBackend.Revocation(null,
+                Instant.now().getEpochSecond(), LocalDateTime.now().plus(tokenTtl)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.cleanup-interval:PT10M}")
+    public void cleanup() {
+        int removed = backend.deleteExpiredRevocations(LocalDateTime.now());
+        if (removed > 0) {
+            log.debug("Removed {} expired token revocations", removed);
+        }
+    }
+
+    private void save(Long userId, SessionBackend.Revocation revocation) {
+        backend.saveRevocation(userId, revocation);
+        byUser.invalidate(userId);
+    }
+
+    private Revoked load(Long userId) {
+        List<SessionBackend.Revocation> revocations = backend.findRevocations(userId, LocalDateTime.now());
+        if (revocations.isEmpty()) {
+            return NONE;
+        }
+        long revokedBefore = Long.MIN_VALUE;
+        Set<String> tokenHashes = new HashSet<>();
+        for (SessionBackend.Revocation revocation : revocations) {
+            if (revocation.getTokenHash() == null) {
+                revokedBefore = Math.max(revokedBefore, revocation.getRevokedBefore());
+            } else {
+                tokenHashes.add(revocation.getTokenHash());
+            }
+        }
+        return new Revoked(revokedBefore, tokenHashes);
+    }
+
+    // Время выдачи в SessionRecord подписанного токена — UTC
+    private static long epochSecond(LocalDateTime utc) {
+        return utc.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Revoked {
+        private final long revokedBefore;
+        private final Set<String> tokenHashes;
+
+        private Revoked(long revokedBefore, Set<String> tokenHashes) {
+            this.revokedBefore = revokedBefore;
+            this.tokenHashes = tokenHashes;
+        }
+    }
+}
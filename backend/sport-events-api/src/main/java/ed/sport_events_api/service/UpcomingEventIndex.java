@@ -0,0 +1,169 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Упорядоченный по дате начала индекс незавершённых событий в памяти.
+ * Чтение идёт без блокировок и без обращения к БД; запись (создание,
+ * изменение, удаление события) сериализуется и применяется после коммита.
+ */
+@Component
+public class UpcomingEventIndex {
+    private static final Logger log = LoggerFactory.getLogger(UpcomingEventIndex.class);
+
+    private final EventRepository eventRepository;
+    private final ConcurrentSkipListMap<Key, EventDTO> byStartDate = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keysById = new ConcurrentHashMap<>();
+
+    public UpcomingEventIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        byStartDate.clear();
+        keysById.clear();
+        List<EventDTO> events = eventRepository.findActiveSummaries(LocalDateTime.now());
+        events.forEach(this::put);
+        log.info("Upcoming event index loaded with {} events", events.size());
+    }
+
+    /**
+     * События, начинающиеся в полуинтервале [from, to), не более limit штук.
+     */
+    public List<EventDTO> upcoming(LocalDateTime from, LocalDateTime to, int limit) {
+        List<EventDTO> result = new ArrayList<>(Math.min(limit, 64));
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        for (EventDTO event : byStartDate.subMap(Key.lowest(from), true, Key.lowest(to), false).values()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(event);
+        }
+        return result;
+    }
+
+    public synchronized void put(EventDTO event) {
+        if (event.getStartDate() == null
+                || event.getStatus() == EventStatus.FINISHED
+                || event.getStatus() == EventStatus.CANCELED) {
+            remove(event.getId());
+            return;
+        }
+        Key key = new Key(event.getStartDate(), event.getId());
+        byStartDate.put(key, event);
+        Key previous = keysById.put(event.getId(), key);
+        if (previous != null && !previous.equals(key)) {
+            byStartDate.remove(previous);
+        }
+    }
+
+    public synchronized void remove(Long eventId) {
+        Key key = keysById.remove(eventId);
+        if (key != null) {
+            byStartDate.remove(key);
+        }
+    }
+
+    public void refresh(Long eventId) {
+        eventRepository.findSummaryById(eventId)
+                .ifPresentOrElse(this::put, () -> remove(eventId));
+    }
+
+    // Внутри транзакции изменения попадают в индекс только после успешного коммита
+    public void refreshAfterCommit(Long eventId) {
+        afterCommit(() -> refresh(eventId));
+    }
+
+    public void removeAfterCommit(Long eventId) {
+        afterCommit(() -> remove(eventId));
+    }
+
+    public boolean contains(Long eventId) {
+        return keysById.containsKey(eventId);
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    // Убираем события, которые уже закончились, но так и не были переведены в FINISHED
+    @Scheduled(fixedDelayString = "${app.events.upcoming-index.prune-interval:PT1M}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        Iterator<EventDTO> started = byStartDate.headMap(Key.lowest(now)).values().iterator();
+        while (started.hasNext()) {
+            EventDTO event = started.next();
+            LocalDateTime end = event.getEndDate() != null ? event.getEndDate() : event.getStartDate();
+            if (end.isBefore(now)) {
+                remove(event.getId());
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final LocalDateTime startDate;
+        private final long id;
+
+        private Key(LocalDateTime startDate, long id) {
+            this.startDate = startDate;
+            this.id = id;
+        }
+
+        static Key lowest(LocalDateTime startDate) {
+            return new Key(startDate, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byDate = startDate.compareTo(other.startDate);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return id == key.id && startDate.equals(key.startDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * startDate.hashCode() + Long.hashCode(id);
+        }
+    }
+}
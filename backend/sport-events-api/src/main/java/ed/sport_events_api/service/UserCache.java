@@ -0,0 +1,97 @@
+package ed.sport_events_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ed.sport_events_api.dto.UserSnapshot;
+import ed.sport_events_api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Кэш снимков пользователей с чтением через БД по id и по email.
+ * Снимки хранятся по id; индекс email → id только указывает на них, и
+ * найденный по нему снимок сверяется с email, так что смена почты не
+ * отдаст чужого пользователя. Отсутствующие пользователи не кэшируются.
+ * Снимок загружается только внутри byId.get: сброс того же id ждёт
+ * окончания загрузки, так что устаревший снимок не переживёт invalidate.
+ * Другие узлы об изменениях не узнают — их копии живут не дольше ttl,
+ * а хэша пароля в снимке нет.
+ * Метрики попаданий — cache.gets{cache=users.by-id|users.by-email}.
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSnapshot> byId;
+    private final Cache<String, Long> idsByEmail;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.users.cache.max-size:10000}") long maxSize,
+                     @Value("${app.users.cache.ttl:PT1M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.idsByEmail = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.by-email");
+    }
+
+    public Optional<UserSnapshot> findById(Long id) {
+        return Optional.ofNullable(byId.get(id, key -> UserSnapshot.merge(userRepository.findSnapshotRows(key))));
+    }
+
+    public Optional<UserSnapshot> findByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            UserSnapshot cached = findById(id).orElse(null);
+            if (cached != null && cached.getEmail().equals(email)) {
+                return Optional.of(cached);
+            }
+            idsByEmail.invalidate(email);
+        }
+        id = userRepository.findIdByEmail(email).orElse(null);
+        if (id == null) {
+            return Optional.empty();
+        }
+        UserSnapshot loaded = findById(id).orElse(null);
+        // Почту могли сменить между двумя запросами
+        if (loaded == null || !loaded.getEmail().equals(email)) {
+            return Optional.empty();
+        }
+        idsByEmail.put(email, id);
+        return Optional.of(loaded);
+    }
+
+    public boolean exists(Long id) {
+        return findById(id).isPresent();
+    }
+
+    /**
+     * Сбрасывает снимок пользователя сразу и ещё раз после коммита: иначе
+     * параллельное чтение до коммита вернуло бы в кэш старое состояние.
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id) {
+        UserSnapshot removed = byId.asMap().remove(id);
+        if (removed != null) {
+            idsByEmail.invalidate(removed.getEmail());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.repository.UserCleanupRepository;
+import ed.sport_events_api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Фоновое удаление пользователей с большой историей. Участия и оповещения
+ * снимаются порциями, каждая в своей короткой транзакции, чтобы не держать
+ * блокировки на тысячах строк; остаток и сам пользователь удаляются
+ * обычным UserService.deleteUser. Сессии завершаются сразу при постановке.
+ */
+@Service
+public class UserPurgeService {
+    private static final Logger log = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+    private final UserCleanupRepository cleanupRepository;
+    private final UserService userService;
+    private final AccessTokenService accessTokenService;
+    private final SeatLedger seatLedger;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("user-purge").daemon(true).factory());
+
+    public UserPurgeService(UserRepository userRepository,
+                            UserCleanupRepository cleanupRepository,
+                            UserService userService,
+                            AccessTokenService accessTokenService,
+                            SeatLedger seatLedger,
+                            UpcomingEventIndex upcomingEventIndex,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.users.purge.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.cleanupRepository = cleanupRepository;
+        this.userService = userService;
+        this.accessTokenService = accessTokenService;
+        this.seatLedger = seatLedger;
+        this.upcomingEventIndex = upcomingEventIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ставит удаление в очередь. Повторный вызов, пока удаление идёт,
+     * ничего не делает и возвращает false.
+     */
+    public boolean submit(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Пользователь не найден с id: " + userId);
+        }
+        if (!inProgress.add(userId)) {
+            return false;
+        }
+        accessTokenService.revokeUser(userId);
+        executor.execute(() -> purge(userId));
+        return true;
+    }
+
+    public boolean isInProgress(Long userId) {
+        return inProgress.contains(userId);
+    }
+
+    private void purge(Long userId) {
+        try {
+            int participations = 0;
+            for (ParticipantRole role : ParticipantRole.values()) {
+                List<Long> eventIds;
+                do {
+                    eventIds = transactionTemplate.execute(
+                            status -> cleanupRepository.deleteParticipationChunk(role, userId, chunkSize));
+                    refreshEvents(eventIds);
+                    participations += eventIds.size();
+                } while (eventIds.size() == chunkSize && !Thread.currentThread().isInterrupted());
+            }
+            int notifications = 0;
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(
+                        status -> cleanupRepository.deleteNotificationChunk(userId, chunkSize));
+                notifications += deleted;
+            } while (deleted == chunkSize && !Thread.currentThread().isInterrupted());
+
+            if (Thread.currentThread().isInterrupted()) {
+                log.warn("Purge of user {} interrupted, it has to be requested again", userId);
+                return;
+            }
+            userService.deleteUser(userId);
+            log.info("Purged user {}: {} participations, {} notifications", userId, participations, notifications);
+        } catch (ResourceNotFoundException e) {
+            log.info("User {} was deleted before the purge finished", userId);
+        } catch (RuntimeException e) {
+            log.error("Purge of user {} failed", userId, e);
+        } finally {
+            inProgress.remove(userId);
+        }
+    }
+
+    // Порция уже зафиксирована: сбрасываем ledger и карточки затронутых событий сразу
+    private void refreshEvents(List<Long> eventIds) {
+        for (Long eventId : eventIds) {
+            seatLedger.invalidate(eventId);
+            if (upcomingEventIndex.contains(eventId)) {
+                upcomingEventIndex.refresh(eventId);
+            }
+        }
+    }
+}
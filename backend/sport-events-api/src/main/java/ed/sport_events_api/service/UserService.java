@@ -1,13 +1,14 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.UserListItemDTO;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.ERole;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
-    List<User> getAllUsers();
+    PageResponse<UserListItemDTO> getUsers(ERole role, String query, Integer page, Integer size, String sort);
     Optional<User> getUserById(Long id);
     Optional<User> getUserByEmail(String email);
     User createUser(User user);
@@ -16,5 +17,4 @@ public interface UserService {
     boolean existsByEmail(String email);
     User assignRoleToUser(Long userId, Long roleId);
     User removeRoleFromUser(Long userId, Long roleId);
-    List<User> getUsersByRole(ERole role);
 }
\ No newline at end of file
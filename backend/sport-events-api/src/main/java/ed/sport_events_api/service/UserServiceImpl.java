@@ -1,44 +1,118 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.dto.UserListItemDTO;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.model.Role;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.ERole;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.model.enums.SuggestionType;
 import ed.sport_events_api.repository.EventRepository;
 import ed.sport_events_api.repository.RoleRepository;
 import ed.sport_events_api.repository.TeamRepository;
+import ed.sport_events_api.repository.UserCleanupRepository;
 import ed.sport_events_api.repository.UserRepository;
 import ed.sport_events_api.util.PasswordEncoderImpl;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE = Set.of("name", "email", "id");
+
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final EventRepository eventRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserCache userCache;
+    private final UserCleanupRepository cleanupRepository;
+    private final SeatLedger seatLedger;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final AccessTokenService accessTokenService;
+    private final SuggestIndex suggestIndex;
 
     public UserServiceImpl(TeamRepository teamRepository,
                            UserRepository userRepository,
                            RoleRepository roleRepository,
                            EventRepository eventRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordHashingService passwordHashingService,
+                           UserCache userCache,
+                           UserCleanupRepository cleanupRepository,
+                           SeatLedger seatLedger,
+                           UpcomingEventIndex upcomingEventIndex,
+                           AccessTokenService accessTokenService,
+                           SuggestIndex suggestIndex) {
         this.teamRepository = teamRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.eventRepository = eventRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.userCache = userCache;
+        this.cleanupRepository = cleanupRepository;
+        this.seatLedger = seatLedger;
+        this.upcomingEventIndex = upcomingEventIndex;
+        this.accessTokenService = accessTokenService;
+        this.suggestIndex = suggestIndex;
     }
 
+    /**
+     * Страница каталога пользователей; role == null — все пользователи,
+     * query — подстрока имени или email без учёта регистра, пустая — без поиска.
+     * sort — "поле" или "поле,asc|desc" по name, email или id; id
+     * добавляется последним ключом, чтобы порядок страниц был стабильным.
+     */
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public PageResponse<UserListItemDTO> getUsers(ERole role, String query, Integer page, Integer size, String sort) {
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, parseSort(sort));
+        String pattern = likePattern(query);
+        return PageResponse.of(role == null
+                ? userRepository.findDirectory(pattern, pageable)
+                : userRepository.findDirectoryByRole(role, pattern, pageable));
+    }
+
+    // '!' вместо '\': в MySQL обратная косая внутри литерала сама экранирует кавычку
+    private static String likePattern(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        String escaped = query.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    private static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("name").and(Sort.by("id"));
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE.contains(property)) {
+            throw new IllegalArgumentException("Сортировка возможна только по полям " + SORTABLE);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return "id".equals(property) ? order : order.and(Sort.by("id"));
     }
 
     @Override
@@ -57,13 +131,10 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Почта уже используется");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
-    }
-
-    public List<User> getUsersByRole(ERole role) {
-        return userRepository.findAllByRole(role);
-        // или: return userRepository.findByRoles_Name(role);
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
+        User saved = userRepository.save(user);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.USER, saved.getId(), saved.getName(), saved.getEmail()));
+        return saved;
     }
 
     @Override
@@ -81,7 +152,7 @@ public class UserServiceImpl implements UserService {
             user.setAvatar_url(userDetails.getAvatar_url());
         }
         if (userDetails.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            user.setPassword(passwordHashingService.encode(userDetails.getPassword()));
         }
         if (userDetails.getEmail() != null && !userDetails.getEmail().equals(user.getEmail())) {
             if (existsByEmail(userDetails.getEmail())) {
@@ -90,31 +161,64 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDetails.getEmail());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(id);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.USER, saved.getId(), saved.getName(), saved.getEmail()));
+        return saved;
     }
 
+    /**
+     * Удаляет пользователя фиксированным набором множественных DML в одной
+     * транзакции: счётчики мест и строки участия, членство в командах,
+     * капитанство и организаторство, роли, оповещения, сессии. Кэши мест,
+     * ближайших событий и пользователей сбрасываются после коммита.
+     */
     @Override
     @Transactional
     public void deleteUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден с id: " + userId));
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Пользователь не найден с id: " + userId);
+        }
+        List<Long> eventIds = cleanupRepository.findAffectedEventIds(userId);
 
-        // 1. Очищаем связи, где пользователь является капитаном
+        for (ParticipantRole role : ParticipantRole.values()) {
+            cleanupRepository.deleteParticipations(role, userId);
+        }
+        cleanupRepository.deleteTeamMemberships(userId);
         teamRepository.clearCaptainForUser(userId);
-
-        // 2. Очищаем связи, где пользователь является организатором
         eventRepository.clearOrganizerForUser(userId);
+        cleanupRepository.deleteRoles(userId);
+        cleanupRepository.deleteEmailDigests(userId);
+        cleanupRepository.deleteNotifications(userId);
+        cleanupRepository.deletePendingNotifications(userId);
+        accessTokenService.revokeUser(userId);
+        cleanupRepository.deleteUser(userId);
+
+        userCache.invalidate(userId);
+        suggestIndex.removeAfterCommit(SuggestionType.USER, userId);
+        refreshEventsAfterCommit(eventIds);
+    }
 
-        // 4. Очищаем роли пользователя
-        user.getRoles().clear();
-        userRepository.save(user);
-
-        // 5. Очищаем уведомления пользователя
-        user.getNotifications().clear();
-        userRepository.save(user);
-
-        // 6. Удаляем самого пользователя
-        userRepository.deleteById(userId);
+    // Ledger перечитает счётчики при следующем обращении, индекс — карточки с новым организатором
+    private void refreshEventsAfterCommit(List<Long> eventIds) {
+        Runnable refresh = () -> {
+            for (Long eventId : eventIds) {
+                seatLedger.invalidate(eventId);
+                if (upcomingEventIndex.contains(eventId)) {
+                    upcomingEventIndex.refresh(eventId);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
     }
 
     @Override
@@ -131,6 +235,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Роль не найдена с id: " + roleId));
 
         user.getRoles().add(role);
+        userCache.invalidate(userId);
         return userRepository.save(user);
     }
 
@@ -143,6 +248,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Роль не найдена с id: " + roleId));
 
         user.getRoles().remove(role);
+        userCache.invalidate(userId);
         return userRepository.save(user);
     }
 }
\ No newline at end of file
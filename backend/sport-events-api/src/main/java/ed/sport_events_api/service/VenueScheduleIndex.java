@@ -0,0 +1,255 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.TimeWindowDTO;
+import ed.sport_events_api.dto.VenueBookingDTO;
+import ed.sport_events_api.exception.VenueConflictException;
+import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.repository.EventRepository;
+import ed.sport_events_api.util.IntervalTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Расписание площадок в памяти: для каждой площадки — дерево интервалов
+ * [startDate, endDate) её событий. Проверка пересечения при создании или
+ * изменении события и расчёт свободных окон идут за O(log n) без запросов к БД.
+ * Проверка и занятие интервала выполняются под одной блокировкой площадки,
+ * поэтому два параллельных создания не могут занять одно и то же время.
+ */
+@Component
+public class VenueScheduleIndex {
+    private static final Logger log = LoggerFactory.getLogger(VenueScheduleIndex.class);
+
+    public enum ConflictPolicy {
+        REJECT, // пересечение — ошибка 409
+        FLAG    // пересечение допускается, но попадает в лог
+    }
+
+    private final EventRepository eventRepository;
+    private final ConflictPolicy policy;
+    private final Duration defaultDuration;
+    private final Map<Long, VenueSchedule> schedules = new ConcurrentHashMap<>();
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+
+    public VenueScheduleIndex(EventRepository eventRepository,
+                              @Value("${app.venues.conflict-policy:REJECT}") ConflictPolicy policy,
+                              @Value("${app.venues.default-event-duration:PT2H}") Duration defaultDuration) {
+        this.eventRepository = eventRepository;
+        this.policy = policy;
+        this.defaultDuration = defaultDuration;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        schedules.clear();
+        bookings.clear();
+        List<VenueBookingDTO> loaded = eventRepository.findVenueBookings(LocalDateTime.now());
+        for (VenueBookingDTO booking : loaded) {
+            Booking interval = toBooking(booking.getVenueId(), booking.getStartDate(), booking.getEndDate());
+            VenueSchedule schedule = scheduleOf(interval.venueId);
+            schedule.lock.writeLock().lock();
+            try {
+                schedule.tree.insert(interval.start, interval.end, booking.getEventId());
+                bookings.put(booking.getEventId(), interval);
+            } finally {
+                schedule.lock.writeLock().unlock();
+            }
+        }
+        log.info("Venue schedule index loaded with {} bookings", loaded.size());
+    }
+
+    /**
+     * Занимает площадку под событие (или переносит его бронь). При пересечении
+     * с другими событиями в режиме REJECT бросает VenueConflictException.
+     * Внутри транзакции при откате восстанавливается прежнее состояние.
+     */
+    public void book(Long eventId, Long venueId, EventStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        if (venueId == null || startDate == null || status == EventStatus.CANCELED) {
+            restoreOnRollback(eventId, release(eventId));
+            return;
+        }
+        Booking booking = toBooking(venueId, startDate, endDate);
+        VenueSchedule schedule = scheduleOf(venueId);
+        Booking previous;
+        schedule.lock.writeLock().lock();
+        try {
+            List<Long> conflicts = new ArrayList<>();
+            for (IntervalTree.Interval<LocalDateTime> other : schedule.tree.overlapping(booking.start, booking.end)) {
+                if (other.getId() != eventId) {
+                    conflicts.add(other.getId());
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                if (policy == ConflictPolicy.REJECT) {
+                    throw new VenueConflictException("Venue " + venueId + " is already booked by events " + conflicts);
+                }
+                log.warn("Event {} overlaps events {} at venue {}", eventId, conflicts, venueId);
+            }
+            previous = bookings.put(eventId, booking);
+            if (previous != null && previous.venueId.equals(venueId)) {
+                schedule.tree.remove(previous.start, eventId);
+            }
+            schedule.tree.insert(booking.start, booking.end, eventId);
+        } finally {
+            schedule.lock.writeLock().unlock();
+        }
+        // Бронь на другой площадке снимаем уже после освобождения блокировки, чтобы не брать две сразу
+        if (previous != null && !previous.venueId.equals(venueId)) {
+            removeFromTree(eventId, previous);
+        }
+        restoreOnRollback(eventId, previous);
+    }
+
+    public void removeAfterCommit(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(eventId);
+                }
+            });
+        } else {
+            release(eventId);
+        }
+    }
+
+    /**
+     * Занятые интервалы площадки, пересекающиеся с [from, to), в порядке начала.
+     */
+    public List<TimeWindowDTO> booked(Long venueId, LocalDateTime from, LocalDateTime to) {
+        List<TimeWindowDTO> result = new ArrayList<>();
+        VenueSchedule schedule = schedules.get(venueId);
+        if (schedule == null) {
+            return result;
+        }
+        schedule.lock.readLock().lock();
+        try {
+            for (IntervalTree.Interval<LocalDateTime> interval : schedule.tree.overlapping(from, to)) {
+                result.add(new TimeWindowDTO(interval.getStart(), interval.getEnd()));
+            }
+        } finally {
+            schedule.lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Свободные окна — промежутки между объединёнными занятыми интервалами
+    public List<TimeWindowDTO> freeWindows(List<TimeWindowDTO> booked, LocalDateTime from, LocalDateTime to) {
+        List<TimeWindowDTO> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeWindowDTO window : booked) {
+            if (window.getStart().isAfter(cursor)) {
+                free.add(new TimeWindowDTO(cursor, window.getStart()));
+            }
+            if (window.getEnd().isAfter(cursor)) {
+                cursor = window.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeWindowDTO(cursor, to));
+        }
+        return free;
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    // Прошедшие брони больше не влияют ни на проверку, ни на свободные окна
+    @Scheduled(fixedDelayString = "${app.venues.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        bookings.forEach((eventId, booking) -> {
+            if (booking.end.isBefore(now)) {
+                release(eventId);
+            }
+        });
+    }
+
+    private Booking release(Long eventId) {
+        Booking booking = bookings.remove(eventId);
+        if (booking != null) {
+            removeFromTree(eventId, booking);
+        }
+        return booking;
+    }
+
+    private void removeFromTree(Long eventId, Booking booking) {
+        VenueSchedule schedule = scheduleOf(booking.venueId);
+        schedule.lock.writeLock().lock();
+        try {
+            schedule.tree.remove(booking.start, eventId);
+        } finally {
+            schedule.lock.writeLock().unlock();
+        }
+    }
+
+    private void restore(Long eventId, Booking previous) {
+        release(eventId);
+        if (previous != null) {
+            VenueSchedule schedule = scheduleOf(previous.venueId);
+            schedule.lock.writeLock().lock();
+            try {
+                schedule.tree.insert(previous.start, previous.end, eventId);
+                bookings.put(eventId, previous);
+            } finally {
+                schedule.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void restoreOnRollback(Long eventId, Booking previous) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(eventId, previous);
+                    }
+                }
+            });
+        }
+    }
+
+    private Booking toBooking(Long venueId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime end = endDate != null && endDate.isAfter(startDate) ? endDate : startDate.plus(defaultDuration);
+        return new Booking(venueId, startDate, end);
+    }
+
+    private VenueSchedule scheduleOf(Long venueId) {
+        return schedules.computeIfAbsent(venueId, id -> new VenueSchedule());
+    }
+
+    private static final class VenueSchedule {
+        private final IntervalTree<LocalDateTime> tree = new IntervalTree<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    }
+
+    private static final class Booking {
+        private final Long venueId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Booking(Long venueId, LocalDateTime start, LocalDateTime end) {
+            this.venueId = venueId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
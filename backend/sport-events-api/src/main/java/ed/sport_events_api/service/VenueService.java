@@ -1,19 +1,31 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.dto.TimeWindowDTO;
+import ed.sport_events_api.dto.VenueAvailabilityDTO;
 import ed.sport_events_api.exception.AlreadyExistsException;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.model.Venue;
+import ed.sport_events_api.model.enums.SuggestionType;
 import ed.sport_events_api.repository.VenueRepository;
 import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class VenueService {
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+
     private final VenueRepository venueRepository;
+    private final VenueScheduleIndex venueScheduleIndex;
+    private final SuggestIndex suggestIndex;
 
-    public VenueService(VenueRepository venueRepository) {
+    public VenueService(VenueRepository venueRepository, VenueScheduleIndex venueScheduleIndex, SuggestIndex suggestIndex) {
         this.venueRepository = venueRepository;
+        this.venueScheduleIndex = venueScheduleIndex;
+        this.suggestIndex = suggestIndex;
     }
 
     public List<Venue> getAll() {
@@ -24,12 +36,26 @@ public class VenueService {
         return venueRepository.findById(id).orElse(null);
     }
 
+    // Свободные окна считаются по расписанию в памяти, без запросов к событиям
+    public VenueAvailabilityDTO getAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (!venueRepository.existsById(id)) {
+            return null;
+        }
+        if (!from.isBefore(to) || from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Invalid availability range");
+        }
+        List<TimeWindowDTO> booked = venueScheduleIndex.booked(id, from, to);
+        return new VenueAvailabilityDTO(id, from, to, venueScheduleIndex.freeWindows(booked, from, to), booked);
+    }
+
     public Venue create(Venue venue) {
         Optional<Venue> newVenue = venueRepository.findByName(venue.getName());
         if (newVenue.isPresent()) {
             throw new AlreadyExistsException("Место проведения уже сущетсвует");
         }
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.VENUE, saved.getId(), saved.getName(), saved.getAddress()));
+        return saved;
     }
 
     public Venue update(Long id, Venue venueDetails) {
@@ -43,10 +69,13 @@ public class VenueService {
         venue.setDescription(venueDetails.getDescription());
         venue.setCapacity(venueDetails.getCapacity());
 
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        suggestIndex.putAfterCommit(new SuggestionDTO(SuggestionType.VENUE, saved.getId(), saved.getName(), saved.getAddress()));
+        return saved;
     }
 
     public void delete(Long id) {
         venueRepository.deleteById(id);
+        suggestIndex.removeAfterCommit(SuggestionType.VENUE, id);
     }
 }
\ No newline at end of file
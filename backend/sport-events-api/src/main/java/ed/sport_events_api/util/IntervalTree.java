@@ -0,0 +1,225 @@
+package ed.sport_events_api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Дерево полуинтервалов [start, end) на основе AVL-дерева, упорядоченного
+ * по (start, id). Каждый узел хранит максимальный конец интервала в своём
+ * поддереве, поэтому поиск пересечений отбрасывает целые поддеревья:
+ * вставка и удаление — O(log n), поиск — O(log n + k), где k — число найденных.
+ * Класс не потокобезопасен.
+ */
+public class IntervalTree<K extends Comparable<? super K>> {
+    private Node<K> root;
+    private int size;
+
+    public void insert(K start, K end, long id) {
+        if (start.compareTo(end) >= 0) {
+            throw new IllegalArgumentException("Interval start must be before its end");
+        }
+        root = insert(root, new Node<>(start, end, id));
+        size++;
+    }
+
+    /**
+     * Удаляет интервал, вставленный с таким началом и id. Возвращает false, если его не было.
+     */
+    public boolean remove(K start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    // Интервалы, пересекающиеся с [from, to), в порядке начала
+    public List<Interval<K>> overlapping(K from, K to) {
+        List<Interval<K>> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    public boolean overlapsAny(K from, K to) {
+        return findAny(root, from, to) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void collect(Node<K> node, K from, K to, List<Interval<K>> result) {
+        if (node == null || node.maxEnd.compareTo(from) <= 0) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start.compareTo(to) >= 0) {
+            return;
+        }
+        if (node.end.compareTo(from) > 0) {
+            result.add(new Interval<>(node.start, node.end, node.id));
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private Node<K> findAny(Node<K> node, K from, K to) {
+        while (node != null) {
+            if (node.start.compareTo(to) < 0 && node.end.compareTo(from) > 0) {
+                return node;
+            }
+            // Если в левом поддереве есть интервал, кончающийся после from, пересечение может быть только там
+            if (node.left != null && node.left.maxEnd.compareTo(from) > 0) {
+                node = node.left;
+            } else if (node.start.compareTo(to) < 0) {
+                node = node.right;
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private Node<K> insert(Node<K> node, Node<K> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node<K> remove(Node<K> node, K start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<K> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node<K> removeMin(Node<K> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private int compare(K start, long id, Node<K> node) {
+        int byStart = start.compareTo(node.start);
+        return byStart != 0 ? byStart : Long.compare(id, node.id);
+    }
+
+    private Node<K> rebalance(Node<K> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<K> rotateRight(Node<K> node) {
+        Node<K> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<K> rotateLeft(Node<K> node) {
+        Node<K> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<K> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        K maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.compareTo(maxEnd) > 0) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.compareTo(maxEnd) > 0) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<K> {
+        private final K start;
+        private final K end;
+        private final long id;
+        private K maxEnd;
+        private int height = 1;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(K start, K end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    public static final class Interval<K> {
+        private final K start;
+        private final K end;
+        private final long id;
+
+        public Interval(K start, K end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+        }
+
+        public K getStart() {
+            return start;
+        }
+
+        public K getEnd() {
+            return end;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -1,16 +1,59 @@
 package ed.sport_events_api.util;
 
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * BCrypt с заданной стоимостью. До перехода на BCrypt вход сравнивал введённый
+ * пароль с сохранённой строкой как есть (так хранились пароли из /register и
+ * data.sql), поэтому не-BCrypt значение принимается только при точном совпадении.
+ * upgradeEncoding сообщает, что такой пароль — как и хэш с другой стоимостью —
+ * нужно пересчитать при следующем входе (AuthServiceImpl.login).
+ */
 public class PasswordEncoderImpl implements PasswordEncoder {
+    private final BCryptPasswordEncoder bcrypt;
+    private final int strength;
+
+    public PasswordEncoderImpl(int strength) {
+        this.bcrypt = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+    }
 
     @Override
     public String encode(CharSequence rawPassword) {
-        return rawPassword.toString() + "1";
+        return bcrypt.encode(rawPassword);
     }
 
     @Override
     public boolean matches(CharSequence rawPassword, String encodedPassword) {
-        return encodedPassword.equals(rawPassword.toString() + "1");
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (isBcrypt(encodedPassword)) {
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+        return constantTimeEquals(encodedPassword, rawPassword.toString());
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword == null || !isBcrypt(encodedPassword) || strengthOf(encodedPassword) != strength;
+    }
+
+    // Формат BCrypt: $2a$10$<соль и хэш>, стоимость — две цифры после версии
+    public static int strengthOf(String encodedPassword) {
+        return Integer.parseInt(encodedPassword.substring(4, 6));
+    }
+
+    private static boolean isBcrypt(String encodedPassword) {
+        return encodedPassword.length() == 60 && encodedPassword.startsWith("$2")
+                && encodedPassword.charAt(3) == '$' && encodedPassword.charAt(6) == '$';
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -0,0 +1,109 @@
+package ed.sport_events_api.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Набор token bucket по строковому ключу. Ключи разбиты по полосам
+ * (stripes) со своей блокировкой, поэтому запросы разных клиентов почти
+ * не конкурируют. Каждая полоса — LRU ограниченного размера: при
+ * переполнении вытесняется ведро, к которому дольше всего не обращались,
+ * так что память ограничена при любом числе клиентов. Время задаётся
+ * извне в наносекундах.
+ */
+public class RateLimiter {
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public RateLimiter(int stripes, int maxBuckets) {
+        int count = 1;
+        while (count < stripes) {
+            count <<= 1;
+        }
+        int perStripe = Math.max(1, maxBuckets / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+        this.mask = count - 1;
+    }
+
+    /**
+     * Забирает один токен из ведра ключа. Возвращает 0, если токен был,
+     * иначе — сколько наносекунд ждать следующего.
+     */
+    public long tryAcquire(String key, Limit limit, long nowNanos) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & mask];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(limit.capacity, nowNanos);
+                stripe.buckets.put(key, bucket);
+            } else {
+                double refilled = bucket.tokens + (nowNanos - bucket.updatedAt) * limit.tokensPerNano;
+                bucket.tokens = Math.min(limit.capacity, refilled);
+                bucket.updatedAt = nowNanos;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / limit.tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public static final class Limit {
+        private final long capacity;
+        private final double tokensPerNano;
+
+        public Limit(long capacity, double refillPerSecond) {
+            if (capacity <= 0 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+            }
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+}
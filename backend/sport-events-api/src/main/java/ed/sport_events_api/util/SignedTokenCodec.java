@@ -0,0 +1,232 @@
+package ed.sport_events_api.util;
+
+import ed.sport_events_api.dto.SessionRecord;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Самодостаточный токен доступа, подписанный HMAC-SHA256:
+ * {@code base64url(payload).base64url(hmac)}, где payload — 30 байт
+ * (версия, id ключа, userId, маска ролей, время выдачи и истечения).
+ * Проверка не требует ни общего состояния, ни обращения к БД, поэтому
+ * токен принимает любой узел с теми же ключами. На горячем пути проверки
+ * нет выделений памяти, кроме итоговой SessionRecord: декодирование идёт
+ * в буфер потока, а Mac переиспользуется.
+ * <p>
+ * Ротация: токены выдаются активным ключом, а принимаются любым из
+ * настроенных. Старый ключ убирают из конфигурации, когда истекут
+ * выданные им токены.
+ */
+public class SignedTokenCodec {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_BYTES = 30;
+    private static final int MAC_BYTES = 32;
+    private static final int PAYLOAD_CHARS = 40;
+    private static final int MAC_CHARS = 43;
+    private static final int TOKEN_CHARS = PAYLOAD_CHARS + 1 + MAC_CHARS;
+    private static final int MAX_KEYS = 256;
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final SecretKeySpec[] keys = new SecretKeySpec[MAX_KEYS];
+    private final int activeKid;
+    private final long ttlSeconds;
+    private final ThreadLocal<Mac[]> macs = ThreadLocal.withInitial(() -> new Mac[MAX_KEYS]);
+    // payload | подпись из токена | вычисленная подпись
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[PAYLOAD_BYTES + 2 * MAC_BYTES]);
+
+    public SignedTokenCodec(Map<Integer, byte[]> keys, int activeKid, Duration ttl) {
+        keys.forEach((kid, secret) -> {
+            if (kid < 0 || kid >= MAX_KEYS || secret.length < MAC_BYTES) {
+                throw new IllegalArgumentException("Signing key " + kid + " must have id 0..255 and at least 32 bytes");
+            }
+            this.keys[kid] = new SecretKeySpec(secret, ALGORITHM);
+        });
+        if (activeKid < 0 || activeKid >= MAX_KEYS || this.keys[activeKid] == null) {
+            throw new IllegalArgumentException("Active signing key " + activeKid + " is not configured");
+        }
+        this.activeKid = activeKid;
+        this.ttlSeconds = ttl.getSeconds();
+    }
+
+    // Подписанный токен отличается от непрозрачного наличием точки
+    public static boolean isSigned(String token) {
+        return token.length() == TOKEN_CHARS && token.charAt(PAYLOAD_CHARS) == '.';
+    }
+
+    public String issue(Long userId, int rolesMask, long nowEpochSecond) {
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        payload[0] = VERSION;
+        payload[1] = (byte) activeKid;
+        writeLong(payload, 2, userId);
+        writeInt(payload, 10, rolesMask);
+        writeLong(payload, 14, nowEpochSecond);
+        writeLong(payload, 22, nowEpochSecond + ttlSeconds);
+
+        byte[] signature = new byte[MAC_BYTES];
+        Mac mac = mac(activeKid);
+        mac.update(payload, 0, PAYLOAD_BYTES);
+        try {
+            mac.doFinal(signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(signature);
+    }
+
+    /**
+     * Проверяет подпись и срок действия. Возвращает null для поддельного,
+     * испорченного или истёкшего токена, а также подписанного неизвестным ключом.
+     */
+    public SessionRecord verify(String token, long nowEpochSecond) {
+        if (token == null || !isSigned(token)) {
+            return null;
+        }
+        byte[] buffer = buffers.get();
+        if (!decode(token, 0, PAYLOAD_CHARS, buffer, 0)
+                || !decode(token, PAYLOAD_CHARS + 1, MAC_CHARS, buffer, PAYLOAD_BYTES)) {
+            return null;
+        }
+        if (buffer[0] != VERSION) {
+            return null;
+        }
+        int kid = buffer[1] & 0xFF;
+        if (keys[kid] == null) {
+            return null;
+        }
+
+        Mac mac = mac(kid);
+        mac.update(buffer, 0, PAYLOAD_BYTES);
+        try {
+            mac.doFinal(buffer, PAYLOAD_BYTES + MAC_BYTES);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        // Сравнение за постоянное время, чтобы не давать подсказок по времени ответа
+        int diff = 0;
+        for (int i = 0; i < MAC_BYTES; i++) {
+            diff |= buffer[PAYLOAD_BYTES + i] ^ buffer[PAYLOAD_BYTES + MAC_BYTES + i];
+        }
+        if (diff != 0 || readLong(buffer, 22) <= nowEpochSecond) {
+            return null;
+        }
+        return new SessionRecord(readLong(buffer, 2), readInt(buffer, 10),
+                LocalDateTime.ofEpochSecond(readLong(buffer, 14), 0, ZoneOffset.UTC));
+    }
+
+    private Mac mac(int kid) {
+        Mac[] perThread = macs.get();
+        Mac mac = perThread[kid];
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(keys[kid]);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            perThread[kid] = mac;
+        }
+        return mac;
+    }
+
+    // Декодирует base64url без выделения памяти; символы вне алфавита и неканонические
+    // хвостовые биты считаются ошибкой, поэтому у каждой подписи ровно одна запись строкой
+    // и отзыв по строке токена (TokenDenylist) нельзя обойти заменой символа
+    private static boolean decode(String source, int from, int length, byte[] target, int offset) {
+        int out = offset;
+        int end = from + length;
+        int i = from;
+        while (end - i >= 4) {
+            int s0 = sextet(source, i);
+            int s1 = sextet(source, i + 1);
+            int s2 = sextet(source, i + 2);
+            int s3 = sextet(source, i + 3);
+            // Проверяем до сдвигов: после << 12 и << 18 признак ошибки теряется
+            if ((s0 | s1 | s2 | s3) < 0) {
+                return false;
+            }
+            int bits = s0 << 18 | s1 << 12 | s2 << 6 | s3;
+            target[out++] = (byte) (bits >> 16);
+            target[out++] = (byte) (bits >> 8);
+            target[out++] = (byte) bits;
+            i += 4;
+        }
+        int rest = end - i;
+        if (rest == 2) {
+            int s0 = sextet(source, i);
+            int s1 = sextet(source, i + 1);
+            if ((s0 | s1) < 0 || (s1 & 0xF) != 0) {
+                return false;
+            }
+            int bits = s0 << 6 | s1;
+            target[out] = (byte) (bits >> 4);
+        } else if (rest == 3) {
+            int s0 = sextet(source, i);
+            int s1 = sextet(source, i + 1);
+            int s2 = sextet(source, i + 2);
+            if ((s0 | s1 | s2) < 0 || (s2 & 0x3) != 0) {
+                return false;
+            }
+            int bits = s0 << 12 | s1 << 6 | s2;
+            target[out++] = (byte) (bits >> 10);
+            target[out] = (byte) (bits >> 2);
+        } else if (rest == 1) {
+            return false;
+        }
+        return true;
+    }
+
+    // Недопустимый символ даёт -1; вызывающий проверяет каждый символ до сдвигов
+    private static int sextet(String source, int index) {
+        char c = source.charAt(index);
+        return c < 128 ? DECODE[c] : -1;
+    }
+
+    private static void writeLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int readInt(byte[] source, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,163 @@
+package ed.sport_events_api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров. На каждом уровне 64 слота; слот уровня i
+ * покрывает 64^i тиков. Постановка и отмена таймера — O(1), продвижение
+ * времени — O(1) на тик плюс перенос таймеров с верхних уровней на нижние,
+ * когда их очередь подходит. Время задаётся извне в миллисекундах, поэтому
+ * колесо не зависит от системных часов.
+ * <p>
+ * Отмена ленивая: отменённый таймер остаётся в слоте и отбрасывается,
+ * когда до него доходит очередь.
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<List<Timeout<T>>> slots;
+    private final List<Timeout<T>> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels <= 0 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new ArrayList<>(levels * SLOTS);
+        for (int i = 0; i < levels * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Ставит таймер на момент deadlineMillis. Срок округляется вверх до тика,
+     * так что таймер никогда не срабатывает раньше срока. Уже прошедший срок
+     * сработает при ближайшем вызове {@link #advance}.
+     */
+    public synchronized Timeout<T> schedule(long deadlineMillis, T payload) {
+        Timeout<T> timeout = new Timeout<>(Math.ceilDiv(deadlineMillis, tickMillis), payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Продвигает время до nowMillis и возвращает полезную нагрузку всех
+     * сработавших за это время неотменённых таймеров.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        drain(overdue, expired);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                // Пустое колесо незачем прокручивать по одному тику
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            drain(overdue, expired);
+            drain(slot(0, currentTick), expired);
+        }
+        return expired;
+    }
+
+    // Число таймеров в колесе, включая отменённые, но ещё не отброшенные
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.deadlineTick <= currentTick) {
+            overdue.add(timeout);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            // Уровень подходит, если срок лежит в текущем обороте следующего уровня
+            if (level == levels - 1 || (timeout.deadlineTick >>> shift) == (currentTick >>> shift)) {
+                slot(level, timeout.deadlineTick).add(timeout);
+                return;
+            }
+        }
+    }
+
+    // На границе оборота уровня переносим таймеры очередного слота верхнего уровня ниже
+    private void cascade() {
+        for (int level = levels - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                continue;
+            }
+            List<Timeout<T>> bucket = slot(level, currentTick);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Timeout<T>> moved = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Timeout<T> timeout : moved) {
+                if (timeout.cancelled) {
+                    size--;
+                } else {
+                    place(timeout);
+                }
+            }
+        }
+    }
+
+    private void drain(List<Timeout<T>> bucket, List<T> expired) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timeout<T>> due = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Timeout<T> timeout : due) {
+            if (timeout.cancelled) {
+                size--;
+            } else if (timeout.deadlineTick <= currentTick) {
+                size--;
+                expired.add(timeout.payload);
+            } else {
+                // Срок за пределами диапазона колеса — ждём следующего оборота
+                place(timeout);
+            }
+        }
+    }
+
+    private List<Timeout<T>> slot(int level, long tick) {
+        int index = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        return slots.get(level * SLOTS + index);
+    }
+
+    public static final class Timeout<T> {
+        private final long deadlineTick;
+        private final T payload;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -27,14 +27,14 @@ INSERT INTO `roles` (`name`) VALUES
                                  ('REFEREE'),
                                  ('SPECTATOR');
 
--- Добавляем пользователей
+-- Добавляем пользователей (пароли — BCrypt: у '12345' пароль 12345, у остальных — 1)
 INSERT INTO `users` (`email`, `password`, `name`, `phone`, `avatar_url`) VALUES
-                                                                             ('admin', '1', 'Иван Админов', '+3759110000001', 'https://example.com/avatars/1.jpg'),
-                                                                             ('organizer', '1', 'Алексей Организатор', '+3759110000002', 'https://example.com/avatars/2.jpg'),
-                                                                             ('12345', '12345', '12345', '12345', 'https://example.com/avatars/1.jpg'),
-                                                                             ('player', '1', 'Сергей Игроков', '+3759110000003', 'https://example.com/avatars/3.jpg'),
-                                                                             ('player1', '1', 'Мария Спортсменова', '+3759110000004', 'https://example.com/avatars/4.jpg'),
-                                                                             ('referee', '1', 'Артем Судьин', '+3759110000005', 'https://example.com/avatars/5.jpg');
+                                                                             ('admin', '$2a$10$1rujaORF37pHzPx02m1fSel69ci4LUYmjd.8fRv1sCS9/zLMCaBdy', 'Иван Админов', '+3759110000001', 'https://example.com/avatars/1.jpg'),
+                                                                             ('organizer', '$2a$10$JUNyIEptkUyOSVhQazbcz.pWyS2c.gLhhx/tMb75NooA6rAtCrm86', 'Алексей Организатор', '+3759110000002', 'https://example.com/avatars/2.jpg'),
+                                                                             ('12345', '$2a$10$TNVxdwNxX8r9bMLkb4lw2uvmy5Kp18vkep1U3nqRA88zwZ2/oH8Q2', '12345', '12345', 'https://example.com/avatars/1.jpg'),
+                                                                             ('player', '$2a$10$gw2vrzzgV5Q7kv9knhvK..HofvONz4NGJ7hgWu7/Q55LDuNMy2s7q', 'Сергей Игроков', '+3759110000003', 'https://example.com/avatars/3.jpg'),
+                                                                             ('player1', '$2a$10$RcvVVgZsrUd/sPbf/0YZBODJm6VIGfmmgDTCDvoQSVXRgx.XXUZrK', 'Мария Спортсменова', '+3759110000004', 'https://example.com/avatars/4.jpg'),
+                                                                             ('referee', '$2a$10$.kGja4bvWWYzxKsdBY5tIuO5.Zlr7yavprLIvFdheb4kbJpNkQQF2', 'Артем Судьин', '+3759110000005', 'https://example.com/avatars/5.jpg');
 
 -- Добавляем связи пользователей с ролями
 INSERT INTO `user_roles` (`user_id`, `role_id`) VALUES
@@ -91,4 +91,9 @@ INSERT INTO `event_spectators` (`event_id`, `user_id`) VALUES
 
 -- Добавляем судей событий
 INSERT INTO `event_referees` (`event_id`, `user_id`) VALUES
-                                                         (1, 5), (2, 5), (3, 5), (4, 5), (5, 5);
\ No newline at end of file
+                                                         (1, 5), (2, 5), (3, 5), (4, 5), (5, 5);
+-- Пересчитываем счётчики участников событий
+UPDATE `events_t` e SET
+    `players_count` = (SELECT COUNT(*) FROM `event_players` p WHERE p.`event_id` = e.`id`),
+    `spectators_count` = (SELECT COUNT(*) FROM `event_spectators` s WHERE s.`event_id` = e.`id`),
+    `referees_count` = (SELECT COUNT(*) FROM `event_referees` r WHERE r.`event_id` = e.`id`);
@@ -0,0 +1,72 @@
+package ed.sport_events_api.benchmark;
+
+import ed.sport_events_api.util.PasswordEncoderImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время проверки пароля BCrypt для разных стоимостей. main подбирает
+ * наибольшую стоимость, при которой проверка укладывается в целевую
+ * задержку (первый аргумент, мс, по умолчанию 250), — это значение для
+ * app.security.password.bcrypt-strength. Запускать на железе продакшена.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+    @Param({"8", "9", "10", "11", "12", "13"})
+    private int strength;
+
+    private PasswordEncoderImpl encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new PasswordEncoderImpl(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 250;
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build()).run();
+
+        int recommended = -1;
+        for (RunResult result : results) {
+            int candidate = Integer.parseInt(result.getParams().getParam("strength"));
+            if (result.getPrimaryResult().getScore() <= targetMillis && candidate > recommended) {
+                recommended = candidate;
+            }
+        }
+        if (recommended < 0) {
+            System.out.printf("No strength fits %.0f ms, even the cheapest one is slower%n", targetMillis);
+        } else {
+            System.out.printf("app.security.password.bcrypt-strength=%d (target %.0f ms)%n", recommended, targetMillis);
+        }
+    }
+}
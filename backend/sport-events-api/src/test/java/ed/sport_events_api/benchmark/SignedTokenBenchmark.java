@@ -0,0 +1,76 @@
+package ed.sport_events_api.benchmark;
+
+import ed.sport_events_api.dto.SessionRecord;
+import ed.sport_events_api.util.SignedTokenCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность проверки подписанного токена. Запуск после
+ * {@code mvn test-compile}: класс main из test classpath, например из IDE,
+ * или {@code java -cp target/test-classes:target/classes:<deps> ...SignedTokenBenchmark}.
+ * Для оценки выделений памяти добавьте {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignedTokenBenchmark {
+    private SignedTokenCodec codec;
+    private String valid;
+    private String forged;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        codec = new SignedTokenCodec(Map.of(1, new byte[32], 2, new byte[48]), 2, Duration.ofHours(1));
+        now = Instant.now().getEpochSecond();
+        valid = codec.issue(42L, 0b110, now);
+        char[] chars = valid.toCharArray();
+        chars[chars.length - 2] = chars[chars.length - 2] == 'A' ? 'B' : 'A';
+        forged = new String(chars);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SessionRecord verifyValid() {
+        return codec.verify(valid, now);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SessionRecord verifyValidContended() {
+        return codec.verify(valid, now);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SessionRecord verifyForged() {
+        return codec.verify(forged, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SignedTokenBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
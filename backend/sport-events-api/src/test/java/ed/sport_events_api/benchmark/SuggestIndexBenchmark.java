@@ -0,0 +1,76 @@
+package ed.sport_events_api.benchmark;
+
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.model.enums.SuggestionType;
+import ed.sport_events_api.repository.TeamRepository;
+import ed.sport_events_api.repository.UserRepository;
+import ed.sport_events_api.repository.VenueRepository;
+import ed.sport_events_api.service.SuggestIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка подсказки по префиксу на индексе из size пользователей при
+ * параллельных запросах. SampleTime даёт перцентили: p0.99 должен быть
+ * меньше миллисекунды.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(4)
+public class SuggestIndexBenchmark {
+    private static final String ALPHABET = "абвгдежзиклмнопрстуфхцэюя";
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private SuggestIndex index;
+    private String[] prefixes;
+
+    @Setup
+    public void setUp() {
+        index = new SuggestIndex(Mockito.mock(UserRepository.class), Mockito.mock(VenueRepository.class),
+                Mockito.mock(TeamRepository.class));
+        Random random = new Random(42);
+        for (long id = 1; id <= size; id++) {
+            String name = word(random, 7) + " " + word(random, 9);
+            index.put(new SuggestionDTO(SuggestionType.USER, id, name, "user" + id + "@example.com"));
+        }
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = word(random, 1 + random.nextInt(3));
+        }
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return index.suggest(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], null, 10);
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+}
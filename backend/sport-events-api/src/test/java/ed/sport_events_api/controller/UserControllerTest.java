@@ -1,6 +1,9 @@
 package ed.sport_events_api.controller;
 
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.UserListItemDTO;
 import ed.sport_events_api.model.User;
+import ed.sport_events_api.service.UserPurgeService;
 import ed.sport_events_api.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,7 +14,6 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +29,9 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserPurgeService userPurgeService;
+
     private final User testUser = new User(
             1L,
             "test@example.com",
@@ -34,8 +39,7 @@ public class UserControllerTest {
             "John Doe",
             "+123456789",
             "https://example.com/avatar.jpg",
-            new HashSet<>(),
-            new ArrayList<>()
+            new HashSet<>()
     );
 
     private final String userJson = """
@@ -49,14 +53,18 @@ public class UserControllerTest {
             """;
 
     @Test
-    public void getAllUsers_ReturnsListOfUsers() throws Exception {
-        List<User> users = List.of(testUser);
-        Mockito.when(userService.getAllUsers()).thenReturn(users);
+    public void getUsers_ReturnsPageOfSlimUsers() throws Exception {
+        UserListItemDTO item = new UserListItemDTO(1L, "John Doe", "test@example.com",
+                "https://example.com/avatar.jpg", "ADMIN,PLAYER");
+        Mockito.when(userService.getUsers(null, null, 0, 20, "name"))
+                .thenReturn(new PageResponse<>(List.of(item), 0, 20, 1, 1));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/users"))
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/users?page=0&size=20&sort=name"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].name").value("John Doe"))
-                .andExpect(jsonPath("$[0].phone").value("+123456789"));
+                .andExpect(jsonPath("$.items[0].name").value("John Doe"))
+                .andExpect(jsonPath("$.items[0].roles[1]").value("PLAYER"))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1));
     }
 
     @Test
@@ -98,8 +106,7 @@ public class UserControllerTest {
                 "John Doe",
                 "+123456789",
                 "https://example.com/avatar.jpg",
-                new HashSet<>(),
-                new ArrayList<>()
+                new HashSet<>()
         );
 
         Mockito.when(userService.removeRoleFromUser(1L, 2L)).thenReturn(userWithoutRole);
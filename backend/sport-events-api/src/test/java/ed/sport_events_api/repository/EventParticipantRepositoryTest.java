@@ -0,0 +1,73 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.enums.ParticipantRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EventParticipantRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EventParticipantRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = spy(new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")));
+        jdbcTemplate.execute("CREATE TABLE event_players (event_id BIGINT NOT NULL, user_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (event_id, user_id))");
+        repository = new EventParticipantRepository(jdbcTemplate);
+    }
+
+    @Test
+    void insertBatch_ReportsExistingPairsAsNotInserted() {
+        jdbcTemplate.update("INSERT INTO event_players (event_id, user_id) VALUES (1, 10), (2, 11)");
+
+        boolean[] inserted = repository.insertBatch(ParticipantRole.PLAYER, List.of(
+                new long[]{1, 10}, new long[]{1, 11}, new long[]{2, 10}, new long[]{2, 11}));
+
+        assertArrayEquals(new boolean[]{false, true, true, false}, inserted);
+        assertEquals(4, count());
+    }
+
+    @Test
+    void insertBatch_DriverReturnsNoInfo_StillDetectsDuplicates() {
+        // Так отвечает Connector/J, когда переписывает батч в один многострочный INSERT
+        doAnswer(inv -> {
+            int[] counts = (int[]) inv.callRealMethod();
+            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+            return counts;
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        jdbcTemplate.update("INSERT INTO event_players (event_id, user_id) VALUES (1, 10)");
+
+        boolean[] inserted = repository.insertBatch(ParticipantRole.PLAYER, List.of(
+                new long[]{1, 10}, new long[]{1, 12}));
+
+        assertArrayEquals(new boolean[]{false, true}, inserted);
+        assertEquals(2, count());
+    }
+
+    @Test
+    void insertBatch_AllExisting_SkipsInsert() {
+        jdbcTemplate.update("INSERT INTO event_players (event_id, user_id) VALUES (1, 10)");
+
+        boolean[] inserted = repository.insertBatch(ParticipantRole.PLAYER, List.<long[]>of(new long[]{1, 10}));
+
+        assertArrayEquals(new boolean[]{false}, inserted);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_players", Integer.class);
+    }
+}
@@ -0,0 +1,157 @@
+package ed.sport_events_api.repository;
+
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationOutboxRepositoryTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private JdbcTemplate jdbcTemplate;
+    private NotificationOutboxRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = spy(new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")));
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, unread_notifications INT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE notifications_t (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, " +
+                "topic VARCHAR(255), message VARCHAR(255), is_read BOOLEAN, creation_date TIMESTAMP, " +
+                "repeat_count INT NOT NULL DEFAULT 1, last_repeated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO users (id, unread_notifications) VALUES (1, 0), (2, 0)");
+        repository = new NotificationOutboxRepository(jdbcTemplate, Duration.ofHours(1));
+    }
+
+    @Test
+    void deliver_GroupsRepeatsWithinBatch() {
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(
+                entry(1L, "Вход", "первый", 3),
+                entry(1L, "Вход", "второй", 2),
+                entry(1L, "Матч", "перенесён", 2),
+                entry(1L, "Вход", "третий", 1)));
+
+        assertEquals(2, delivery.getCreated().size());
+        assertTrue(delivery.getMerged().isEmpty());
+        Map<String, Object> login = row("SELECT * FROM notifications_t WHERE topic = 'Вход'");
+        assertEquals(3, login.get("repeat_count"));
+        assertEquals("третий", login.get("message"));
+        assertEquals(Timestamp.valueOf(NOW.minusMinutes(1)), login.get("last_repeated_at"));
+        assertEquals(2, unread(1L));
+    }
+
+    @Test
+    void deliver_MergesIntoUnreadWithoutMovingCreationDate() {
+        long id = notification(1L, "Вход", false, NOW.minusHours(3), NOW.minusMinutes(20));
+        jdbcTemplate.update("UPDATE users SET unread_notifications = 1 WHERE id = 1");
+
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(
+                entry(1L, "Вход", "снова", 2), entry(1L, "Вход", "и снова", 1)));
+
+        assertTrue(delivery.getCreated().isEmpty());
+        Notification merged = delivery.getMerged().get(0);
+        assertEquals(id, merged.getId());
+        assertEquals(3, merged.getRepeatCount());
+        assertEquals(NOW.minusHours(3), merged.getCreationDate());
+        Map<String, Object> stored = row("SELECT * FROM notifications_t WHERE id = " + id);
+        assertEquals(Timestamp.valueOf(NOW.minusHours(3)), stored.get("creation_date"));
+        assertEquals(Timestamp.valueOf(NOW.minusMinutes(1)), stored.get("last_repeated_at"));
+        assertEquals("и снова", stored.get("message"));
+        assertEquals(1, unread(1L));
+    }
+
+    @Test
+    void deliver_ReadOrOutsideWindow_CreatesNewRow() {
+        notification(1L, "Вход", true, NOW.minusMinutes(5), NOW.minusMinutes(5));
+        notification(2L, "Вход", false, NOW.minusHours(2), NOW.minusHours(2));
+
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(
+                entry(1L, "Вход", "снова", 1), entry(2L, "Вход", "снова", 1)));
+
+        assertEquals(2, delivery.getCreated().size());
+        assertTrue(delivery.getMerged().isEmpty());
+        assertEquals(1, unread(1L));
+        assertEquals(1, unread(2L));
+    }
+
+    @Test
+    void deliver_ReadBetweenLookupAndUpdate_FallsBackToNewRow() {
+        long id = notification(1L, "Вход", false, NOW.minusMinutes(10), NOW.minusMinutes(10));
+        // Пользователь читает оповещение сразу после того, как его нашла выборка кандидатов
+        doAnswer(inv -> {
+            jdbcTemplate.update("UPDATE notifications_t SET is_read = true WHERE id = ?", id);
+            return inv.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(startsWith("UPDATE notifications_t SET repeat_count"), anyList());
+
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(entry(1L, "Вход", "снова", 1)));
+
+        assertTrue(delivery.getMerged().isEmpty());
+        assertEquals(1, delivery.getCreated().size());
+        assertNotEquals(id, delivery.getCreated().get(0).getId());
+        assertEquals(1, row("SELECT repeat_count FROM notifications_t WHERE id = " + id).get("repeat_count"));
+        assertEquals(1, unread(1L));
+    }
+
+    @Test
+    void deliver_NewRowsWrittenWithoutJdbcBatches() {
+        jdbcTemplate.update("INSERT INTO users (id, unread_notifications) VALUES (3, 0)");
+
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(
+                entry(1L, "Матч", "перенесён", 1), entry(2L, "Матч", "перенесён", 1),
+                entry(3L, "Матч", "перенесён", 1), entry(3L, "Вход", "здравствуйте", 1)));
+
+        // Многострочный INSERT возвращает ключи всех строк в порядке VALUES
+        List<Long> ids = delivery.getCreated().stream().map(Notification::getId).toList();
+        assertEquals(List.of(1L, 2L, 3L, 3L), delivery.getCreated().stream().map(Notification::getUserId).toList());
+        assertEquals(ids, jdbcTemplate.queryForList("SELECT id FROM notifications_t ORDER BY user_id, topic DESC", Long.class));
+        assertEquals(List.of(1, 1, 2), List.of(unread(1L), unread(2L), unread(3L)));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void deliver_SkipsDeletedUsers() {
+        NotificationOutboxRepository.Delivery delivery = repository.deliver(List.of(
+                entry(1L, "Вход", "есть", 1), entry(99L, "Вход", "удалён", 1)));
+
+        assertEquals(1, delivery.getCreated().size());
+        assertEquals(1L, delivery.getCreated().get(0).getUserId());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_t", Integer.class));
+    }
+
+    private NotificationOutboxEntry entry(Long userId, String topic, String message, int minutesAgo) {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry();
+        entry.setUserId(userId);
+        entry.setTopic(topic);
+        entry.setMessage(message);
+        entry.setCreatedAt(NOW.minusMinutes(minutesAgo));
+        return entry;
+    }
+
+    private long notification(Long userId, String topic, boolean read, LocalDateTime created, LocalDateTime repeated) {
+        jdbcTemplate.update("INSERT INTO notifications_t (user_id, topic, message, is_read, creation_date, last_repeated_at) " +
+                "VALUES (?, ?, 'текст', ?, ?, ?)", userId, topic, read, Timestamp.valueOf(created), Timestamp.valueOf(repeated));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM notifications_t", Long.class);
+    }
+
+    private Map<String, Object> row(String sql) {
+        return jdbcTemplate.queryForMap(sql);
+    }
+
+    private int unread(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT unread_notifications FROM users WHERE id = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,75 @@
+package ed.sport_events_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AccessTokenServiceTest {
+    private static final String KEYS = "1:I9Igf7j4jqMcfokExwIaRnw8oMDrD2EpIxZ84Od0w8g=";
+
+    private final InMemorySessionBackend backend = new InMemorySessionBackend();
+    private final SessionStore sessionStore = mock(SessionStore.class);
+
+    private AccessTokenService node(Duration checkInterval) {
+        return new AccessTokenService(sessionStore, new TokenDenylist(backend, checkInterval, 1000),
+                AccessTokenService.Format.SIGNED, KEYS, 1, Duration.ofHours(1));
+    }
+
+    @Test
+    void revoke_SignedToken_RejectedOnEveryNode() {
+        AccessTokenService node = node(Duration.ofMinutes(1));
+        AccessTokenService otherNode = node(Duration.ZERO);
+        String token = node.issue(7L, 1);
+        String otherToken = node.issue(8L, 1);
+        assertTrue(otherNode.resolve(token).isPresent());
+
+        node.revoke(token);
+
+        assertTrue(node.resolve(token).isEmpty());
+        assertTrue(otherNode.resolve(token).isEmpty());
+        assertTrue(node.resolve(otherToken).isPresent());
+        verify(sessionStore, never()).invalidate(any());
+    }
+
+    @Test
+    void revokeUser_RejectsTokensIssuedBefore() {
+        AccessTokenService node = node(Duration.ofMinutes(1));
+        String token = node.issue(7L, 1);
+        assertTrue(node.resolve(token).isPresent());
+
+        node.revokeUser(7L);
+
+        assertTrue(node.resolve(token).isEmpty());
+        verify(sessionStore).invalidateUser(7L);
+    }
+
+    @Test
+    void revoke_OpaqueToken_InvalidatesSession() {
+        AccessTokenService node = node(Duration.ofMinutes(1));
+
+        node.revoke("opaque-token");
+
+        verify(sessionStore).invalidate("opaque-token");
+    }
+
+    @Test
+    void cleanup_DropsRevocationsOfExpiredTokens() {
+        TokenDenylist denylist = new TokenDenylist(backend, Duration.ofMinutes(1), 1000);
+        denylist.revokeUser(7L, Duration.ofHours(1));
+
+        denylist.cleanup();
+        assertEquals(1, backend.findRevocations(7L, LocalDateTime.now()).size());
+        assertEquals(1, backend.deleteExpiredRevocations(LocalDateTime.now().plusHours(2)));
+    }
+
+    @Test
+    void constructor_WithoutKeys_FailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new AccessTokenService(sessionStore,
+                new TokenDenylist(backend, Duration.ofMinutes(1), 1000),
+                AccessTokenService.Format.SIGNED, "", 1, Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,129 @@
+package ed.sport_events_api.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmailDigestServiceTest {
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailDigestService service;
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void sendDue_SendsOneDigestPerRecipientOverSmtp() throws Exception {
+        service = service(smtpTransport());
+        EmailOutboxRepository.Digest digest = new EmailOutboxRepository.Digest(7L, "user@example.com", 1,
+                List.of(11L, 12L), List.of(notification(1L, "Матч перенесён", 1), notification(2L, "Смена площадки", 3)));
+        when(outboxRepository.findDueRecipients(any(), eq(50))).thenReturn(List.of(7L));
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(outboxRepository.claim(eq(List.of(7L)), any(), any())).thenReturn(List.of(digest));
+
+        assertEquals(1, service.sendDue());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("user@example.com", received[0].getAllRecipients()[0].toString());
+        assertEquals("Новые оповещения: 2", received[0].getSubject());
+        String body = (String) received[0].getContent();
+        assertTrue(body.contains("Матч перенесён"));
+        assertTrue(body.contains("Смена площадки (×3)"));
+        verify(outboxRepository).deleteByIds(List.of(11L, 12L));
+        assertEquals(1, meterRegistry.counter("notifications.email.sent").count());
+        assertEquals(2, meterRegistry.counter("notifications.email.items").count());
+    }
+
+    @Test
+    void send_TransportFailure_ReschedulesWithBackoff() {
+        MailTransport transport = mock(MailTransport.class);
+        doThrow(new MailSendException("connection refused")).when(transport).send(any(), any(), any());
+        service = service(transport);
+        EmailOutboxRepository.Digest digest = new EmailOutboxRepository.Digest(7L, "user@example.com", 2,
+                List.of(11L), List.of(notification(1L, "Матч перенесён", 1)));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.send(digest);
+
+        verify(outboxRepository).reschedule(eq(List.of(11L)),
+                argThat(next -> !next.isBefore(before.plusMinutes(2)) && next.isBefore(before.plusMinutes(3))));
+        verify(outboxRepository, never()).deleteByIds(any());
+        assertEquals(1, meterRegistry.counter("notifications.email.retried").count());
+    }
+
+    @Test
+    void send_LastAttemptFailure_DropsEntries() {
+        MailTransport transport = mock(MailTransport.class);
+        doThrow(new MailSendException("mailbox unavailable")).when(transport).send(any(), any(), any());
+        service = service(transport);
+        EmailOutboxRepository.Digest digest = new EmailOutboxRepository.Digest(7L, "user@example.com", 6,
+                List.of(11L), List.of(notification(1L, "Матч перенесён", 1)));
+
+        service.send(digest);
+
+        verify(outboxRepository).deleteByIds(List.of(11L));
+        verify(outboxRepository, never()).reschedule(any(), any());
+        assertEquals(1, meterRegistry.counter("notifications.email.failed").count());
+    }
+
+    @Test
+    void backoff_DoublesUpToMaximum() {
+        service = service(mock(MailTransport.class));
+
+        assertEquals(1, service.backoff(1).toMinutes());
+        assertEquals(4, service.backoff(3).toMinutes());
+        long capped = service.backoff(20).toMinutes();
+        assertTrue(capped >= 60 && capped <= 66);
+    }
+
+    private EmailDigestService service(MailTransport transport) {
+        return new EmailDigestService(outboxRepository, transport, transactionTemplate, meterRegistry,
+                true, Duration.ofMinutes(5), 50, 2, 6, Duration.ofMinutes(1), Duration.ofHours(1),
+                Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+
+    private static SmtpMailTransport smtpTransport() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        sender.setDefaultEncoding("UTF-8");
+        return new SmtpMailTransport(sender, "no-reply@sport-events.local");
+    }
+
+    private static Notification notification(Long id, String topic, int repeatCount) {
+        Notification notification = new Notification(topic, "Подробности в карточке события");
+        notification.setId(id);
+        notification.setUserId(7L);
+        notification.setCreationDate(LocalDateTime.of(2026, 10, 18, 18, 0));
+        notification.setRepeatCount(repeatCount);
+        return notification;
+    }
+}
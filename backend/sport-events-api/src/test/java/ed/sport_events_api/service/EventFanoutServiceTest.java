@@ -0,0 +1,165 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.FanoutProgressDTO;
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import ed.sport_events_api.model.enums.FanoutStatus;
+import ed.sport_events_api.repository.EventParticipantRepository;
+import ed.sport_events_api.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EventFanoutServiceTest {
+
+    private final EventParticipantRepository participantRepository = mock(EventParticipantRepository.class);
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private final NotificationBroker broker = mock(NotificationBroker.class);
+    private final EmailDigestService emailDigests = mock(EmailDigestService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Long>> chunks = new ArrayList<>();
+    private EventFanoutService service;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(outboxRepository.deliver(anyList())).thenAnswer(inv -> {
+            List<NotificationOutboxEntry> entries = inv.getArgument(0);
+            chunks.add(entries.stream().map(NotificationOutboxEntry::getUserId).toList());
+            return new NotificationOutboxRepository.Delivery(
+                    entries.stream().map(e -> new Notification()).toList(), List.of());
+        });
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void notifyParticipants_WritesInChunksAndReportsProgress() {
+        service = service(2, 10, 3);
+        when(participantRepository.findParticipantIds(5L)).thenReturn(ids(5));
+
+        service.notifyParticipants(5L, "Матч перенесён", "Новое время 18:00");
+        FanoutProgressDTO progress = await(5L);
+
+        assertEquals(FanoutStatus.DONE, progress.getStatus());
+        assertEquals(5, progress.getTotal());
+        assertEquals(5, progress.getDelivered());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)), chunks);
+        verify(emailDigests, times(3)).enqueue(any());
+        verify(broker, times(5)).publish(any());
+        assertEquals(5, meterRegistry.counter("notifications.fanout.delivered").count());
+    }
+
+    @Test
+    void notifyParticipants_FailedChunk_RetriedFromSameOffset() {
+        service = service(2, 10, 3);
+        when(participantRepository.findParticipantIds(5L)).thenReturn(ids(5));
+        doNothing().doThrow(new CannotAcquireLockException("deadlock")).doNothing()
+                .when(emailDigests).enqueue(any());
+
+        service.notifyParticipants(5L, "Матч перенесён", "18:00");
+        FanoutProgressDTO progress = await(5L);
+
+        assertEquals(FanoutStatus.DONE, progress.getStatus());
+        assertEquals(5, progress.getDelivered());
+        // Вторая порция откатилась и повторена целиком, третья записана после неё
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(3L, 4L), List.of(5L)), chunks);
+        verify(broker, times(5)).publish(any());
+        assertEquals(1, meterRegistry.counter("notifications.fanout.retried").count());
+    }
+
+    @Test
+    void notifyParticipants_AttemptsExhausted_MarksFailedAtLastOffset() {
+        service = service(2, 10, 2);
+        when(participantRepository.findParticipantIds(5L)).thenReturn(ids(5));
+        doNothing().doThrow(new CannotAcquireLockException("deadlock"))
+                .when(emailDigests).enqueue(any());
+
+        service.notifyParticipants(5L, "Матч перенесён", "18:00");
+        FanoutProgressDTO progress = await(5L);
+
+        assertEquals(FanoutStatus.FAILED, progress.getStatus());
+        assertEquals(2, progress.getDelivered());
+        assertEquals(3, chunks.size());
+        verify(broker, times(2)).publish(any());
+    }
+
+    @Test
+    void notifyParticipants_QueueFull_RejectsJob() throws InterruptedException {
+        service = service(2, 1, 3);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(participantRepository.findParticipantIds(anyLong())).thenAnswer(inv -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ids(1);
+        });
+
+        service.notifyParticipants(1L, "Тема", "текст");
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(FanoutStatus.QUEUED, service.notifyParticipants(2L, "Тема", "текст").getStatus());
+        FanoutProgressDTO rejected = service.notifyParticipants(3L, "Тема", "текст");
+        release.countDown();
+
+        assertEquals(FanoutStatus.FAILED, rejected.getStatus());
+        assertNotNull(rejected.getFinishedAt());
+        assertEquals(1, meterRegistry.counter("notifications.fanout.rejected").count());
+        assertEquals(FanoutStatus.DONE, await(2L).getStatus());
+    }
+
+    @Test
+    void backoff_DoublesUpToMax() {
+        service = new EventFanoutService(participantRepository, outboxRepository, broker, emailDigests,
+                transactionTemplate, meterRegistry, 2, 10, Duration.ofHours(1), 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(1), service.backoff(1));
+        assertEquals(Duration.ofSeconds(4), service.backoff(3));
+        assertEquals(Duration.ofSeconds(5), service.backoff(4));
+    }
+
+    private EventFanoutService service(int chunkSize, int queueCapacity, int maxAttempts) {
+        return new EventFanoutService(participantRepository, outboxRepository, broker, emailDigests,
+                transactionTemplate, meterRegistry, chunkSize, queueCapacity, Duration.ofHours(1), maxAttempts,
+                Duration.ofMillis(1), Duration.ofMillis(10));
+    }
+
+    private FanoutProgressDTO await(Long eventId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        FanoutProgressDTO progress = service.getProgress(eventId);
+        // status пишется последним в Job.finish, поэтому ждём именно его
+        while ((progress.getStatus() == FanoutStatus.QUEUED || progress.getStatus() == FanoutStatus.RUNNING)
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            progress = service.getProgress(eventId);
+        }
+        assertNotNull(progress.getFinishedAt(), "fan-out did not finish in time");
+        return progress;
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+}
@@ -1,17 +1,27 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.CursorPage;
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.dto.EventFilter;
+import ed.sport_events_api.dto.ParticipationDTO;
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.exception.CapacityExceededException;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.model.*;
 import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.model.enums.ParticipantRole;
 import ed.sport_events_api.model.enums.SportCategory;
+import ed.sport_events_api.repository.EventParticipantRepository;
 import ed.sport_events_api.repository.EventRepository;
 import ed.sport_events_api.repository.UserRepository;
+import ed.sport_events_api.util.EventCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -24,6 +34,13 @@ public class EventServiceTest {
 
     @Mock private EventRepository eventRepository;
     @Mock private UserRepository userRepository;
+    @Mock private UpcomingEventIndex upcomingEventIndex;
+    @Mock private SeatLedger seatLedger;
+    @Mock private EventParticipantRepository participantRepository;
+    @Mock private EventStatusScheduler statusScheduler;
+    @Mock private VenueScheduleIndex venueScheduleIndex;
+    @Mock private UserCache userCache;
+    @Mock private EventFanoutService eventFanout;
     @InjectMocks private EventService eventService;
 
     private User organizer;
@@ -33,7 +50,7 @@ public class EventServiceTest {
 
     @BeforeEach
     void setUp() {
-        organizer = new User(1L, "org@test.com", "pass", "Organizer", "+123", null, new HashSet<>(), new ArrayList<>());
+        organizer = new User(1L, "org@test.com", "pass", "Organizer", "+123", null, new HashSet<>());
         footballSport = new SportType(1L, "Football", SportCategory.TEAM, "{}", "football.png", 10, 22);
         stadiumVenue = new Venue(1L, "National Stadium", "City, Street 1", "Main stadium", 50000L, "stadium.jpg");
         footballMatch = new Event(
@@ -45,32 +62,59 @@ public class EventServiceTest {
     }
 
     @Test
-    void registerPlayer_ForTeamSport_AddsPlayer() {
-        User player = new User(2L, "player@test.com", "pass", "Player", "+456", null, new HashSet<>(), new ArrayList<>());
-
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(footballMatch));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(player));
-        when(eventRepository.save(any(Event.class))).thenReturn(footballMatch);
-
-        Event result = eventService.registerPlayer(1L, 2L);
+    void registerPlayer_ForTeamSport_InsertsSingleJoinRow() {
+        when(userCache.exists(2L)).thenReturn(true);
+        when(seatLedger.tryReserve(1L, ParticipantRole.PLAYER)).thenReturn(mock(SeatLedger.Reservation.class));
+        when(participantRepository.insert(ParticipantRole.PLAYER, 1L, 2L)).thenReturn(1);
+        when(eventRepository.takePlayerSeat(eq(1L), any(), any())).thenReturn(1);
+        when(eventRepository.findSeatState(1L)).thenReturn(Optional.of(new SeatStateDTO(1L, 1, 0, 0, 22, 50000L)));
+
+        ParticipationDTO result = eventService.registerPlayer(1L, 2L);
+
+        assertTrue(result.isCreated());
+        assertEquals(1, result.getPlayersCount());
+        verify(eventRepository, never()).findById(any());
+        verify(eventRepository, never()).save(any());
+    }
 
-        assertTrue(result.getPlayers().contains(player));
-        assertEquals(1, result.getPlayers().size());
-        verify(eventRepository).save(footballMatch);
+    @Test
+    void registerPlayer_WhenAlreadyRegistered_ReturnsExistingState() {
+        SeatLedger.Reservation reservation = mock(SeatLedger.Reservation.class);
+        when(userCache.exists(2L)).thenReturn(true);
+        when(seatLedger.tryReserve(1L, ParticipantRole.PLAYER)).thenReturn(reservation);
+        when(participantRepository.insert(ParticipantRole.PLAYER, 1L, 2L)).thenReturn(0);
+        when(eventRepository.findSeatState(1L)).thenReturn(Optional.of(new SeatStateDTO(1L, 1, 0, 0, 22, 50000L)));
+
+        ParticipationDTO result = eventService.registerPlayer(1L, 2L);
+
+        assertFalse(result.isCreated());
+        assertEquals(1, result.getPlayersCount());
+        verify(reservation).release();
+        verify(eventRepository, never()).takePlayerSeat(any(), any(), any());
     }
 
     @Test
     void registerSpectator_AddsToSpectatorsList() {
-        User spectator = new User(3L, "spec@test.com", "pass", "Spectator", "+789", null, new HashSet<>(), new ArrayList<>());
+        when(userCache.exists(3L)).thenReturn(true);
+        when(seatLedger.tryReserve(1L, ParticipantRole.SPECTATOR)).thenReturn(mock(SeatLedger.Reservation.class));
+        when(participantRepository.insert(ParticipantRole.SPECTATOR, 1L, 3L)).thenReturn(1);
+        when(eventRepository.takeSpectatorSeat(eq(1L), any())).thenReturn(1);
+        when(eventRepository.findSeatState(1L)).thenReturn(Optional.of(new SeatStateDTO(1L, 0, 1, 0, 22, 50000L)));
 
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(footballMatch));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(spectator));
-        when(eventRepository.save(any(Event.class))).thenReturn(footballMatch);
+        ParticipationDTO result = eventService.registerSpectator(1L, 3L);
 
-        Event result = eventService.registerSpectator(1L, 3L);
+        assertTrue(result.isCreated());
+        assertEquals(1, result.getSpectatorsCount());
+    }
+
+    @Test
+    void participateInEvent_WhenNoSeatsLeft_ThrowsWithoutInserting() {
+        when(userCache.exists(2L)).thenReturn(true);
+        when(seatLedger.tryReserve(1L, ParticipantRole.PLAYER)).thenReturn(null);
 
-        assertTrue(result.getSpectators().contains(spectator));
-        verify(eventRepository).save(footballMatch);
+        assertThrows(CapacityExceededException.class,
+                () -> eventService.participateInEvent(1L, 2L, "player"));
+        verify(participantRepository, never()).insert(any(), any(), any());
     }
 
     @Test
@@ -83,21 +127,27 @@ public class EventServiceTest {
                 EventStatus.CREATED, null
         );
 
-        when(eventRepository.findBySportTypeId(1L)).thenReturn(List.of(footballMatch));
+        EventDTO footballRow = new EventDTO(
+                1L, "Championship Final", "Football match", "cup.png",
+                footballMatch.getStartDate(), footballMatch.getEndDate(), EventStatus.CREATED, null,
+                1L, "Football", 1L, "National Stadium", "City, Street 1", 1L, "Organizer",
+                0, 0, 0
+        );
+
+        when(eventRepository.findPage(isNull(), eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(footballRow));
 
-        List<Event> result = eventService.getEventsBySportType(1L);
+        List<EventDTO> result = eventService.getEventsBySportType(1L);
 
         assertEquals(1, result.size());
-        assertEquals("Football", result.get(0).getSportType().getName());
+        assertEquals("Football", result.get(0).getSportTypeName());
     }
 
     @Test
     void participateInEvent_WithInvalidRole_ThrowsException() {
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(footballMatch));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(organizer));
-
         assertThrows(IllegalArgumentException.class,
                 () -> eventService.participateInEvent(1L, 1L, "invalid_role"));
+        verifyNoInteractions(participantRepository);
     }
 
     @Test
@@ -111,34 +161,126 @@ public class EventServiceTest {
     }
 
     @Test
-    void getUpcomingEvents_ReturnsOnlyFutureEvents() {
-        Event pastEvent = new Event(
-                3L, "Past Event", "Completed", LocalDateTime.now(), "icon.png",
-                LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1).plusHours(2), "1-0",
-                footballSport, organizer, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
-                EventStatus.FINISHED, stadiumVenue
-        );
+    void getEvents_ExtraRow_ReturnsCursorAtLastItem() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 18, 0);
+        when(eventRepository.findPage(null, null, null, null, null, null, null, Limit.of(3)))
+                .thenReturn(List.of(row(1L, start), row(2L, start), row(3L, start.plusHours(1))));
+
+        CursorPage<EventDTO> page = eventService.getEvents(new EventFilter(), null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(EventDTO::getId).toList());
+        assertTrue(page.isHasMore());
+        EventCursor next = EventCursor.decode(page.getNextCursor());
+        assertEquals(start, next.getStartDate());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void getEvents_ExactlyPageSize_HasNoNextCursor() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 18, 0);
+        String cursor = new EventCursor(start, 2L).encode();
+        when(eventRepository.findPage(null, null, null, null, null, start, 2L, Limit.of(3)))
+                .thenReturn(List.of(row(3L, start), row(4L, start.plusHours(1))));
 
-        when(eventRepository.findByStartDateAfter(any(LocalDateTime.class))).thenReturn(List.of(footballMatch));
+        CursorPage<EventDTO> page = eventService.getEvents(new EventFilter(), cursor, 2);
 
-        List<Event> result = eventService.getUpcomingEvents();
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void getEvents_MalformedCursor_ThrowsBeforeQuery() {
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getEvents(new EventFilter(), "garbage!", 20));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void getUpcomingEvents_ServedFromIndexWithClampedLimit() {
+        EventDTO upcoming = new EventDTO();
+        upcoming.setId(1L);
+
+        when(upcomingEventIndex.upcoming(any(LocalDateTime.class), any(LocalDateTime.class), eq(100)))
+                .thenReturn(List.of(upcoming));
+
+        List<EventDTO> result = eventService.getUpcomingEvents(1000, 7);
 
         assertEquals(1, result.size());
-        assertTrue(result.get(0).getStartDate().isAfter(LocalDateTime.now()));
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
     void registerReferee_AddsToRefereesList() {
-        User referee = new User(4L, "ref@test.com", "pass", "Referee", "+321", null, new HashSet<>(), new ArrayList<>());
+        when(userCache.exists(4L)).thenReturn(true);
+        when(seatLedger.tryReserve(1L, ParticipantRole.REFEREE)).thenReturn(mock(SeatLedger.Reservation.class));
+        when(participantRepository.insert(ParticipantRole.REFEREE, 1L, 4L)).thenReturn(1);
+        when(eventRepository.takeRefereeSeat(eq(1L), any())).thenReturn(1);
+        when(eventRepository.findSeatState(1L)).thenReturn(Optional.of(new SeatStateDTO(1L, 0, 0, 1, 22, 50000L)));
+
+        ParticipationDTO result = eventService.registerReferee(1L, 4L);
+
+        assertTrue(result.isCreated());
+        assertEquals(1, result.getRefereesCount());
+    }
+
+    @Test
+    void withdrawParticipant_DeletesSingleRowAndDecrementsCounter() {
+        when(participantRepository.delete(ParticipantRole.SPECTATOR, 1L, 3L)).thenReturn(1);
+
+        eventService.withdrawParticipant(1L, "spectators", 3L);
+
+        verify(eventRepository).adjustSpectatorsCount(1L, -1);
+        verify(seatLedger).release(1L, ParticipantRole.SPECTATOR);
+        verify(eventRepository, never()).findById(any());
+    }
+
+    @Test
+    void withdrawParticipant_WhenNotRegistered_ThrowsNotFound() {
+        when(participantRepository.delete(ParticipantRole.PLAYER, 1L, 2L)).thenReturn(0);
 
+        assertThrows(ResourceNotFoundException.class,
+                () -> eventService.withdrawParticipant(1L, "player", 2L));
+        verify(eventRepository, never()).adjustPlayersCount(any(), anyInt());
+    }
+
+    @Test
+    void updateOne_WhenTimeChanges_NotifiesParticipantsAfterCommit() {
         when(eventRepository.findById(1L)).thenReturn(Optional.of(footballMatch));
-        when(userRepository.findById(4L)).thenReturn(Optional.of(referee));
-        when(eventRepository.save(any(Event.class))).thenReturn(footballMatch);
+        when(eventRepository.save(footballMatch)).thenReturn(footballMatch);
+        Event details = new Event();
+        details.setTitle(footballMatch.getTitle());
+        details.setStatus(EventStatus.CREATED);
+        details.setStartDate(footballMatch.getStartDate().plusHours(3));
+        details.setEndDate(footballMatch.getEndDate().plusHours(3));
+
+        eventService.updateOne(1L, details);
+
+        verify(eventFanout).notifyParticipantsAfterCommit(eq(1L), contains("Championship Final"), startsWith("Новое время"));
+        verify(seatLedger).invalidateAfterCommit(1L);
+        verify(seatLedger, never()).invalidate(any());
+    }
 
-        Event result = eventService.registerReferee(1L, 4L);
+    @Test
+    void updateOne_WhenOnlyDescriptionChanges_DoesNotNotify() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(footballMatch));
+        when(eventRepository.save(footballMatch)).thenReturn(footballMatch);
+        Event details = new Event();
+        details.setTitle(footballMatch.getTitle());
+        details.setDescription("Updated description");
+        details.setStatus(footballMatch.getStatus());
+        details.setStartDate(footballMatch.getStartDate());
+        details.setEndDate(footballMatch.getEndDate());
 
-        assertTrue(result.getReferees().contains(referee));
-        verify(eventRepository).save(footballMatch);
+        eventService.updateOne(1L, details);
+
+        verifyNoInteractions(eventFanout);
     }
 
-}
\ No newline at end of file
+    private static EventDTO row(Long id, LocalDateTime startDate) {
+        EventDTO row = new EventDTO();
+        row.setId(id);
+        row.setStartDate(startDate);
+        return row;
+    }
+}
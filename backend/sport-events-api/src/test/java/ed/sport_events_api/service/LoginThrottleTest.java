@@ -0,0 +1,38 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTest {
+
+    @Test
+    void check_BlocksAccountAfterLimitUntilSuccess() {
+        LoginThrottle throttle = new LoginThrottle(3, 100, Duration.ofMinutes(15), 1000);
+        for (int i = 0; i < 3; i++) {
+            throttle.check("User@Mail", "10.0.0.1");
+            throttle.recordFailure("User@Mail", "10.0.0.1");
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.check("user@mail", "10.0.0.2"));
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= 900);
+        assertDoesNotThrow(() -> throttle.check("other@mail", "10.0.0.1"));
+
+        throttle.recordSuccess("user@mail");
+        assertDoesNotThrow(() -> throttle.check("user@mail", "10.0.0.1"));
+    }
+
+    @Test
+    void check_BlocksAddressAcrossAccounts() {
+        LoginThrottle throttle = new LoginThrottle(100, 2, Duration.ofMinutes(15), 1000);
+        throttle.recordFailure("a@mail", "10.0.0.1");
+        throttle.recordFailure("b@mail", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> throttle.check("c@mail", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.check("c@mail", "10.0.0.2"));
+    }
+}
@@ -0,0 +1,174 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.NotificationDTO;
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationBrokerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Отправленные события в виде "connected" или "имя#id"
+    private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+    private final CountDownLatch sendBlocked = new CountDownLatch(1);
+    private final CountDownLatch sendReleased = new CountDownLatch(1);
+    private volatile boolean blockSends;
+    private final NotificationBroker broker = new NotificationBroker(notificationRepository, meterRegistry,
+            4, Duration.ofMinutes(1), Duration.ofMinutes(5), 100, 2) {
+        @Override
+        SseEmitter createEmitter() {
+            return new RecordingEmitter();
+        }
+    };
+
+    @AfterEach
+    void shutdown() {
+        sendReleased.countDown();
+        broker.shutdown();
+    }
+
+    @Test
+    void subscribe_EvictsOldestStreamsOverPerUserLimit() {
+        broker.subscribe(1L, null);
+        broker.subscribe(1L, null);
+        broker.subscribe(1L, null);
+        broker.subscribe(2L, null);
+
+        assertEquals(3, broker.connectionCount());
+    }
+
+    @Test
+    void publish_ReachesSubscriberWithoutReplay() throws InterruptedException {
+        broker.subscribe(7L, null);
+        assertEquals("connected", next());
+
+        broker.publish(notification(7L, 5L));
+        broker.publishMerged(notification(7L, 3L));
+        broker.publish(notification(8L, 6L));
+
+        assertEquals("notification#5", next());
+        assertEquals("notification-merged#3", next());
+        assertNull(sent.poll(100, TimeUnit.MILLISECONDS));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ReplaysMissedOnceEach() throws InterruptedException {
+        CountDownLatch published = new CountDownLatch(1);
+        when(notificationRepository.findAfter(7L, 10L, Limit.of(100))).thenAnswer(inv -> {
+            // Новые оповещения приходят, пока поток ещё дочитывает пропущенное из БД
+            assertTrue(published.await(5, TimeUnit.SECONDS));
+            return List.of(dto(11L), dto(12L));
+        });
+        when(notificationRepository.findCreationDate(10L, 7L)).thenReturn(Optional.of(NOW));
+        when(notificationRepository.findMergedSince(eq(7L), eq(10L), eq(NOW), any())).thenReturn(List.of(dto(4L)));
+
+        broker.subscribe(7L, 10L);
+        assertEquals("connected", next());
+        broker.publish(notification(7L, 12L));
+        broker.publish(notification(7L, 13L));
+        published.countDown();
+
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            events.add(next());
+        }
+        assertEquals(List.of("notification#11", "notification#12", "notification-merged#4", "notification#13"), events);
+        assertNull(sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_FullBuffer_DropsSlowStream() throws InterruptedException {
+        broker.subscribe(7L, null);
+        assertEquals("connected", next());
+        blockSends = true;
+
+        // Первое уходит в запись и зависает, следующие четыре заполняют буфер
+        broker.publish(notification(7L, 1L));
+        assertTrue(sendBlocked.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 5; id++) {
+            broker.publish(notification(7L, id));
+        }
+        assertEquals(1, broker.connectionCount());
+        broker.publish(notification(7L, 6L));
+
+        assertEquals(0, broker.connectionCount());
+        assertEquals(1, meterRegistry.counter("notifications.stream.dropped").count());
+    }
+
+    @Test
+    void publish_WithoutSubscribers_IsNoOp() {
+        assertDoesNotThrow(() -> broker.publish(notification(7L, 1L)));
+        assertEquals(0, broker.connectionCount());
+    }
+
+    private String next() throws InterruptedException {
+        String event = sent.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "nothing was sent");
+        return event;
+    }
+
+    private static Notification notification(Long userId, Long id) {
+        Notification notification = new Notification("topic", "message");
+        notification.setId(id);
+        notification.setUserId(userId);
+        return notification;
+    }
+
+    private static NotificationDTO dto(Long id) {
+        return new NotificationDTO(id, "topic", "message", false, NOW, 1, null);
+    }
+
+    private final class RecordingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            NotificationDTO notification = null;
+            for (var part : builder.build()) {
+                if (part.getData() instanceof NotificationDTO dto) {
+                    notification = dto;
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            if (notification == null) {
+                if (text.indexOf(":connected") >= 0) {
+                    sent.add("connected");
+                }
+                return;
+            }
+            String name = text.toString().lines().filter(line -> line.startsWith("event:"))
+                    .findFirst().orElseThrow().substring("event:".length());
+            if (blockSends) {
+                sendBlocked.countDown();
+                try {
+                    sendReleased.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            sent.add(name + "#" + notification.getId());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.model.Notification;
+import ed.sport_events_api.model.NotificationOutboxEntry;
+import ed.sport_events_api.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationDispatcherTest {
+
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final NotificationBroker broker = mock(NotificationBroker.class);
+    private final EmailDigestService emailDigests = mock(EmailDigestService.class);
+    // Поток очищает пачку после записи, поэтому храним копии аргументов
+    private final List<List<String>> inserted = new CopyOnWriteArrayList<>();
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            List<NotificationOutboxEntry> entries = inv.getArgument(0);
+            inserted.add(entries.stream().map(NotificationOutboxEntry::getMessage).toList());
+            return null;
+        }).when(outboxRepository).insertBatch(anyList());
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void enqueue_InTransaction_WritesOutboxRowImmediately() {
+        dispatcher = dispatcher(10);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            dispatcher.enqueue(7L, "Матч", "перенесён");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(List.of(List.of("перенесён")), inserted);
+    }
+
+    @Test
+    void enqueue_OutsideTransaction_WrittenByWorkerInOneBatch() throws InterruptedException {
+        dispatcher = dispatcher(10);
+        dispatcher.enqueue(7L, "Матч", "первое");
+        dispatcher.enqueue(8L, "Матч", "второе");
+        assertTrue(inserted.isEmpty());
+
+        dispatcher.start();
+        dispatcher.stop();
+
+        assertEquals(List.of(List.of("первое", "второе")), inserted);
+    }
+
+    @Test
+    void enqueue_QueueFull_FallsBackToDirectInsert() {
+        dispatcher = dispatcher(1);
+        dispatcher.enqueue(7L, "Матч", "в очереди");
+        dispatcher.enqueue(7L, "Матч", "не влезло");
+
+        assertEquals(List.of(List.of("не влезло")), inserted);
+    }
+
+    @Test
+    void drain_InsertFails_RetriesSameBatch() throws InterruptedException {
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .doAnswer(inv -> {
+                    List<NotificationOutboxEntry> entries = inv.getArgument(0);
+                    inserted.add(entries.stream().map(NotificationOutboxEntry::getMessage).toList());
+                    return null;
+                })
+                .when(outboxRepository).insertBatch(anyList());
+        dispatcher = dispatcher(10);
+        dispatcher.enqueue(7L, "Матч", "перенесён");
+
+        dispatcher.start();
+        verify(outboxRepository, timeout(5000).times(2)).insertBatch(anyList());
+        dispatcher.stop();
+
+        assertEquals(List.of(List.of("перенесён")), inserted);
+    }
+
+    @Test
+    void drain_InsertKeepsFailing_GivesUpAfterMaxAttempts() throws InterruptedException {
+        doThrow(new TransientDataAccessResourceException("connection reset"))
+                .when(outboxRepository).insertBatch(anyList());
+        dispatcher = dispatcher(10);
+        dispatcher.enqueue(7L, "Матч", "перенесён");
+
+        dispatcher.start();
+        dispatcher.stop();
+
+        verify(outboxRepository, times(3)).insertBatch(anyList());
+    }
+
+    @Test
+    void relay_DeliversOutboxAndPublishesAfterCommit() throws InterruptedException {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry();
+        entry.setId(11L);
+        Notification created = new Notification();
+        Notification merged = new Notification();
+        NotificationOutboxRepository.Delivery delivery =
+                new NotificationOutboxRepository.Delivery(List.of(created), List.of(merged));
+        when(outboxRepository.findBatch(10)).thenReturn(List.of(entry), List.of());
+        when(outboxRepository.deliver(List.of(entry))).thenReturn(delivery);
+        dispatcher = dispatcher(10);
+
+        dispatcher.start();
+        verify(broker, timeout(5000)).publishMerged(merged);
+        dispatcher.stop();
+
+        verify(emailDigests).enqueue(delivery);
+        verify(outboxRepository).deleteByIds(List.of(11L));
+        verify(broker).publish(created);
+    }
+
+    @Test
+    void backoff_DoublesUpToMax() {
+        dispatcher = new NotificationDispatcher(outboxRepository, transactionTemplate, broker, emailDigests,
+                10, 10, Duration.ofMillis(10), 5, Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(2), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(5), dispatcher.backoff(4));
+    }
+
+    private NotificationDispatcher dispatcher(int queueCapacity) {
+        return new NotificationDispatcher(outboxRepository, transactionTemplate, broker, emailDigests,
+                queueCapacity, 10, Duration.ofMillis(10), 3, Duration.ofMillis(1), Duration.ofMillis(10));
+    }
+}
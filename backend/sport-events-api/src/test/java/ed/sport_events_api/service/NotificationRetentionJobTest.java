@@ -0,0 +1,110 @@
+package ed.sport_events_api.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationRetentionJobTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, unread_notifications INT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE notifications_t (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT, " +
+                "topic VARCHAR(255), message VARCHAR(255), is_read BOOLEAN, creation_date TIMESTAMP, " +
+                "repeat_count INT NOT NULL DEFAULT 1, last_repeated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO users (id, unread_notifications) VALUES (1, 2), (2, 1)");
+    }
+
+    @Test
+    void deleteBatch_RemovesOldReadAndExpiredUnread() {
+        notification(1L, true, 40);
+        notification(1L, true, 1);
+        notification(1L, false, 40);
+        notification(1L, false, 200);
+        notification(2L, false, 1);
+
+        int deleted = job(dataSource, 100).deleteBatch(NOW);
+
+        assertEquals(2, deleted);
+        assertEquals(3, count());
+        // Истёкшее непрочитанное уменьшает счётчик, прочитанное — нет
+        assertEquals(1, unread(1L));
+        assertEquals(1, unread(2L));
+        assertEquals(1, meterRegistry.counter("notifications.retention.deleted", "reason", "read").count());
+        assertEquals(1, meterRegistry.counter("notifications.retention.deleted", "reason", "expired").count());
+    }
+
+    @Test
+    void run_DeletesInBatchesUntilNothingLeft() {
+        for (int i = 0; i < 5; i++) {
+            notification(2L, true, 40);
+        }
+        notification(2L, true, 1);
+
+        job(dataSource, 2).run();
+
+        assertEquals(1, count());
+        assertEquals(5, meterRegistry.counter("notifications.retention.deleted", "reason", "read").count());
+    }
+
+    @Test
+    void run_PoolBusy_BacksOffWithoutDeleting() throws Exception {
+        notification(1L, true, 40);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(pool.getTotalConnections()).thenReturn(10);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        when(hikari.getHikariPoolMXBean()).thenReturn(pool);
+        DataSource busy = mock(DataSource.class);
+        when(busy.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(busy.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        job(busy, 100).run();
+
+        assertTrue(meterRegistry.counter("notifications.retention.throttled").count() >= 1);
+        assertEquals(1, count());
+    }
+
+    private NotificationRetentionJob job(DataSource poolSource, int batchSize) {
+        return new NotificationRetentionJob(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), poolSource, meterRegistry,
+                Duration.ofDays(30), Duration.ofDays(180), batchSize, Duration.ofMillis(1), Duration.ofMillis(300), 0.5);
+    }
+
+    private void notification(Long userId, boolean read, int daysAgo) {
+        Timestamp created = Timestamp.valueOf(NOW.minusDays(daysAgo));
+        jdbcTemplate.update("INSERT INTO notifications_t (user_id, topic, message, is_read, creation_date, last_repeated_at) " +
+                "VALUES (?, 'Тема', 'текст', ?, ?, ?)", userId, read, created, created);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_t", Integer.class);
+    }
+
+    private int unread(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT unread_notifications FROM users WHERE id = ?", Integer.class, userId);
+    }
+}
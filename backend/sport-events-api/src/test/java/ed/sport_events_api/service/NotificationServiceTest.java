@@ -0,0 +1,87 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.CursorPage;
+import ed.sport_events_api.dto.NotificationDTO;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.repository.NotificationRepository;
+import ed.sport_events_api.util.NotificationCursor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationServiceTest {
+    @Mock private NotificationRepository notificationRepository;
+    @InjectMocks private NotificationService notificationService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Test void getInbox_FetchesOneExtraRowForNextCursor() {
+        List<NotificationDTO> rows = List.of(
+                new NotificationDTO(3L, "a", "m", false, now, 1, null),
+                new NotificationDTO(2L, "b", "m", true, now, 1, null),
+                new NotificationDTO(1L, "c", "m", false, now.minusDays(1), 1, null));
+        when(notificationRepository.findPage(1L, null, null, Limit.of(3))).thenReturn(rows);
+
+        CursorPage<NotificationDTO> page = notificationService.getInbox(1L, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        NotificationCursor next = NotificationCursor.decode(page.getNextCursor());
+        assertEquals(now, next.getCreationDate());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test void getInbox_InvalidCursor_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> notificationService.getInbox(1L, "###", 20));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test void markAsRead_LocksCounterThenDecrements() {
+        when(notificationRepository.lockUnreadCounter(1L)).thenReturn(3);
+        when(notificationRepository.markRead(10L, 1L)).thenReturn(1);
+
+        notificationService.markAsRead(1L, 10L);
+
+        InOrder order = inOrder(notificationRepository);
+        order.verify(notificationRepository).lockUnreadCounter(1L);
+        order.verify(notificationRepository).markRead(10L, 1L);
+        order.verify(notificationRepository).addUnread(1L, -1);
+    }
+
+    @Test void markAsRead_AlreadyRead_KeepsCounter() {
+        when(notificationRepository.lockUnreadCounter(1L)).thenReturn(0);
+        when(notificationRepository.markRead(10L, 1L)).thenReturn(0);
+        when(notificationRepository.findReadFlag(10L, 1L)).thenReturn(Optional.of(true));
+
+        notificationService.markAsRead(1L, 10L);
+
+        verify(notificationRepository, never()).addUnread(anyLong(), anyInt());
+    }
+
+    @Test void deleteNotification_OfAnotherUser_Throws() {
+        when(notificationRepository.lockUnreadCounter(1L)).thenReturn(0);
+        when(notificationRepository.findReadFlag(10L, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> notificationService.deleteNotification(1L, 10L));
+        verify(notificationRepository, never()).deleteOwned(anyLong(), anyLong());
+    }
+
+    @Test void deleteAll_ResetsCounter() {
+        when(notificationRepository.lockUnreadCounter(1L)).thenReturn(5);
+        when(notificationRepository.deleteAllByUserId(1L)).thenReturn(7);
+
+        assertEquals(7, notificationService.deleteAll(1L));
+        verify(notificationRepository).resetUnread(1L);
+    }
+}
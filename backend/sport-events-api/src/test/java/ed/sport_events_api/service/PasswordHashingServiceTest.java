@@ -0,0 +1,98 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.exception.TooManyRequestsException;
+import ed.sport_events_api.util.PasswordEncoderImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_RunOnHashingPool() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        AtomicReference<String> hashingThread = new AtomicReference<>();
+        when(encoder.encode(any())).thenAnswer(inv -> {
+            hashingThread.set(Thread.currentThread().getName());
+            return "hash";
+        });
+        when(encoder.matches("secret", "hash")).thenReturn(true);
+        service = new PasswordHashingService(encoder, 2, 4, Duration.ofSeconds(5));
+
+        assertEquals("hash", service.encode("secret"));
+        assertTrue(service.matches("secret", "hash"));
+        assertTrue(hashingThread.get().startsWith("password-hashing-"));
+    }
+
+    @Test
+    void encode_QueueFull_RejectsWithoutWaiting() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(started), 1, 1, Duration.ofSeconds(5));
+        service.rehashAsync("first", hash -> {
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        service.rehashAsync("queued", hash -> {
+        });
+
+        long before = System.nanoTime();
+        assertThrows(TooManyRequestsException.class, () -> service.encode("secret"));
+        assertTrue(System.nanoTime() - before < TimeUnit.SECONDS.toNanos(1));
+        // Отложенный пересчёт при занятом пуле не бросает исключение
+        assertDoesNotThrow(() -> service.rehashAsync("dropped", hash -> fail("must not run")));
+    }
+
+    @Test
+    void encode_SlowHashing_TimesOut() {
+        service = new PasswordHashingService(blockingEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50));
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> service.encode("secret"));
+        assertEquals(1, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void rehashAsync_HandsNewHashToCallback() throws InterruptedException {
+        service = new PasswordHashingService(new PasswordEncoderImpl(4), 1, 1, Duration.ofSeconds(5));
+        AtomicReference<String> stored = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        service.rehashAsync("secret", hash -> {
+            stored.set(hash);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(service.matches("secret", stored.get()));
+        assertFalse(service.needsRehash(stored.get()));
+        assertTrue(service.needsRehash("secret1"));
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "hash";
+        });
+        return encoder;
+    }
+}
@@ -0,0 +1,116 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.RegistrationTicketDTO;
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.model.enums.TicketStatus;
+import ed.sport_events_api.repository.EventParticipantRepository;
+import ed.sport_events_api.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RegistrationRushServiceTest {
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final UserCache userCache = mock(UserCache.class);
+    private final EventParticipantRepository participantRepository = mock(EventParticipantRepository.class);
+    private final UpcomingEventIndex upcomingEventIndex = mock(UpcomingEventIndex.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private SeatLedger seatLedger;
+    private RegistrationRushService service;
+
+    @BeforeEach
+    void setUp() {
+        // Ledger на этом узле считает, что мест ещё много
+        when(eventRepository.findSeatState(1L)).thenReturn(Optional.of(new SeatStateDTO(1L, 0, 0, 0, 11, 100L)));
+        when(userCache.exists(anyLong())).thenReturn(true);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        seatLedger = new SeatLedger(eventRepository, 100);
+        service = new RegistrationRushService(eventRepository, userCache, participantRepository, seatLedger,
+                upcomingEventIndex, transactionTemplate, 100, 50, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void drainBatch_SeatTakenElsewhere_RejectsInsteadOfOverbooking() throws InterruptedException {
+        RegistrationTicketDTO first = service.enqueue(1L, 10L, ParticipantRole.PLAYER);
+        RegistrationTicketDTO second = service.enqueue(1L, 11L, ParticipantRole.PLAYER);
+        when(participantRepository.insertBatch(eq(ParticipantRole.PLAYER), anyList()))
+                .thenReturn(new boolean[]{true, true});
+        // Другой узел успел занять последнее место: условный UPDATE второй строки ничего не меняет
+        when(participantRepository.takeSeats(eq(ParticipantRole.PLAYER), anyList()))
+                .thenReturn(new boolean[]{true, false});
+
+        assertTrue(service.drainBatch(0, TimeUnit.MILLISECONDS));
+
+        assertEquals(TicketStatus.CONFIRMED, service.getTicket(first.getTicketId()).getStatus());
+        assertEquals(TicketStatus.REJECTED, service.getTicket(second.getTicketId()).getStatus());
+        verify(participantRepository).deleteBatch(eq(ParticipantRole.PLAYER),
+                argThat(rows -> rows.size() == 1 && rows.get(0)[0] == 1L && rows.get(0)[1] == 11L));
+        verify(participantRepository).takeSeats(eq(ParticipantRole.PLAYER),
+                argThat(rows -> rows.size() == 2 && Arrays.equals(rows.get(0), new Object[]{1L, 11, 100L})));
+        verify(upcomingEventIndex).refresh(1L);
+        // Ledger сброшен и при следующей заявке перечитает состояние из БД
+        assertEquals(0, seatLedger.seatsFor(1L).taken(ParticipantRole.PLAYER));
+        verify(eventRepository, times(2)).findSeatState(1L);
+    }
+
+    @Test
+    void drainBatch_BatchFails_FailsOnlyTicketsThatCouldNotBeWritten() throws InterruptedException {
+        RegistrationTicketDTO first = service.enqueue(1L, 10L, ParticipantRole.PLAYER);
+        RegistrationTicketDTO broken = service.enqueue(1L, 11L, ParticipantRole.PLAYER);
+        RegistrationTicketDTO third = service.enqueue(1L, 12L, ParticipantRole.PLAYER);
+        when(participantRepository.insertBatch(eq(ParticipantRole.PLAYER), anyList())).thenAnswer(inv -> {
+            List<long[]> rows = inv.getArgument(1);
+            if (rows.stream().anyMatch(row -> row[1] == 11L)) {
+                throw new DataIntegrityViolationException("user 11 was deleted");
+            }
+            return new boolean[]{true};
+        });
+        when(participantRepository.takeSeats(eq(ParticipantRole.PLAYER), anyList())).thenReturn(new boolean[]{true});
+
+        service.drainBatch(0, TimeUnit.MILLISECONDS);
+
+        assertEquals(TicketStatus.CONFIRMED, service.getTicket(first.getTicketId()).getStatus());
+        assertEquals(TicketStatus.FAILED, service.getTicket(broken.getTicketId()).getStatus());
+        assertEquals(TicketStatus.CONFIRMED, service.getTicket(third.getTicketId()).getStatus());
+        // Освобождено только место упавшего билета
+        assertEquals(2, seatLedger.seatsFor(1L).taken(ParticipantRole.PLAYER));
+    }
+
+    @Test
+    void drainBatch_PostCommitFailure_KeepsCommittedTickets() throws InterruptedException {
+        RegistrationTicketDTO ticket = service.enqueue(1L, 10L, ParticipantRole.SPECTATOR);
+        when(participantRepository.insertBatch(eq(ParticipantRole.SPECTATOR), anyList())).thenReturn(new boolean[]{true});
+        when(participantRepository.takeSeats(eq(ParticipantRole.SPECTATOR), anyList())).thenReturn(new boolean[]{true});
+        doThrow(new IllegalStateException("index unavailable")).when(upcomingEventIndex).refresh(1L);
+
+        service.drainBatch(0, TimeUnit.MILLISECONDS);
+
+        assertEquals(TicketStatus.CONFIRMED, service.getTicket(ticket.getTicketId()).getStatus());
+        assertEquals(1, seatLedger.seatsFor(1L).taken(ParticipantRole.SPECTATOR));
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+    }
+
+    @Test
+    void drainBatch_EmptyQueue_ReturnsFalse() throws InterruptedException {
+        assertFalse(service.drainBatch(0, TimeUnit.MILLISECONDS));
+        verifyNoInteractions(participantRepository);
+    }
+}
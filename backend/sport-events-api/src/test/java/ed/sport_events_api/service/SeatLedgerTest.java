@@ -0,0 +1,106 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SeatStateDTO;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SeatLedgerTest {
+
+    private SeatLedger ledgerFor(SeatStateDTO state) {
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findSeatState(state.getEventId())).thenReturn(Optional.of(state));
+        return new SeatLedger(eventRepository, 100);
+    }
+
+    @Test
+    void tryReserve_RespectsSportPlayerLimit() {
+        SeatLedger ledger = ledgerFor(new SeatStateDTO(1L, 10, 0, 0, 11, null));
+
+        assertNotNull(ledger.tryReserve(1L, ParticipantRole.PLAYER));
+        assertNull(ledger.tryReserve(1L, ParticipantRole.PLAYER));
+        assertNotNull(ledger.tryReserve(1L, ParticipantRole.SPECTATOR));
+    }
+
+    @Test
+    void tryReserve_VenueCapacityCoversAllRoles() {
+        SeatLedger ledger = ledgerFor(new SeatStateDTO(1L, 1, 1, 0, null, 3L));
+
+        assertNotNull(ledger.tryReserve(1L, ParticipantRole.REFEREE));
+        assertNull(ledger.tryReserve(1L, ParticipantRole.SPECTATOR));
+        assertNull(ledger.tryReserve(1L, ParticipantRole.PLAYER));
+    }
+
+    @Test
+    void release_FreesSeatOnlyOnce() {
+        SeatLedger ledger = ledgerFor(new SeatStateDTO(1L, 0, 0, 0, 1, null));
+
+        SeatLedger.Reservation reservation = ledger.tryReserve(1L, ParticipantRole.PLAYER);
+        reservation.release();
+        reservation.release();
+
+        assertEquals(0, ledger.seatsFor(1L).taken(ParticipantRole.PLAYER));
+        assertNotNull(ledger.tryReserve(1L, ParticipantRole.PLAYER));
+    }
+
+    @Test
+    void invalidateAfterCommit_KeepsSeatsUntilCommit() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findSeatState(1L)).thenReturn(
+                Optional.of(new SeatStateDTO(1L, 1, 0, 0, 11, null)),
+                Optional.of(new SeatStateDTO(1L, 1, 0, 0, 2, null)));
+        SeatLedger ledger = new SeatLedger(eventRepository, 100);
+        assertEquals(11, ledger.seatsFor(1L).getMaxPlayers());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ledger.invalidateAfterCommit(1L);
+            assertEquals(11, ledger.seatsFor(1L).getMaxPlayers());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2, ledger.seatsFor(1L).getMaxPlayers());
+        verify(eventRepository, times(2)).findSeatState(1L);
+    }
+
+    @Test
+    void tryReserve_ConcurrentRushNeverOverbooks() throws InterruptedException {
+        SeatLedger ledger = ledgerFor(new SeatStateDTO(1L, 0, 0, 0, null, 500L));
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        for (int i = 0; i < 5000; i++) {
+            ParticipantRole role = ParticipantRole.values()[i % 3];
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (ledger.tryReserve(1L, role) != null) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(500, granted.get());
+    }
+}
@@ -0,0 +1,137 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SessionRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SessionStoreTest {
+
+    private final SessionBackend backend = mock(SessionBackend.class);
+
+    @BeforeEach
+    void setUp() {
+        when(backend.touch(any(), any())).thenReturn(true);
+    }
+
+    private SessionStore store(Duration touchInterval) {
+        return new SessionStore(backend, 1000, Duration.ofMinutes(30), Duration.ofHours(12), touchInterval);
+    }
+
+    @Test
+    void create_SavesHashAndResolvesFromCache() {
+        SessionStore store = store(Duration.ofMinutes(1));
+
+        String token = store.create(7L, 3);
+
+        SessionRecord record = store.find(token).orElseThrow();
+        assertEquals(7L, record.getUserId());
+        assertEquals(3, record.getRolesMask());
+        // В backend уходит только хэш токена, повторное чтение идёт из кэша
+        verify(backend).save(eq(SessionStore.hash(token)), any(), any());
+        verify(backend, never()).find(any());
+    }
+
+    @Test
+    void find_NotCached_LoadsFromBackend() {
+        LocalDateTime now = LocalDateTime.now();
+        when(backend.find(SessionStore.hash("token"))).thenReturn(Optional.of(
+                new SessionBackend.StoredSession(new SessionRecord(7L, 1, now.minusHours(1)), now.minusMinutes(5))));
+        SessionStore store = store(Duration.ofMinutes(1));
+
+        assertEquals(7L, store.find("token").orElseThrow().getUserId());
+        assertEquals(7L, store.find("token").orElseThrow().getUserId());
+        assertTrue(store.find("unknown").isEmpty());
+        verify(backend, times(1)).find(SessionStore.hash("token"));
+    }
+
+    @Test
+    void find_IdleOrAbsoluteTtlPassed_ReturnsEmpty() {
+        LocalDateTime now = LocalDateTime.now();
+        stored("idle", now.minusHours(1), now.minusMinutes(31));
+        stored("old", now.minusHours(13), now.minusMinutes(1));
+        stored("fresh", now.minusHours(11), now.minusMinutes(29));
+        SessionStore store = store(Duration.ofMinutes(1));
+
+        assertTrue(store.find("idle").isEmpty());
+        assertTrue(store.find("old").isEmpty());
+        assertTrue(store.find("fresh").isPresent());
+    }
+
+    @Test
+    void find_TouchesBackendNoMoreThanInterval() {
+        SessionStore store = store(Duration.ofMinutes(1));
+        String token = store.create(7L, 1);
+        store.find(token);
+        store.find(token);
+        verify(backend, never()).touch(any(), any());
+
+        stored("stale", LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(2));
+        store.find("stale");
+        store.find("stale");
+        verify(backend, times(1)).touch(eq(SessionStore.hash("stale")), any());
+    }
+
+    @Test
+    void find_SessionEndedOnAnotherNode_DroppedAtNextTouch() {
+        SessionStore store = store(Duration.ZERO);
+        String token = store.create(7L, 1);
+        assertTrue(store.find(token).isPresent());
+
+        // Другой узел удалил запись: touch больше ничего не находит
+        when(backend.touch(eq(SessionStore.hash(token)), any())).thenReturn(false);
+
+        assertTrue(store.find(token).isEmpty());
+        assertTrue(store.find(token).isEmpty());
+        verify(backend).find(SessionStore.hash(token));
+    }
+
+    @Test
+    void invalidate_RemovesFromCacheAndBackend() {
+        SessionStore store = store(Duration.ofMinutes(1));
+        String token = store.create(7L, 1);
+
+        store.invalidate(token);
+
+        assertTrue(store.find(token).isEmpty());
+        verify(backend).delete(SessionStore.hash(token));
+    }
+
+    @Test
+    void invalidateUser_EndsOnlyThatUsersSessions() {
+        SessionStore store = store(Duration.ofMinutes(1));
+        String first = store.create(7L, 1);
+        String second = store.create(7L, 1);
+        String other = store.create(8L, 1);
+
+        store.invalidateUser(7L);
+
+        assertTrue(store.find(first).isEmpty());
+        assertTrue(store.find(second).isEmpty());
+        assertTrue(store.find(other).isPresent());
+        verify(backend).deleteByUser(7L);
+    }
+
+    @Test
+    void cleanup_DeletesByIdleAndAbsoluteThresholds() {
+        LocalDateTime before = LocalDateTime.now();
+
+        store(Duration.ofMinutes(1)).cleanup();
+
+        verify(backend).deleteExpired(
+                argThat(issued -> !issued.isBefore(before.minusHours(12)) && issued.isBefore(before.minusHours(11))),
+                argThat(idle -> !idle.isBefore(before.minusMinutes(30)) && idle.isBefore(before.minusMinutes(29))));
+    }
+
+    private void stored(String token, LocalDateTime issuedAt, LocalDateTime lastSeenAt) {
+        when(backend.find(SessionStore.hash(token))).thenReturn(Optional.of(
+                new SessionBackend.StoredSession(new SessionRecord(7L, 1, issuedAt), lastSeenAt)));
+    }
+}
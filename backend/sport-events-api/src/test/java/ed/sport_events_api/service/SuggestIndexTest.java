@@ -0,0 +1,63 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.SuggestionDTO;
+import ed.sport_events_api.model.enums.SuggestionType;
+import ed.sport_events_api.repository.TeamRepository;
+import ed.sport_events_api.repository.UserRepository;
+import ed.sport_events_api.repository.VenueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SuggestIndexTest {
+
+    private SuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestIndex(mock(UserRepository.class), mock(VenueRepository.class), mock(TeamRepository.class));
+    }
+
+    private List<Long> ids(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getId).toList();
+    }
+
+    @Test
+    void suggest_MatchesNameWordsAndEmailOncePerEntity() {
+        index.put(new SuggestionDTO(SuggestionType.USER, 1L, "Иван Петров", "ivan@example.com"));
+        index.put(new SuggestionDTO(SuggestionType.USER, 2L, "Пётр Иванов", "petr@example.com"));
+
+        assertEquals(List.of(2L), ids(index.suggest("иванов", SuggestionType.USER, 10)));
+        assertEquals(List.of(1L), ids(index.suggest("IVAN@", null, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.suggest("Иван", SuggestionType.USER, 10)));
+        assertTrue(index.suggest("  ", null, 10).isEmpty());
+    }
+
+    @Test
+    void put_RenamedEntityDropsOldTerms() {
+        index.put(new SuggestionDTO(SuggestionType.TEAM, 1L, "Динамо", null));
+        index.put(new SuggestionDTO(SuggestionType.TEAM, 1L, "Спартак", null));
+
+        assertTrue(index.suggest("дин", null, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.suggest("спар", SuggestionType.TEAM, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void suggest_FiltersByTypeAndRespectsLimit() {
+        index.put(new SuggestionDTO(SuggestionType.VENUE, 1L, "Стадион Север", "ул. Ленина, 1"));
+        index.put(new SuggestionDTO(SuggestionType.TEAM, 1L, "Северяне", null));
+        index.put(new SuggestionDTO(SuggestionType.TEAM, 2L, "Северный ветер", null));
+
+        assertEquals(3, index.suggest("север", null, 10).size());
+        assertEquals(2, index.suggest("север", null, 2).size());
+        assertEquals(List.of(1L), ids(index.suggest("север", SuggestionType.VENUE, 10)));
+
+        index.remove(SuggestionType.VENUE, 1L);
+        assertTrue(index.suggest("стад", null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.TeamMemberDTO;
+import ed.sport_events_api.dto.TeamSummaryDTO;
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.repository.TeamMemberRepository;
+import ed.sport_events_api.repository.TeamRepository;
+import ed.sport_events_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TeamServiceImplTest {
+    @Mock private TeamRepository teamRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private TeamMemberRepository teamMemberRepository;
+    @Mock private AuthServiceImpl authService;
+    @Mock private SuggestIndex suggestIndex;
+    @InjectMocks private TeamServiceImpl teamService;
+
+    @Test
+    void getTeams_ClampsPageSizeAndSortsByNameThenId() {
+        TeamSummaryDTO team = new TeamSummaryDTO(1L, "Alpha", null, 2L, "John", 3);
+        when(teamRepository.findSummaries(any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(team), inv.getArgument(0), 1));
+
+        PageResponse<TeamSummaryDTO> result = teamService.getTeams(-1, 1000);
+
+        assertEquals(3, result.getItems().get(0).getMemberCount());
+        verify(teamRepository).findSummaries(PageRequest.of(0, 100, Sort.by("name").and(Sort.by("id"))));
+    }
+
+    @Test
+    void getMembers_ReturnsRosterPage() {
+        TeamMemberDTO member = new TeamMemberDTO(5L, 2L, "John", null, "Капитан", LocalDateTime.now());
+        when(teamRepository.existsById(1L)).thenReturn(true);
+        when(teamMemberRepository.findRoster(eq(1L), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(member), inv.getArgument(1), 1));
+
+        PageResponse<TeamMemberDTO> result = teamService.getMembers(1L, null, null);
+
+        assertEquals(List.of(member), result.getItems());
+        assertEquals(20, result.getSize());
+    }
+
+    @Test
+    void getMembers_UnknownTeam_Throws() {
+        when(teamRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> teamService.getMembers(1L, 0, 20));
+        verifyNoInteractions(teamMemberRepository);
+    }
+}
@@ -0,0 +1,75 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.EventDTO;
+import ed.sport_events_api.model.enums.EventStatus;
+import ed.sport_events_api.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class UpcomingEventIndexTest {
+
+    private UpcomingEventIndex index;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        index = new UpcomingEventIndex(mock(EventRepository.class));
+        now = LocalDateTime.now();
+    }
+
+    private EventDTO event(long id, LocalDateTime start, EventStatus status) {
+        EventDTO event = new EventDTO();
+        event.setId(id);
+        event.setStartDate(start);
+        event.setStatus(status);
+        return event;
+    }
+
+    @Test
+    void upcoming_ReturnsOnlyFutureEventsInStartOrder() {
+        index.put(event(1L, now.plusDays(2), EventStatus.CREATED));
+        index.put(event(2L, now.minusDays(1), EventStatus.STARTED));
+        index.put(event(3L, now.plusDays(1), EventStatus.CREATED));
+
+        List<EventDTO> result = index.upcoming(now, now.plusDays(30), 10);
+
+        assertEquals(List.of(3L, 1L), result.stream().map(EventDTO::getId).toList());
+    }
+
+    @Test
+    void upcoming_RespectsLimitAndWindow() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(event(id, now.plusDays(id), EventStatus.CREATED));
+        }
+
+        assertEquals(2, index.upcoming(now, now.plusDays(30), 2).size());
+        assertEquals(3, index.upcoming(now, now.plusDays(3).plusHours(1), 10).size());
+    }
+
+    @Test
+    void put_RescheduledEventMovesInsteadOfDuplicating() {
+        index.put(event(1L, now.plusDays(5), EventStatus.CREATED));
+        index.put(event(1L, now.plusDays(1), EventStatus.CREATED));
+
+        List<EventDTO> result = index.upcoming(now, now.plusDays(30), 10);
+
+        assertEquals(1, result.size());
+        assertEquals(now.plusDays(1), result.get(0).getStartDate());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void put_FinishedOrCanceledEventIsRemoved() {
+        index.put(event(1L, now.plusDays(1), EventStatus.CREATED));
+        index.put(event(1L, now.plusDays(1), EventStatus.CANCELED));
+
+        assertTrue(index.upcoming(now, now.plusDays(30), 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
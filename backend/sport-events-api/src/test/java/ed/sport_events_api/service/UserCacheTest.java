@@ -0,0 +1,83 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.dto.UserSnapshot;
+import ed.sport_events_api.model.enums.ERole;
+import ed.sport_events_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCache cache = new UserCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    void findByEmail_LoadsOnceAndServesFromCache() {
+        when(userRepository.findIdByEmail("ann@example.com")).thenReturn(Optional.of(7L));
+        when(userRepository.findSnapshotRows(7L)).thenReturn(List.of(snapshot("ann@example.com", "Ann")));
+
+        assertEquals("Ann", cache.findByEmail("ann@example.com").orElseThrow().getName());
+        assertEquals("Ann", cache.findByEmail("ann@example.com").orElseThrow().getName());
+        assertTrue(cache.exists(7L));
+
+        verify(userRepository, times(1)).findIdByEmail("ann@example.com");
+        verify(userRepository, times(1)).findSnapshotRows(7L);
+    }
+
+    @Test
+    void findByEmail_ChangedEmail_DoesNotReturnOtherUser() {
+        when(userRepository.findIdByEmail("ann@example.com")).thenReturn(Optional.of(7L), Optional.empty());
+        when(userRepository.findSnapshotRows(7L)).thenReturn(
+                List.of(snapshot("ann@example.com", "Ann")), List.of(snapshot("anna@example.com", "Ann")));
+
+        assertTrue(cache.findByEmail("ann@example.com").isPresent());
+        cache.invalidate(7L);
+
+        assertTrue(cache.findByEmail("ann@example.com").isEmpty());
+        assertEquals("anna@example.com", cache.findById(7L).orElseThrow().getEmail());
+    }
+
+    @Test
+    void invalidate_DuringLoad_DoesNotLeaveStaleSnapshot() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(userRepository.findIdByEmail("ann@example.com")).thenReturn(Optional.of(7L));
+        when(userRepository.findSnapshotRows(7L))
+                .thenAnswer(inv -> {
+                    loading.countDown();
+                    assertTrue(proceed.await(5, TimeUnit.SECONDS));
+                    return List.of(snapshot("ann@example.com", "Old name"));
+                })
+                .thenReturn(List.of(snapshot("ann@example.com", "New name")));
+
+        Thread reader = new Thread(() -> cache.findByEmail("ann@example.com"));
+        reader.start();
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Сброс после коммита обновления приходит, пока старое состояние ещё читается
+        Thread writer = new Thread(() -> cache.invalidate(7L));
+        writer.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getState() != Thread.State.BLOCKED && writer.isAlive() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        proceed.countDown();
+        reader.join(5000);
+        writer.join(5000);
+
+        assertEquals("New name", cache.findById(7L).orElseThrow().getName());
+    }
+
+    private static UserSnapshot snapshot(String email, String name) {
+        return new UserSnapshot(7L, email, name, null, null, ERole.PLAYER);
+    }
+}
@@ -0,0 +1,130 @@
+package ed.sport_events_api.service;
+
+import ed.sport_events_api.exception.ResourceNotFoundException;
+import ed.sport_events_api.model.enums.ParticipantRole;
+import ed.sport_events_api.repository.UserCleanupRepository;
+import ed.sport_events_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UserPurgeServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCleanupRepository cleanupRepository = mock(UserCleanupRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final AccessTokenService accessTokenService = mock(AccessTokenService.class);
+    private final SeatLedger seatLedger = mock(SeatLedger.class);
+    private final UpcomingEventIndex upcomingEventIndex = mock(UpcomingEventIndex.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final UserPurgeService service = new UserPurgeService(userRepository, cleanupRepository, userService,
+            accessTokenService, seatLedger, upcomingEventIndex, transactionTemplate, 2);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(cleanupRepository.deleteParticipationChunk(any(), eq(7L), eq(2))).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void submit_DeletesInChunksThenUser() throws InterruptedException {
+        when(cleanupRepository.deleteParticipationChunk(ParticipantRole.PLAYER, 7L, 2))
+                .thenReturn(List.of(10L, 11L), List.of(12L));
+        when(cleanupRepository.deleteNotificationChunk(7L, 2)).thenReturn(2, 2, 1);
+        when(upcomingEventIndex.contains(11L)).thenReturn(true);
+        CountDownLatch deleted = deletedLatch();
+
+        assertTrue(service.submit(7L));
+
+        assertTrue(deleted.await(5, TimeUnit.SECONDS));
+        awaitIdle(7L);
+        verify(accessTokenService).revokeUser(7L);
+        verify(cleanupRepository, times(2)).deleteParticipationChunk(ParticipantRole.PLAYER, 7L, 2);
+        verify(cleanupRepository, times(3)).deleteNotificationChunk(7L, 2);
+        verify(seatLedger).invalidate(10L);
+        verify(seatLedger).invalidate(11L);
+        verify(seatLedger).invalidate(12L);
+        verify(upcomingEventIndex).refresh(11L);
+        verify(upcomingEventIndex, never()).refresh(10L);
+    }
+
+    @Test
+    void submit_WhileInProgress_ReturnsFalse() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cleanupRepository.deleteNotificationChunk(7L, 2)).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        CountDownLatch deleted = deletedLatch();
+
+        assertTrue(service.submit(7L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(service.isInProgress(7L));
+        assertFalse(service.submit(7L));
+        release.countDown();
+
+        assertTrue(deleted.await(5, TimeUnit.SECONDS));
+        verify(accessTokenService, times(1)).revokeUser(7L);
+        verify(userService, times(1)).deleteUser(7L);
+    }
+
+    @Test
+    void submit_UnknownUser_Throws() {
+        assertThrows(ResourceNotFoundException.class, () -> service.submit(8L));
+
+        verifyNoInteractions(accessTokenService, cleanupRepository);
+        assertFalse(service.isInProgress(8L));
+    }
+
+    @Test
+    void submit_UserDeletedMeanwhile_ReleasesSlot() throws InterruptedException {
+        CountDownLatch deleted = new CountDownLatch(1);
+        doAnswer(inv -> {
+            deleted.countDown();
+            throw new ResourceNotFoundException("Пользователь не найден с id: 7");
+        }).when(userService).deleteUser(7L);
+
+        assertTrue(service.submit(7L));
+
+        assertTrue(deleted.await(5, TimeUnit.SECONDS));
+        awaitIdle(7L);
+        assertTrue(service.submit(7L));
+    }
+
+    private CountDownLatch deletedLatch() {
+        CountDownLatch deleted = new CountDownLatch(1);
+        doAnswer(inv -> {
+            deleted.countDown();
+            return null;
+        }).when(userService).deleteUser(7L);
+        return deleted;
+    }
+
+    // Слот освобождается в finally уже после deleteUser
+    private void awaitIdle(Long userId) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.isInProgress(userId) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertFalse(service.isInProgress(userId));
+    }
+}
@@ -1,9 +1,12 @@
 package ed.sport_events_api.service;
 
+import ed.sport_events_api.dto.PageResponse;
+import ed.sport_events_api.dto.UserListItemDTO;
 import ed.sport_events_api.exception.ResourceNotFoundException;
 import ed.sport_events_api.model.Role;
 import ed.sport_events_api.model.User;
 import ed.sport_events_api.model.enums.ERole;
+import ed.sport_events_api.model.enums.ParticipantRole;
 import ed.sport_events_api.repository.*;
 
 import org.junit.jupiter.api.Test;
@@ -11,7 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,17 +29,40 @@ public class UserServiceImplTest {
     @Mock private RoleRepository roleRepository;
     @Mock private TeamRepository teamRepository;
     @Mock private EventRepository eventRepository;
-    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private PasswordHashingService passwordHashingService;
+    @Mock private UserCache userCache;
+    @Mock private UserCleanupRepository cleanupRepository;
+    @Mock private SeatLedger seatLedger;
+    @Mock private UpcomingEventIndex upcomingEventIndex;
+    @Mock private AccessTokenService accessTokenService;
+    @Mock private SuggestIndex suggestIndex;
     @InjectMocks private UserServiceImpl userService;
 
-    private final User testUser = new User(1L, "test@example.com", "encodedPass", "John", "+123", "avatar.jpg", new HashSet<>(), new ArrayList<>());
+    private final User testUser = new User(1L, "test@example.com", "encodedPass", "John", "+123", "avatar.jpg", new HashSet<>());
     private final Role testRole = new Role(1L, ERole.PLAYER);
 
-    @Test void getAllUsers_ReturnsUsersList() {
-        when(userRepository.findAll()).thenReturn(List.of(testUser));
-        List<User> result = userService.getAllUsers();
-        assertEquals(1, result.size());
-        verify(userRepository).findAll();
+    @Test void getUsers_ClampsPageSizeAndAddsIdTieBreaker() {
+        UserListItemDTO item = new UserListItemDTO(1L, "John", "test@example.com", "avatar.jpg", "PLAYER");
+        when(userRepository.findDirectoryByRole(eq(ERole.PLAYER), isNull(), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(item), inv.getArgument(2), 1));
+        PageResponse<UserListItemDTO> result = userService.getUsers(ERole.PLAYER, " ", 0, 1000, "email,desc");
+        assertEquals(1, result.getItems().size());
+        assertEquals(100, result.getSize());
+        verify(userRepository).findDirectoryByRole(ERole.PLAYER, null,
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "email").and(Sort.by("id"))));
+    }
+
+    @Test void getUsers_Query_SearchesAllPagesWithEscapedPattern() {
+        when(userRepository.findDirectory(any(), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(), inv.getArgument(1), 0));
+        userService.getUsers(null, " Ann_50% ", 2, 20, null);
+        verify(userRepository).findDirectory("%ann!_50!%%",
+                PageRequest.of(2, 20, Sort.by("name").and(Sort.by("id"))));
+    }
+
+    @Test void getUsers_UnknownSortField_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, null, 0, 20, "password"));
+        verifyNoInteractions(userRepository);
     }
 
     @Test void getUserById_Exists_ReturnsUser() {
@@ -51,9 +80,9 @@ public class UserServiceImplTest {
     }
 
     @Test void createUser_Valid_SavesEncodedPassword() {
-        User newUser = new User(null, "new@test.com", "rawPass", "New", "+111", null, new HashSet<>(), new ArrayList<>());
+        User newUser = new User(null, "new@test.com", "rawPass", "New", "+111", null, new HashSet<>());
         when(userRepository.existsByEmail("new@test.com")).thenReturn(false);
-        when(passwordEncoder.encode("rawPass")).thenReturn("encodedPass");
+        when(passwordHashingService.encode("rawPass")).thenReturn("encodedPass");
         when(userRepository.save(any())).thenReturn(newUser);
 
         User result = userService.createUser(newUser);
@@ -63,10 +92,10 @@ public class UserServiceImplTest {
 
     @Test void updateUser_Valid_UpdatesFields() {
         User existing = testUser;
-        User updates = new User(null, "new@test.com", "newPass", "NewName", "+999", "new.jpg", null, null);
+        User updates = new User(null, "new@test.com", "newPass", "NewName", "+999", "new.jpg", null);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
-        when(passwordEncoder.encode("newPass")).thenReturn("encodedNewPass");
+        when(passwordHashingService.encode("newPass")).thenReturn("encodedNewPass");
         when(userRepository.save(any())).thenReturn(existing);
 
         User result = userService.updateUser(1L, updates);
@@ -76,11 +105,27 @@ public class UserServiceImplTest {
     }
 
     @Test void deleteUser_Valid_CleansAllRelations() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(cleanupRepository.findAffectedEventIds(1L)).thenReturn(List.of(10L));
         userService.deleteUser(1L);
+        for (ParticipantRole role : ParticipantRole.values()) {
+            verify(cleanupRepository).deleteParticipations(role, 1L);
+        }
+        verify(cleanupRepository).deleteTeamMemberships(1L);
         verify(teamRepository).clearCaptainForUser(1L);
         verify(eventRepository).clearOrganizerForUser(1L);
-        verify(userRepository).deleteById(1L);
+        verify(cleanupRepository).deleteEmailDigests(1L);
+        verify(cleanupRepository).deleteNotifications(1L);
+        verify(cleanupRepository).deletePendingNotifications(1L);
+        verify(cleanupRepository).deleteUser(1L);
+        verify(seatLedger).invalidate(10L);
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test void deleteUser_Missing_Throws() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L));
+        verifyNoInteractions(cleanupRepository);
     }
 
     @Test void assignRoleToUser_Valid_AddsRole() {
@@ -105,7 +150,7 @@ public class UserServiceImplTest {
     }
 
     @Test void createUser_DuplicateEmail_ThrowsException() {
-        User duplicate = new User(null, "test@example.com", "pass", "Dup", "+1", null, new HashSet<>(), new ArrayList<>());
+        User duplicate = new User(null, "test@example.com", "pass", "Dup", "+1", null, new HashSet<>());
         when(userRepository.existsByEmail("test@example.com")).thenReturn(true);
         assertThrows(IllegalArgumentException.class, () -> userService.createUser(duplicate));
     }
@@ -0,0 +1,43 @@
+package ed.sport_events_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventCursorTest {
+
+    @Test
+    void encode_RoundTripsDateAndId() {
+        LocalDateTime startDate = LocalDateTime.of(2025, 3, 1, 18, 30, 15, 123_000_000);
+
+        String encoded = new EventCursor(startDate, 42L).encode();
+        EventCursor decoded = EventCursor.decode(encoded);
+
+        assertEquals(startDate, decoded.getStartDate());
+        assertEquals(42L, decoded.getId());
+        // Курсор уходит в query-параметр как есть: только URL-безопасные символы без паддинга
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_MalformedCursor_ThrowsIllegalArgument() {
+        assertInvalid("not base64!");
+        assertInvalid(encode("2025-03-01T18:30"));
+        assertInvalid(encode("yesterday|42"));
+        assertInvalid(encode("2025-03-01T18:30|abc"));
+        assertInvalid(encode("2025-03-01T18:30|"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> EventCursor.decode(cursor));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+package ed.sport_events_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntervalTreeTest {
+
+    @Test
+    void overlapping_TreatsIntervalsAsHalfOpen() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1L);
+        tree.insert(20, 30, 2L);
+
+        assertEquals(List.of(1L), ids(tree.overlapping(15, 20)));
+        assertEquals(List.of(1L, 2L), ids(tree.overlapping(19, 21)));
+        assertTrue(tree.overlapping(30, 40).isEmpty());
+        assertFalse(tree.overlapsAny(0, 10));
+        assertTrue(tree.overlapsAny(29, 35));
+    }
+
+    @Test
+    void remove_DropsOnlyTheGivenInterval() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1L);
+        tree.insert(10, 25, 2L);
+
+        assertTrue(tree.remove(10, 1L));
+        assertFalse(tree.remove(10, 1L));
+
+        assertEquals(List.of(2L), ids(tree.overlapping(0, 100)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void overlapping_MatchesBruteForceAfterRandomInsertsAndRemoves() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<int[]> intervals = new ArrayList<>();
+        Random random = new Random(7);
+        for (int id = 0; id < 1000; id++) {
+            int start = random.nextInt(10_000);
+            int[] interval = {start, start + 1 + random.nextInt(200), id};
+            intervals.add(interval);
+            tree.insert(interval[0], interval[1], id);
+        }
+        for (int i = 0; i < 300; i++) {
+            int[] removed = intervals.remove(random.nextInt(intervals.size()));
+            assertTrue(tree.remove(removed[0], removed[2]));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(10_000);
+            int to = from + 1 + random.nextInt(500);
+            List<Long> expected = intervals.stream()
+                    .filter(it -> it[0] < to && from < it[1])
+                    .sorted((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[2], b[2]))
+                    .map(it -> (long) it[2])
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(tree.overlapping(from, to)));
+            assertEquals(!expected.isEmpty(), tree.overlapsAny(from, to));
+        }
+    }
+
+    private static List<Long> ids(List<IntervalTree.Interval<Integer>> intervals) {
+        return intervals.stream().map(IntervalTree.Interval::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,60 @@
+package ed.sport_events_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderImplTest {
+
+    @Test
+    void matches_AcceptsLegacyPlainTextOnlyVerbatimAndAsksToUpgrade() {
+        PasswordEncoderImpl encoder = new PasswordEncoderImpl(4);
+
+        // Так вход сравнивал пароли до BCrypt, в том числе «secret1» от старого encode
+        assertTrue(encoder.matches("secret", "secret"));
+        assertTrue(encoder.matches("secret1", "secret1"));
+        assertFalse(encoder.matches("secret", "secret1"));
+        assertFalse(encoder.matches("secret", "other"));
+        assertFalse(encoder.matches("secret", null));
+        assertTrue(encoder.upgradeEncoding("secret"));
+    }
+
+    @Test
+    void upgradeEncoding_DetectsStrengthChange() {
+        PasswordEncoderImpl weak = new PasswordEncoderImpl(4);
+        PasswordEncoderImpl strong = new PasswordEncoderImpl(5);
+        String hash = weak.encode("secret");
+
+        assertTrue(strong.matches("secret", hash));
+        assertFalse(weak.upgradeEncoding(hash));
+        assertTrue(strong.upgradeEncoding(hash));
+        assertEquals(4, PasswordEncoderImpl.strengthOf(hash));
+    }
+
+    @Test
+    void seedUsers_StoreCurrentBcryptHashes() throws IOException {
+        String sql;
+        try (InputStream in = getClass().getResourceAsStream("/data.sql")) {
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        PasswordEncoderImpl encoder = new PasswordEncoderImpl(10);
+        Matcher users = Pattern.compile("\\('([^']+)', '([^']*)', '[^']*', '[^']*', 'https").matcher(sql);
+        List<String> seen = new ArrayList<>();
+        while (users.find()) {
+            String email = users.group(1);
+            String hash = users.group(2);
+            seen.add(email);
+            assertFalse(encoder.upgradeEncoding(hash), email);
+            assertTrue(encoder.matches(email.equals("12345") ? "12345" : "1", hash), email);
+        }
+        assertEquals(List.of("admin", "organizer", "12345", "player", "player1", "referee"), seen);
+    }
+}
@@ -0,0 +1,47 @@
+package ed.sport_events_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_AllowsBurstThenRefillsAtRate() {
+        RateLimiter limiter = new RateLimiter(4, 100);
+        RateLimiter.Limit limit = new RateLimiter.Limit(3, 2);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client", limit, 0));
+        }
+        long wait = limiter.tryAcquire("client", limit, 0);
+        assertEquals(SECOND / 2, wait);
+
+        assertEquals(0, limiter.tryAcquire("client", limit, SECOND / 2));
+        assertTrue(limiter.tryAcquire("client", limit, SECOND / 2) > 0);
+        assertEquals(0, limiter.tryAcquire("other", limit, SECOND / 2));
+    }
+
+    @Test
+    void tryAcquire_RefillNeverExceedsCapacity() {
+        RateLimiter limiter = new RateLimiter(1, 10);
+        RateLimiter.Limit limit = new RateLimiter.Limit(2, 1);
+        limiter.tryAcquire("client", limit, 0);
+
+        long later = 3600 * SECOND;
+        assertEquals(0, limiter.tryAcquire("client", limit, later));
+        assertEquals(0, limiter.tryAcquire("client", limit, later));
+        assertTrue(limiter.tryAcquire("client", limit, later) > 0);
+    }
+
+    @Test
+    void size_IsBoundedByEvictingLeastRecentlyUsed() {
+        RateLimiter limiter = new RateLimiter(2, 8);
+        RateLimiter.Limit limit = new RateLimiter.Limit(1, 1);
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("client-" + i, limit, 0);
+        }
+        assertTrue(limiter.size() <= 8);
+    }
+}
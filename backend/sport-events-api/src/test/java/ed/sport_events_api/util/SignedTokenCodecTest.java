@@ -0,0 +1,82 @@
+package ed.sport_events_api.util;
+
+import ed.sport_events_api.dto.SessionRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignedTokenCodecTest {
+    private static final long NOW = 1_700_000_000L;
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+
+    @Test
+    void verify_ReturnsIssuedClaimsUntilExpiry() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of(1, key(1)), 1, Duration.ofHours(1));
+        String token = codec.issue(42L, 0b101, NOW);
+
+        assertTrue(SignedTokenCodec.isSigned(token));
+        SessionRecord record = codec.verify(token, NOW + 60);
+        assertNotNull(record);
+        assertEquals(42L, record.getUserId());
+        assertEquals(0b101, record.getRolesMask());
+        assertNull(codec.verify(token, NOW + 3600));
+    }
+
+    @Test
+    void verify_RejectsTamperedTokens() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of(1, key(1)), 1, Duration.ofHours(1));
+        String token = codec.issue(42L, 1, NOW);
+
+        for (int i = 0; i < token.length(); i++) {
+            if (i == 40) {
+                continue;
+            }
+            char[] chars = token.toCharArray();
+            chars[i] = chars[i] == 'A' ? 'B' : 'A';
+            assertNull(codec.verify(new String(chars), NOW), "position " + i);
+        }
+        assertNull(codec.verify(token.substring(1), NOW));
+        assertNull(codec.verify("not-a-token", NOW));
+    }
+
+    @Test
+    void verify_RejectsCharactersOutsideAlphabetAtAnyPosition() {
+        SignedTokenCodec codec = new SignedTokenCodec(Map.of(1, key(1)), 1, Duration.ofHours(1));
+        String token = codec.issue(42L, 1, NOW);
+
+        // Символ, декодированный как 'A', не должен превращать отозванный токен в «другой» валидный
+        for (char invalid : new char[]{'!', '=', '+', '/', ' ', 'Ä', '\u0000'}) {
+            for (int i = 0; i < token.length(); i++) {
+                if (i == 40) {
+                    continue;
+                }
+                char[] chars = token.toCharArray();
+                chars[i] = invalid;
+                assertNull(codec.verify(new String(chars), NOW), "'" + invalid + "' at position " + i);
+            }
+        }
+    }
+
+    @Test
+    void verify_AcceptsTokensOfRotatedOutActiveKey() {
+        SignedTokenCodec before = new SignedTokenCodec(Map.of(1, key(1)), 1, Duration.ofHours(1));
+        SignedTokenCodec after = new SignedTokenCodec(Map.of(1, key(1), 2, key(2)), 2, Duration.ofHours(1));
+        SignedTokenCodec retired = new SignedTokenCodec(Map.of(2, key(2)), 2, Duration.ofHours(1));
+        String oldToken = before.issue(7L, 1, NOW);
+        String newToken = after.issue(7L, 1, NOW);
+
+        assertNotNull(after.verify(oldToken, NOW));
+        assertNotNull(retired.verify(newToken, NOW));
+        assertNull(retired.verify(oldToken, NOW));
+        assertNull(before.verify(newToken, NOW));
+    }
+}
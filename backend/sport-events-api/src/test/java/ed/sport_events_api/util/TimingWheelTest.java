@@ -0,0 +1,69 @@
+package ed.sport_events_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+
+    private static final long SECOND = 1000L;
+
+    @Test
+    void advance_FiresTimersOnlyAfterTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 6, 0);
+        wheel.schedule(5 * SECOND, "a");
+        wheel.schedule(70 * SECOND, "b");
+
+        assertTrue(wheel.advance(4 * SECOND).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(5 * SECOND));
+        assertTrue(wheel.advance(69 * SECOND).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(70 * SECOND));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesTimersFromHigherLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(SECOND, 6, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = (1 + random.nextInt(3 * 24 * 3600)) * SECOND;
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 3 * 24 * 3600 * SECOND; now += 600 * SECOND) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now);
+                assertTrue(deadline > now - 600 * SECOND);
+                fired.add(deadline);
+            }
+        }
+        assertEquals(deadlines.size(), fired.size());
+    }
+
+    @Test
+    void cancel_DropsTimerLazily() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 6, 0);
+        TimingWheel.Timeout<String> timeout = wheel.schedule(10 * SECOND, "a");
+        wheel.schedule(10 * SECOND, "b");
+
+        timeout.cancel();
+
+        assertEquals(List.of("b"), wheel.advance(10 * SECOND));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_WithPastDeadline_FiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(SECOND, 6, 100 * SECOND);
+        wheel.schedule(50 * SECOND, "late");
+
+        assertEquals(List.of("late"), wheel.advance(100 * SECOND));
+    }
+}
@@ -10,12 +10,18 @@ export function BaseLayout() {
   const [loading, setLoading] = useState(true);
   const [currentUser, setCurrentUser] = useState(null);
 
+  // Сама лента загружается в Header; здесь только счётчик непрочитанных
   const handleMarkAsRead = (notificationId) => {
     setCurrentUser(prev => ({
       ...prev,
-      notifications: prev.notifications.map(n => 
-        n.id === notificationId ? { ...n, read: true } : n
-      )
+      unreadNotifications: notificationId === 'all' ? 0 : Math.max((prev.unreadNotifications || 0) - 1, 0)
+    }));
+  };
+
+  const handleNotificationReceived = () => {
+    setCurrentUser(prev => prev && ({
+      ...prev,
+      unreadNotifications: (prev.unreadNotifications || 0) + 1
     }));
   };
 
@@ -78,6 +84,7 @@ export function BaseLayout() {
         currentUser={currentUser}
         onLogout={handleLogout}
         onMarkAsRead={handleMarkAsRead} 
+        onNotificationReceived={handleNotificationReceived}
       />
       <Container maxWidth="lg" sx={{ py: 4 }}>
         <Box component="main">
@@ -142,6 +142,17 @@ export default function EventDetailPage() {
     }
   };
 
+  const handleLeave = async () => {
+    try {
+      await axios.delete(`http://localhost:8080/api/events/${id}/${userRole}/${currentUser.id}`);
+      const response = await axios.get(`http://localhost:8080/api/events/${id}`);
+      setEvent(response.data);
+      setUserRole('none');
+    } catch (error) {
+      console.error('Ошибка при выходе из события:', error);
+    }
+  };
+
   const handleEditClick = () => {
     setEditedEvent({
       title: event.title,
@@ -245,13 +256,12 @@ export default function EventDetailPage() {
         {participants.map(participant => (
           <ListItem key={participant.id}>
             <ListItemAvatar>
-              <Avatar>
-                {participant.firstName?.charAt(0)}{participant.lastName?.charAt(0)}
+              <Avatar src={participant.avatarUrl}>
+                {participant.name?.charAt(0)}
               </Avatar>
             </ListItemAvatar>
             <ListItemText
               primary={`${participant.name}`}
-              secondary={participant.email}
             />
           </ListItem>
         ))}
@@ -361,6 +371,16 @@ export default function EventDetailPage() {
                   Вы судья
                 </Button>
               )}
+              {currentUser && ['player', 'spectator', 'referee'].includes(userRole) && (
+                <Button 
+                  variant="outlined" 
+                  startIcon={<Close />}
+                  color="error"
+                  onClick={handleLeave}
+                >
+                  Покинуть
+                </Button>
+              )}
               {currentUser && isOrganizer && (
                 <>
                   <Button 
@@ -461,7 +481,7 @@ export default function EventDetailPage() {
                     </Typography>
                     <Box sx={{ display: 'flex', alignItems: 'center', mt: 1 }}>
                       <Avatar sx={{ width: 32, height: 32, mr: 1 }}>
-                        {event.organizer?.firstName?.charAt(0)}
+                        {event.organizer?.name?.charAt(0)}
                       </Avatar>
                       <Typography variant="body1">
                         {event.organizer ? `${event.organizer.name}` : 'Не указан'}
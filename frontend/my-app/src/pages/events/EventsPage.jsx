@@ -11,8 +11,12 @@ import {
   People, Sports, Groups
 } from '@mui/icons-material';
 
+const PAGE_SIZE = 24;
+
 export function EventsPage() {
   const [events, setEvents] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [isOrganizer, setIsOrganizer] = useState(false);
@@ -22,8 +26,11 @@ export function EventsPage() {
     const fetchData = async () => {
       try {
         // Получаем события
-        const eventsResponse = await axios.get('http://localhost:8080/api/events');
-        setEvents(eventsResponse.data);
+        const eventsResponse = await axios.get('http://localhost:8080/api/events', {
+          params: { size: PAGE_SIZE }
+        });
+        setEvents(eventsResponse.data.items);
+        setNextCursor(eventsResponse.data.nextCursor);
         
         // Проверяем роль пользователя
         const token = localStorage.getItem('token');
@@ -55,6 +62,21 @@ export function EventsPage() {
     fetchData();
   }, []);
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const response = await axios.get('http://localhost:8080/api/events', {
+        params: { size: PAGE_SIZE, cursor: nextCursor }
+      });
+      setEvents(prev => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (err) {
+      setError(err.message);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const formatDate = (dateString) => {
     const options = { 
       day: 'numeric',
@@ -75,9 +97,9 @@ export function EventsPage() {
 
   const renderParticipants = (event) => {
     const totalParticipants = 
-      (event.players?.length || 0) + 
-      (event.spectators?.length || 0) + 
-      (event.referees?.length || 0);
+      (event.playersCount || 0) + 
+      (event.spectatorsCount || 0) + 
+      (event.refereesCount || 0);
     
     if (totalParticipants === 0) return null;
 
@@ -91,17 +113,17 @@ export function EventsPage() {
     );
   };
 
-  const renderVenueInfo = (venue) => {
-    if (!venue) return null;
+  const renderVenueInfo = (event) => {
+    if (!event.venueId) return null;
     
     return (
       <Box sx={{ display: 'flex', alignItems: 'center', mb: 0.75 }}>
         <LocationOn />
         <Box>
-          <Typography variant="body2">{venue.name}</Typography>
-          {venue.address && (
+          <Typography variant="body2">{event.venueName}</Typography>
+          {event.venueAddress && (
             <Typography variant="body2" color="text.secondary" sx={{ fontSize: '0.75rem' }}>
-              {venue.address}
+              {event.venueAddress}
             </Typography>
           )}
         </Box>
@@ -172,7 +194,7 @@ export function EventsPage() {
             }}>
               <CardMedia
                 component="img"
-                image={event?.icon_url || 'https://r55.ru/wp-content/uploads/2022/05/22-5.png '}
+                image={event?.iconUrl || 'https://r55.ru/wp-content/uploads/2022/05/22-5.png '}
                 alt={event.title}
                 sx={{
                   height: 160,
@@ -205,10 +227,10 @@ export function EventsPage() {
                   size="small"
                   variant="outlined"
                 />
-                  {event.sportType && (
+                  {event.sportTypeName && (
                     <Chip 
-                      icon={getSportIcon(event.sportType.name)}
-                      label={event.sportType.name} 
+                      icon={getSportIcon(event.sportTypeName)}
+                      label={event.sportTypeName} 
                       size="small"
                       sx={{ textTransform: 'capitalize' }}
                     />
@@ -248,12 +270,12 @@ export function EventsPage() {
                     </Typography>
                   </Box>
 
-                  {renderVenueInfo(event.venue)}
+                  {renderVenueInfo(event)}
 
                   <Box sx={{ display: 'flex', alignItems: 'center', mb: 0.75 }}>
                     <EmojiPeople />
                     <Typography variant="body2" sx={{ fontSize: '0.875rem' }}>
-                      Организатор: {event.organizer?.name || 'Не указан'}
+                      Организатор: {event.organizerName || 'Не указан'}
                     </Typography>
                   </Box>
 
@@ -283,6 +305,19 @@ export function EventsPage() {
         ))}
       </Grid>
 
+      {nextCursor && (
+        <Box sx={{ textAlign: 'center', mt: 4 }}>
+          <Button
+            variant="outlined"
+            size="large"
+            onClick={loadMore}
+            disabled={loadingMore}
+          >
+            {loadingMore ? <CircularProgress size={24} /> : 'Показать ещё'}
+          </Button>
+        </Box>
+      )}
+
       {authChecked && isOrganizer && (
         <Box sx={{ 
           mt: 8, 
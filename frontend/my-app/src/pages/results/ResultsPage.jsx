@@ -134,7 +134,7 @@ const ResultsPage = () => {
                 <CardMedia
                   component="img"
                   height="220"
-                  image={event.icon_url || `https://source.unsplash.com/random/400x300/?${event.sportType.name}`}
+                  image={event.iconUrl || `https://source.unsplash.com/random/400x300/?${event.sportTypeName}`}
                   alt={event.title}
                 />
                 <CardContent sx={{ flexGrow: 1 }}>
@@ -148,7 +148,7 @@ const ResultsPage = () => {
                   <Box sx={{ display: 'flex', alignItems: 'center', mb: 1 }}>
                     <SportsChess fontSize="small" color="action" sx={{ mr: 1 }} />
                     <Typography variant="body2">
-                      {event.sportType.name}
+                      {event.sportTypeName}
                     </Typography>
                   </Box>
                   
@@ -162,7 +162,7 @@ const ResultsPage = () => {
                   <Box sx={{ display: 'flex', alignItems: 'center', mb: 2 }}>
                     <PersonIcon fontSize="small" color="action" sx={{ mr: 1 }} />
                     <Typography variant="body2">
-                      Организатор: {event.organizer.name}
+                      Организатор: {event.organizerName}
                     </Typography>
                   </Box>
                   
@@ -175,10 +175,10 @@ const ResultsPage = () => {
                   
                   <Box sx={{ display: 'flex', justifyContent: 'space-between' }}>
                     <Chip 
-                      label={event.venue.name} 
+                      label={event.venueName} 
                       size="small" 
                       variant="outlined" 
-                      onClick={() => navigate(`/venues/${event.venue.id}`)}
+                      onClick={() => navigate(`/venues/${event.venueId}`)}
                     />
                     <Chip 
                       label="Завершено" 
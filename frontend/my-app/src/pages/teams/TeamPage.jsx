@@ -19,17 +19,25 @@ import {
   CardHeader,
   colors,
   useTheme,
-  alpha
+  alpha,
+  CircularProgress
 } from '@mui/material';
 import { ArrowBack, Star, Group, DateRange, Login, Logout } from '@mui/icons-material';
 import { useParams, useNavigate } from 'react-router-dom';
 import axios from 'axios';
+import { teamApi } from '../../shared/api/teams';
+
+const MEMBERS_PAGE_SIZE = 20;
 
 export function TeamPage() {
   const { id } = useParams();
   const navigate = useNavigate();
   const theme = useTheme();
   const [team, setTeam] = useState(null);
+  const [members, setMembers] = useState([]);
+  const [membersPage, setMembersPage] = useState(0);
+  const [hasMoreMembers, setHasMoreMembers] = useState(false);
+  const [loadingMembers, setLoadingMembers] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [isPlayer, setIsPlayer] = useState(false);
@@ -37,12 +45,36 @@ export function TeamPage() {
   const [authChecked, setAuthChecked] = useState(false);
   const [isMember, setIsMember] = useState(false);
 
+  // Карточка команды с числом участников и первая страница состава
+  const loadTeam = async () => {
+    const [summary, roster] = await Promise.all([
+      teamApi.getById(id),
+      teamApi.getMembers(id, { page: 0, size: MEMBERS_PAGE_SIZE })
+    ]);
+    setTeam(summary);
+    setMembers(roster.items);
+    setMembersPage(0);
+    setHasMoreMembers(roster.totalPages > 1);
+  };
+
+  const loadMoreMembers = async () => {
+    setLoadingMembers(true);
+    try {
+      const roster = await teamApi.getMembers(id, { page: membersPage + 1, size: MEMBERS_PAGE_SIZE });
+      setMembers(prev => [...prev, ...roster.items]);
+      setMembersPage(roster.page);
+      setHasMoreMembers(roster.page + 1 < roster.totalPages);
+    } catch (err) {
+      setError(err.response?.data?.message || 'Не удалось загрузить участников');
+    } finally {
+      setLoadingMembers(false);
+    }
+  };
+
   useEffect(() => {
     const fetchTeamData = async () => {
       try {
-        // Получаем данные команды
-        const teamResponse = await axios.get(`http://localhost:8080/api/teams/${id}`);
-        setTeam(teamResponse.data);
+        await loadTeam();
 
         // Проверяем авторизацию пользователя
         const token = localStorage.getItem('token');
@@ -58,13 +90,8 @@ export function TeamPage() {
             const userRoles = userResponse.data.roles || [];
             setIsPlayer(userRoles.some(role => role.name === "PLAYER"));
             
-            // Проверяем, является ли пользователь участником команды
-            if (teamResponse.data.members) {
-              const member = teamResponse.data.members.find(
-                m => m.user && m.user.id === userResponse.data.id
-              );
-              setIsMember(!!member);
-            }
+            // Состав может быть длиннее загруженной страницы — спрашиваем сервер
+            setIsMember(await teamApi.isMember(id));
           } catch (authError) {
             console.error("Ошибка проверки авторизации:", authError);
             localStorage.removeItem('token');
@@ -91,21 +118,10 @@ export function TeamPage() {
         return;
       }
 
-      await axios.post(
-        `http://localhost:8080/api/teams/${id}/join`,
-        {},
-        {
-          headers: {
-            Authorization: `Bearer ${token}`
-          }
-        }
-      );
+      await teamApi.join(id);
 
       // Обновляем данные команды после вступления
-      const response = await axios.get(`http://localhost:8080/api/teams/${id}`);
-      setTeam(response.data);
-      console.log(response.data);
-      
+      await loadTeam();
       setIsMember(true);
     } catch (err) {
       setError(err.response?.data?.message || 'Не удалось вступить в команду');
@@ -117,19 +133,10 @@ export function TeamPage() {
       const token = localStorage.getItem('token');
       if (!token) return;
 
-      await axios.post(
-        `http://localhost:8080/api/teams/${id}/leave`,
-        {},
-        {
-          headers: {
-            Authorization: `Bearer ${token}`
-          }
-        }
-      );
+      await teamApi.leave(id);
 
       // Обновляем данные команды после выхода
-      const response = await axios.get(`http://localhost:8080/api/teams/${id}`);
-      setTeam(response.data);
+      await loadTeam();
       setIsMember(false);
     } catch (err) {
       setError(err.response?.data?.message || 'Не удалось покинуть команду');
@@ -167,7 +174,11 @@ export function TeamPage() {
           />
           
           <TeamMembers 
-            members={team.members} 
+            members={members} 
+            total={team.memberCount}
+            hasMore={hasMoreMembers}
+            loadingMore={loadingMembers}
+            onLoadMore={loadMoreMembers}
             theme={theme} 
             currentUserId={currentUser?.id}
           />
@@ -214,7 +225,7 @@ const TeamHeader = ({ team, theme, isPlayer, isMember, onJoin, onLeave, authChec
         <Box sx={{ display: 'flex', alignItems: 'center', mt: 1 }}>
           <Star color="primary" sx={{ mr: 1 }} />
           <Typography variant="h6" color="text.secondary">
-            Капитан: <strong>{team.captain?.name || 'Не указан'}</strong>
+            Капитан: <strong>{team.captainName || 'Не указан'}</strong>
           </Typography>
         </Box>
       </Box>
@@ -248,7 +259,7 @@ const TeamHeader = ({ team, theme, isPlayer, isMember, onJoin, onLeave, authChec
   </Card>
 );
 
-const TeamMembers = ({ members, theme, currentUserId }) => (
+const TeamMembers = ({ members, total, hasMore, loadingMore, onLoadMore, theme, currentUserId }) => (
   <Card sx={{ 
     width: '100%',
     boxShadow: 'none',
@@ -261,7 +272,7 @@ const TeamMembers = ({ members, theme, currentUserId }) => (
           <Group color="primary" sx={{ mr: 1 }} /> 
           Участники команды
           <Chip 
-            label={members?.length || 0} 
+            label={total || 0} 
             color="primary" 
             size="small" 
             sx={{ ml: 1.5 }} 
@@ -291,25 +302,25 @@ const TeamMembers = ({ members, theme, currentUserId }) => (
               }}>
                 <ListItemAvatar>
                   <Avatar 
-                    src={member.user?.avatarUrl} 
-                    alt={member.user?.name}
+                    src={member.avatarUrl} 
+                    alt={member.name}
                     sx={{
                       width: 56,
                       height: 56,
                       fontSize: 24,
-                      backgroundColor: member.user?.id === currentUserId 
+                      backgroundColor: member.userId === currentUserId 
                         ? theme.palette.primary.main 
                         : colors.deepPurple[500],
                       color: theme.palette.common.white
                     }}
                   >
-                    {member.user?.name?.charAt(0)}
+                    {member.name?.charAt(0)}
                   </Avatar>
                 </ListItemAvatar>
                 <ListItemText
                   primary={
                     <Typography variant="h6">
-                      {member.user?.name || 'Неизвестный участник'}
+                      {member.name || 'Неизвестный участник'}
                       {member.role === 'Капитан' && (
                         <Star color="primary" sx={{ fontSize: 16, ml: 1, verticalAlign: 'middle' }} />
                       )}
@@ -339,6 +350,13 @@ const TeamMembers = ({ members, theme, currentUserId }) => (
               )}
             </React.Fragment>
           ))}
+          {hasMore && (
+            <ListItem sx={{ justifyContent: 'center', py: 2 }}>
+              <Button variant="outlined" onClick={onLoadMore} disabled={loadingMore}>
+                {loadingMore ? <CircularProgress size={24} /> : 'Показать ещё'}
+              </Button>
+            </ListItem>
+          )}
         </List>
       ) : (
         <Box sx={{ p: 4, textAlign: 'center' }}>
@@ -2,23 +2,32 @@ import React, { useState, useEffect } from 'react';
 import axios from 'axios';
 import { 
   Box, Container, Typography, Grid, Card, CardContent, CardMedia, 
-  Button, Chip, CircularProgress, Alert, Stack, Divider, Avatar,
-  List, ListItem, ListItemAvatar, ListItemText, Badge,
+  Button, Chip, CircularProgress, Alert, Stack, Divider, Avatar, Pagination,
   Dialog, DialogTitle, DialogContent, DialogActions,
-  TextField, IconButton, Snackbar, MenuItem, Select, FormControl, InputLabel
+  TextField, IconButton, Snackbar, Autocomplete
 } from '@mui/material';
 import { Link } from 'react-router-dom';
 import {
   Groups, Person, SportsSoccer, EmojiEvents,
-  Sports, Star, Close, AddPhotoAlternate
+  Sports, Close, AddPhotoAlternate
 } from '@mui/icons-material';
+import { teamApi } from '../../shared/api/teams';
+import { searchApi } from '../../shared/api/search';
+
+const PAGE_SIZE = 12;
+const CAPTAIN_SUGGEST_DELAY_MS = 300;
 
 export default function TeamsPage() {
   const [teams, setTeams] = useState([]);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalTeams, setTotalTeams] = useState(0);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [isOrganizer, setIsOrganizer] = useState(false);
-  const [players, setPlayers] = useState([]);
+  const [captainQuery, setCaptainQuery] = useState('');
+  const [captainOptions, setCaptainOptions] = useState([]);
+  const [captain, setCaptain] = useState(null);
   
   const [authChecked, setAuthChecked] = useState(false);
   const [openCreateDialog, setOpenCreateDialog] = useState(false);
@@ -35,17 +44,40 @@ export default function TeamsPage() {
     severity: 'success'
   });
 
+  const loadTeams = async (pageNumber) => {
+    const data = await teamApi.getPage({ page: pageNumber, size: PAGE_SIZE });
+    setTeams(data.items);
+    setTotalPages(data.totalPages);
+    setTotalTeams(data.totalElements);
+  };
+
+  // Карточки команд — только текущая страница; состав загружается на странице команды
+  useEffect(() => {
+    loadTeams(page).catch(err => setError(err.message));
+  }, [page]);
+
+  // Капитан ищется по префиксу имени или email среди всех пользователей, а не в первой сотне
+  useEffect(() => {
+    const query = captainQuery.trim();
+    if (!query) {
+      setCaptainOptions(captain ? [captain] : []);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(() => {
+      searchApi.suggest(query, { type: 'USER', limit: 20 })
+        .then(options => { if (!cancelled) setCaptainOptions(options); })
+        .catch(() => { if (!cancelled) setCaptainOptions([]); });
+    }, CAPTAIN_SUGGEST_DELAY_MS);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [captainQuery, captain]);
+
   useEffect(() => {
     const fetchData = async () => {
       try {
-        // Получаем команды
-        const teamsResponse = await axios.get('http://localhost:8080/api/teams');
-        setTeams(teamsResponse.data);
-        
-        // Получаем список игроков
-        const playersResponse = await axios.get('http://localhost:8080/api/users/players');
-        setPlayers(playersResponse.data);
-        
         const token = localStorage.getItem('token');
         if (token) {
           try {
@@ -74,14 +106,10 @@ export default function TeamsPage() {
 
   const handleCreateTeam = async () => {
     try {
-      const token = localStorage.getItem('token');
-      const response = await axios.post('http://localhost:8080/api/teams/create', newTeam, {
-        headers: {
-          Authorization: `Bearer ${token}`
-        }
-      });
+      await teamApi.create(newTeam);
 
-      setTeams([...teams, response.data]);
+      // Новая команда встаёт на своё место по названию — перечитываем текущую страницу
+      await loadTeams(page);
       setOpenCreateDialog(false);
       setNewTeam({
         name: '',
@@ -90,6 +118,8 @@ export default function TeamsPage() {
         logoUrl: '',
         captainId: ''
       });
+      setCaptain(null);
+      setCaptainQuery('');
       setSnackbar({
         open: true,
         message: 'Команда успешно создана!',
@@ -112,39 +142,6 @@ export default function TeamsPage() {
     });
   };
 
-  const renderMembers = (members) => {
-    if (!members || members.length === 0) return null;
-
-    return (
-      <Box sx={{ mt: 2 }}>
-        <Typography variant="subtitle2" color="text.secondary" gutterBottom>
-          Участники ({members.length})
-        </Typography>
-        <List dense sx={{ py: 0, maxHeight: 150, overflow: 'auto' }}>
-          {members.map((member) => (
-            <ListItem key={member.id} sx={{ px: 0 }}>
-              <ListItemAvatar>
-                <Badge
-                  overlap="circular"
-                  anchorOrigin={{ vertical: 'bottom', horizontal: 'right' }}
-                  badgeContent={member.isCaptain ? <Star color="primary" sx={{ fontSize: 16 }} /> : null}
-                >
-                  <Avatar src={member.user?.avatarUrl}>
-                    {member.user?.username?.charAt(0)}
-                  </Avatar>
-                </Badge>
-              </ListItemAvatar>
-              <ListItemText
-                primary={member.user?.name}
-                secondary={member.role}
-              />
-            </ListItem>
-          ))}
-        </List>
-      </Box>
-    );
-  };
-
   if (loading) {
     return (
       <Container maxWidth="xl" sx={{ py: 8, textAlign: 'center' }}>
@@ -184,6 +181,11 @@ export default function TeamsPage() {
         <Typography variant="h6" color="text.secondary" sx={{ mt: 1 }}>
           Найдите свою команду или создайте новую
         </Typography>
+        {totalTeams > 0 && (
+          <Typography variant="body2" color="text.secondary" sx={{ mt: 1 }}>
+            Всего команд: {totalTeams}
+          </Typography>
+        )}
       </Box>
 
       <Grid container spacing={3} sx={{ justifyContent: 'center' }}>
@@ -233,7 +235,8 @@ export default function TeamsPage() {
                     size="small"
                   />
                   <Chip 
-                    label={`${team.members?.length || 0}`} 
+                    icon={<Person />}
+                    label={`${team.memberCount}`} 
                     color="info"
                     size="small"
                     variant="outlined"
@@ -252,18 +255,16 @@ export default function TeamsPage() {
                   {team.name}
                 </Typography>
 
-                {team.captain && (
+                {team.captainName && (
                   <Box sx={{ display: 'flex', alignItems: 'center', mb: 1.5 }}>
                     <Person color="action" />
                     <Typography variant="body2" color="text.secondary" sx={{ ml: 1 }}>
-                      Капитан: {team.captain.name}
+                      Капитан: {team.captainName}
                     </Typography>
                   </Box>
                 )}
 
                 <Divider sx={{ my: 1.5 }} />
-
-                {renderMembers(team.members)}
               </CardContent>
               
               <Box sx={{ p: 2, pt: 0 }}>
@@ -288,6 +289,17 @@ export default function TeamsPage() {
         ))}
       </Grid>
 
+      {totalPages > 1 && (
+        <Box sx={{ display: 'flex', justifyContent: 'center', mt: 4 }}>
+          <Pagination
+            count={totalPages}
+            page={page + 1}
+            onChange={(_, value) => setPage(value - 1)}
+            color="primary"
+          />
+        </Box>
+      )}
+
       {authChecked && isOrganizer && (
         <Box sx={{ 
           mt: 8, 
@@ -363,29 +375,32 @@ export default function TeamsPage() {
               }}
             />
 
-            <FormControl fullWidth>
-              <InputLabel id="captain-select-label">Капитан команды</InputLabel>
-              <Select
-                labelId="captain-select-label"
-                id="captain-select"
-                name="captainId"
-                value={newTeam.captainId}
-                label="Капитан команды"
-                onChange={handleInputChange}
-                required
-              >
-                {players.map((player) => (
-                  <MenuItem key={player.id} value={player.id}>
-                    <Box sx={{ display: 'flex', alignItems: 'center' }}>
-                      <Avatar src={player.avatarUrl} sx={{ width: 24, height: 24, mr: 2 }}>
-                        {player.name?.charAt(0)}
-                      </Avatar>
-                      {player.name} ({player.email})
-                    </Box>
-                  </MenuItem>
-                ))}
-              </Select>
-            </FormControl>
+            <Autocomplete
+              id="captain-select"
+              options={captainOptions}
+              value={captain}
+              filterOptions={(options) => options}
+              getOptionLabel={(option) => option.detail ? `${option.name} (${option.detail})` : option.name}
+              isOptionEqualToValue={(option, value) => option.id === value.id}
+              noOptionsText={captainQuery.trim() ? 'Никого не нашлось' : 'Начните вводить имя или email'}
+              // После выбора в поле подставляется подпись варианта — по ней искать не нужно
+              onInputChange={(event, value, reason) => setCaptainQuery(reason === 'reset' ? '' : value)}
+              onChange={(event, value) => {
+                setCaptain(value);
+                setNewTeam({ ...newTeam, captainId: value ? value.id : '' });
+              }}
+              renderOption={(props, option) => (
+                <Box component="li" {...props} key={option.id} sx={{ display: 'flex', alignItems: 'center' }}>
+                  <Avatar sx={{ width: 24, height: 24, mr: 2 }}>
+                    {option.name?.charAt(0)}
+                  </Avatar>
+                  {option.name} ({option.detail})
+                </Box>
+              )}
+              renderInput={(params) => (
+                <TextField {...params} label="Капитан команды" required />
+              )}
+            />
           </Stack>
         </DialogContent>
         <DialogActions>
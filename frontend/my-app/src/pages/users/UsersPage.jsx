@@ -36,25 +36,28 @@ import {
   Delete as DeleteIcon,
   Person as PersonIcon,
   Email as EmailIcon,
-  Phone as PhoneIcon,
   Refresh as RefreshIcon,
 } from '@mui/icons-material';
 import { userApi } from '../../shared/api/users';
 import { useAuth } from '../../shared/hooks/userAuth';
 
+const SEARCH_DELAY_MS = 300;
+
 export function UsersPage() {
   const navigate = useNavigate();
   const { isAdmin } = useAuth();
   const [users, setUsers] = useState([]);
+  const [total, setTotal] = useState(0);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [page, setPage] = useState(0);
   const [rowsPerPage, setRowsPerPage] = useState(10);
   const [searchTerm, setSearchTerm] = useState('');
+  const [query, setQuery] = useState('');
   const [filterAnchorEl, setFilterAnchorEl] = useState(null);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
   const [userToDelete, setUserToDelete] = useState(null);
-  const [currentFilter, setCurrentFilter] = useState('all'); // 'all', 'admins', 'users'
+  const [currentFilter, setCurrentFilter] = useState('all'); // 'all', 'admins', 'players'
   
   // Состояние для сортировки
   const [order, setOrder] = useState('asc');
@@ -64,20 +67,38 @@ export function UsersPage() {
     { id: 'avatar', label: '', minWidth: 60, sortable: false },
     { id: 'name', label: 'Имя', minWidth: 150, sortable: true },
     { id: 'email', label: 'Email', minWidth: 200, sortable: true },
-    { id: 'phone', label: 'Телефон', minWidth: 150, sortable: true },
     { id: 'roles', label: 'Роли', minWidth: 200, sortable: false },
     { id: 'actions', label: 'Действия', minWidth: 100, sortable: false }
   ];
 
+  const roleByFilter = { all: undefined, admins: 'ADMIN', players: 'PLAYER' };
+
+  // Запрос уходит, когда пользователь перестал печатать, и начинает с первой страницы
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      setQuery(searchTerm.trim());
+      setPage(0);
+    }, SEARCH_DELAY_MS);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   useEffect(() => {
     fetchUsers();
-  }, []);
+  }, [page, rowsPerPage, order, orderBy, currentFilter, query]);
 
+  // Поиск, сортировка и постраничный вывод — на сервере, загружается только текущая страница
   const fetchUsers = async () => {
     try {
       setLoading(true);
-      const data = await userApi.getAll();
-      setUsers(data);
+      const data = await userApi.getPage({
+        page,
+        size: rowsPerPage,
+        sort: `${orderBy},${order}`,
+        role: roleByFilter[currentFilter],
+        q: query
+      });
+      setUsers(data.items);
+      setTotal(data.totalElements);
     } catch (err) {
       setError(err.message);
     } finally {
@@ -89,37 +110,11 @@ export function UsersPage() {
     const isAsc = orderBy === property && order === 'asc';
     setOrder(isAsc ? 'desc' : 'asc');
     setOrderBy(property);
-  };
-
-  const descendingComparator = (a, b, orderBy) => {
-    if (b[orderBy] < a[orderBy]) {
-      return -1;
-    }
-    if (b[orderBy] > a[orderBy]) {
-      return 1;
-    }
-    return 0;
-  };
-
-  const getComparator = (order, orderBy) => {
-    return order === 'desc'
-      ? (a, b) => descendingComparator(a, b, orderBy)
-      : (a, b) => -descendingComparator(a, b, orderBy);
-  };
-
-  const stableSort = (array, comparator) => {
-    const stabilizedThis = array.map((el, index) => [el, index]);
-    stabilizedThis.sort((a, b) => {
-      const order = comparator(a[0], b[0]);
-      if (order !== 0) return order;
-      return a[1] - b[1];
-    });
-    return stabilizedThis.map((el) => el[0]);
+    setPage(0);
   };
 
   const handleSearch = (e) => {
     setSearchTerm(e.target.value);
-    setPage(0);
   };
 
   const handleFilterOpen = (event) => {
@@ -169,26 +164,6 @@ export function UsersPage() {
     setPage(0);
   };
 
-  const filteredUsers = users.filter(user => {
-    // Применяем фильтр по ролям
-    const roleFilterPassed = 
-      currentFilter === 'all' ||
-      (currentFilter === 'admins' && user.roles?.some(role => role.name === 'ADMIN')) ||
-      (currentFilter === 'users' && !user.roles?.some(role => role.name === 'ADMIN'));
-    
-    // Применяем поисковый запрос
-    const searchLower = searchTerm.toLowerCase();
-    const searchPassed = 
-      user.name?.toLowerCase().includes(searchLower) ||
-      user.email?.toLowerCase().includes(searchLower) ||
-      user.phone?.toLowerCase().includes(searchLower) ||
-      user.roles?.some(role => role.name.toLowerCase().includes(searchLower));
-    
-    return roleFilterPassed && searchPassed;
-  });
-
-  const sortedUsers = stableSort(filteredUsers, getComparator(order, orderBy));
-
   if (loading && users.length === 0) {
     return (
       <Box display="flex" justifyContent="center" alignItems="center" minHeight="60vh">
@@ -274,10 +249,10 @@ export function UsersPage() {
                 Только администраторы
               </MenuItem>
               <MenuItem 
-                onClick={() => handleFilterSelect('users')}
-                selected={currentFilter === 'users'}
+                onClick={() => handleFilterSelect('players')}
+                selected={currentFilter === 'players'}
               >
-                Только пользователи
+                Только игроки
               </MenuItem>
             </Menu>
           </Box>
@@ -314,12 +289,11 @@ export function UsersPage() {
               </TableRow>
             </TableHead>
             <TableBody>
-              {sortedUsers
-                .slice(page * rowsPerPage, page * rowsPerPage + rowsPerPage)
+              {users
                 .map(user => (
                   <TableRow hover key={user.id}>
                     <TableCell>
-                      <Avatar src={user.avatar_url} alt={user.name} 
+                      <Avatar src={user.avatarUrl} alt={user.name} 
                       sx={{transition: 'transform 0.3s',
                       '&:hover': {
                         transform: 'translateY(-3px)',
@@ -358,26 +332,16 @@ export function UsersPage() {
                         <Typography>{user.email}</Typography>
                       </Box>
                     </TableCell>
-                    <TableCell>
-                      {user.phone ? (
-                        <Box display="flex" alignItems="center" gap={1}>
-                          <PhoneIcon color="action" />
-                          <Typography>{user.phone}</Typography>
-                        </Box>
-                      ) : (
-                        <Typography color="textSecondary">Не указан</Typography>
-                      )}
-                    </TableCell>
                     <TableCell>
                       <Box display="flex" gap={1} flexWrap="wrap">
                         {user.roles?.length > 0 ? (
                           user.roles.map(role => (
                             <Chip
-                              key={role.id}
-                              label={role.name}
+                              key={role}
+                              label={role}
                               size="small"
                               color={
-                                role.name === 'ADMIN' ? 'primary' : 'default'
+                                role === 'ADMIN' ? 'primary' : 'default'
                               }
                               sx={{transition: 'transform 0.3s',
                               '&:hover': {
@@ -396,7 +360,7 @@ export function UsersPage() {
                       </Box>
                     </TableCell>
                     <TableCell>
-                      {isAdmin && user.roles?.some(role => role.name !== 'ADMIN') && (
+                      {isAdmin && user.roles?.some(role => role !== 'ADMIN') && (
                         <Tooltip title="Удалить">
                           <IconButton
                             onClick={() => handleDeleteClick(user)}
@@ -416,7 +380,7 @@ export function UsersPage() {
         <TablePagination
           rowsPerPageOptions={[10, 25, 50, 100]}
           component="div"
-          count={sortedUsers.length}
+          count={total}
           rowsPerPage={rowsPerPage}
           page={page}
           onPageChange={handleChangePage}
@@ -20,6 +20,16 @@ export const login = async (credentials) => {
   }
 };
 
+export const logout = async (token) => {
+  try {
+    await axios.post(`${API_URL}/logout`, null, {
+      headers: { Authorization: `Bearer ${token}` }
+    });
+  } catch (error) {
+    console.error('Logout failed:', error);
+  }
+};
+
 export const getCurrentUser = async (token) => {
   try {
     const response = await axios.get(`${API_URL}/current`, {
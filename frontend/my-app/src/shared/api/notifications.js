@@ -0,0 +1,45 @@
+import axios from 'axios';
+
+const API_URL = 'http://localhost:8080/api/notifications';
+
+const authHeaders = () => ({ Authorization: `Bearer ${localStorage.getItem('token')}` });
+
+export const notificationApi = {
+  // Страница ленты, новые сверху: { items, nextCursor, hasMore }
+  list: async ({ cursor, size = 20 } = {}) => {
+    const response = await axios.get(API_URL, { params: { cursor, size }, headers: authHeaders() });
+    return response.data;
+  },
+
+  unreadCount: async () => {
+    const response = await axios.get(`${API_URL}/unread-count`, { headers: authHeaders() });
+    return response.data.unread;
+  },
+
+  markRead: async (id) => {
+    await axios.put(`${API_URL}/${id}/read`, null, { headers: authHeaders() });
+  },
+
+  markAllRead: async () => {
+    await axios.put(`${API_URL}/read-all`, null, { headers: authHeaders() });
+  },
+
+  remove: async (id) => {
+    await axios.delete(`${API_URL}/${id}`, { headers: authHeaders() });
+  },
+
+  removeAll: async () => {
+    await axios.delete(`${API_URL}/all`, { headers: authHeaders() });
+  },
+
+  // Поток новых оповещений; EventSource сам переподключается с Last-Event-ID.
+  // Возвращает функцию отписки
+  // onMerged получает непрочитанное оповещение, в которое слился повтор (count вырос)
+  subscribe: (onNotification, onMerged = () => {}) => {
+    const token = localStorage.getItem('token');
+    const source = new EventSource(`${API_URL}/stream?token=${encodeURIComponent(token)}`);
+    source.addEventListener('notification', (event) => onNotification(JSON.parse(event.data)));
+    source.addEventListener('notification-merged', (event) => onMerged(JSON.parse(event.data)));
+    return () => source.close();
+  },
+};
@@ -0,0 +1,11 @@
+import axios from 'axios';
+
+const API_URL = 'http://localhost:8080/api/search';
+
+export const searchApi = {
+  // Подсказки по префиксу имени или email: [{ type, id, name, detail }]
+  suggest: async (q, { type, limit = 10 } = {}) => {
+    const response = await axios.get(`${API_URL}/suggest`, { params: { q, type, limit } });
+    return response.data;
+  },
+};
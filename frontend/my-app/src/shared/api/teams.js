@@ -0,0 +1,42 @@
+import axios from 'axios';
+
+const API_URL = 'http://localhost:8080/api/teams';
+
+const authHeaders = () => ({ Authorization: `Bearer ${localStorage.getItem('token')}` });
+
+export const teamApi = {
+  // Страница каталога: { items: [{ id, name, logoUrl, captainId, captainName, memberCount }], page, size, totalElements, totalPages }
+  getPage: async ({ page = 0, size = 12 } = {}) => {
+    const response = await axios.get(API_URL, { params: { page, size } });
+    return response.data;
+  },
+
+  getById: async (id) => {
+    const response = await axios.get(`${API_URL}/${id}`);
+    return response.data;
+  },
+
+  // Состав постранично, капитан первым: { items: [{ id, userId, name, avatarUrl, role, joinDate }], ... }
+  getMembers: async (id, { page = 0, size = 20 } = {}) => {
+    const response = await axios.get(`${API_URL}/${id}/members`, { params: { page, size } });
+    return response.data;
+  },
+
+  isMember: async (id) => {
+    const response = await axios.get(`${API_URL}/${id}/membership`, { headers: authHeaders() });
+    return response.data.member;
+  },
+
+  create: async (team) => {
+    const response = await axios.post(`${API_URL}/create`, team, { headers: authHeaders() });
+    return response.data;
+  },
+
+  join: async (id) => {
+    await axios.post(`${API_URL}/${id}/join`, {}, { headers: authHeaders() });
+  },
+
+  leave: async (id) => {
+    await axios.post(`${API_URL}/${id}/leave`, {}, { headers: authHeaders() });
+  }
+};
@@ -3,8 +3,14 @@ import axios from 'axios';
 const API_URL = 'http://localhost:8080/api/users';
 
 export const userApi = {
-  getAll: async () => {
-    const response = await axios.get(API_URL);
+  // Страница каталога: { items, page, size, totalElements, totalPages }; q — поиск по имени или email
+  getPage: async ({ page = 0, size = 20, sort = 'name,asc', role, q } = {}) => {
+    const response = await axios.get(API_URL, { params: { page, size, sort, role, q: q || undefined } });
+    return response.data;
+  },
+
+  getPlayers: async ({ page = 0, size = 100, sort = 'name,asc', q } = {}) => {
+    const response = await axios.get(`${API_URL}/players`, { params: { page, size, sort, q: q || undefined } });
     return response.data;
   },
 
@@ -3,6 +3,7 @@ import { useNavigate } from 'react-router-dom';
 import { 
   checkAuth, 
   login as apiLogin, 
+  logout as apiLogout, 
   isAdmin, 
   isCurrentUser as checkIsCurrentUser 
 } from '../api/auth';
@@ -51,6 +52,10 @@ export function useAuth() {
   };
 
   const logout = () => {
+    const token = localStorage.getItem('token');
+    if (token) {
+      apiLogout(token);
+    }
     localStorage.removeItem('token');
     setUser(null);
     navigate('/login');
@@ -1,4 +1,4 @@
-import React, { useState } from 'react';
+import React, { useState, useEffect } from 'react';
 import { 
   AppBar, 
   Toolbar, 
@@ -37,16 +37,35 @@ import {
 import EditLocationAltIcon from '@mui/icons-material/EditLocationAlt';
 import GroupIcon from '@mui/icons-material/Group';
 import { Link, useLocation, useNavigate } from 'react-router-dom';
-import axios from 'axios';
+import { notificationApi } from '../../shared/api/notifications';
 
 
-export function Header({ isAuthenticated = false, currentUser = null, onLogout = () => {}, onMarkAsRead = () => {},  onUserUpdate = () => {} }) {
+export function Header({ isAuthenticated = false, currentUser = null, onLogout = () => {}, onMarkAsRead = () => {}, onNotificationReceived = () => {}, onUserUpdate = () => {} }) {
   const location = useLocation();
   const navigate = useNavigate();
   const [anchorEl, setAnchorEl] = useState(null);
   const [profileAnchorEl, setProfileAnchorEl] = useState(null);
   const [notificationsLoading, setNotificationsLoading] = useState(false);
+  const [notifications, setNotifications] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   
+  // Новые оповещения приходят по SSE, пока пользователь авторизован
+  useEffect(() => {
+    if (!isAuthenticated) {
+      return undefined;
+    }
+    return notificationApi.subscribe(
+      (notification) => {
+        setNotifications(prev => prev.some(n => n.id === notification.id) ? prev : [notification, ...prev]);
+        onNotificationReceived(notification);
+      },
+      (merged) => {
+        // Повтор поднимает уже непрочитанное оповещение наверх, счётчик не меняется
+        setNotifications(prev => [merged, ...prev.filter(n => n.id !== merged.id)]);
+      }
+    );
+  }, [isAuthenticated]);
+
   const navItems = [
     { name: 'События', path: '/events', icon: <SportsSoccerIcon /> },
     { name: 'Пользователи', path: '/participants', icon: <PeopleIcon /> },
@@ -61,9 +80,32 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
     handleProfileClose();
   };
 
-  // Обработчики для оповещений
-  const handleNotificationsClick = (event) => {
+  // Обработчики для оповещений: лента загружается при открытии
+  const handleNotificationsClick = async (event) => {
     setAnchorEl(event.currentTarget);
+    try {
+      setNotificationsLoading(true);
+      const page = await notificationApi.list();
+      setNotifications(page.items);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading notifications:', error);
+    } finally {
+      setNotificationsLoading(false);
+    }
+  };
+
+  const handleLoadMore = async () => {
+    try {
+      setNotificationsLoading(true);
+      const page = await notificationApi.list({ cursor: nextCursor });
+      setNotifications(prev => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading notifications:', error);
+    } finally {
+      setNotificationsLoading(false);
+    }
   };
 
   const handleNotificationsClose = () => {
@@ -82,15 +124,9 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
   const handleMarkAsRead = async (notificationId) => {
     try {
       setNotificationsLoading(true);
-      
-      await axios.put(`http://localhost:8080/api/notifications/${notificationId}/read`, null, {
-      });
-  
-      await onMarkAsRead(notificationId);
-      
-      const response = await axios.get('http://localhost:8080/api/auth/current'); 
-      onUserUpdate(response.data);
-      
+      await notificationApi.markRead(notificationId);
+      setNotifications(prev => prev.map(n => n.id === notificationId ? { ...n, read: true } : n));
+      onMarkAsRead(notificationId);
     } catch (error) {
       console.error('Error marking notification as read:', error);
     } finally {
@@ -98,14 +134,26 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
     }
   };
 
+  const handleMarkAllAsRead = async () => {
+    try {
+      setNotificationsLoading(true);
+      await notificationApi.markAllRead();
+      setNotifications(prev => prev.map(n => ({ ...n, read: true })));
+      onMarkAsRead('all');
+    } catch (error) {
+      console.error('Error marking notifications as read:', error);
+    } finally {
+      setNotificationsLoading(false);
+    }
+  };
+
   const open = Boolean(anchorEl);
   const profileOpen = Boolean(profileAnchorEl);
   const id = open ? 'notifications-popover' : undefined;
 
   // Оповещения и их статус
-  const notifications = currentUser?.notifications || [];
-  const unreadNotifications = notifications.filter(n => !n.read);
-  const hasUnreadNotifications = unreadNotifications.length > 0;
+  const unreadCount = currentUser?.unreadNotifications || 0;
+  const hasUnreadNotifications = unreadCount > 0;
   const hasNotifications = notifications.length > 0;
 
   // Роли пользователя
@@ -223,7 +271,7 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
                 disabled={notificationsLoading}
               >
                 <Badge 
-                  badgeContent={hasUnreadNotifications ? unreadNotifications.length : 0} 
+                  badgeContent={unreadCount} 
                   color="error"
                 >
                   {notificationsLoading ? (
@@ -262,11 +310,16 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
                       Уведомления
                     </Typography>
                     {hasUnreadNotifications && (
-                      <Chip 
-                        label={`${unreadNotifications.length} новых`}
-                        color="primary"
-                        size="small"
-                      />
+                      <Box sx={{ display: 'flex', alignItems: 'center', gap: 1 }}>
+                        <Chip 
+                          label={`${unreadCount} новых`}
+                          color="primary"
+                          size="small"
+                        />
+                        <Button size="small" onClick={handleMarkAllAsRead} disabled={notificationsLoading}>
+                          Прочитать все
+                        </Button>
+                      </Box>
                     )}
                   </Box>
                   <Divider sx={{ mb: 2 }} />
@@ -293,7 +346,7 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
                               </Avatar>
                             </ListItemAvatar>
                             <ListItemText
-                              primary={notification.topic}
+                              primary={notification.count > 1 ? `${notification.topic} ×${notification.count}` : notification.topic}
                               secondary={
                                 <>
                                   <Typography
@@ -308,7 +361,9 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
                                     variant="caption"
                                     color="text.secondary"
                                   >
-                                    {formatDate(notification.creationDate)}
+                                    {notification.count > 1
+                                      ? `${formatDate(notification.creationDate)} · последний повтор ${formatDate(notification.lastRepeatedAt)}`
+                                      : formatDate(notification.creationDate)}
                                   </Typography>
                                 </>
                               }
@@ -332,6 +387,13 @@ export function Header({ isAuthenticated = false, currentUser = null, onLogout =
                           <Divider variant="inset" component="li" />
                         </React.Fragment>
                       ))}
+                      {nextCursor && (
+                        <Box sx={{ display: 'flex', justifyContent: 'center', pt: 1 }}>
+                          <Button size="small" onClick={handleLoadMore} disabled={notificationsLoading}>
+                            Показать ещё
+                          </Button>
+                        </Box>
+                      )}
                     </List>
                   ) : (
                     <Box sx={{ 